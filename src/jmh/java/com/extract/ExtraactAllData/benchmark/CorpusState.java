@@ -0,0 +1,40 @@
+package com.extract.ExtraactAllData.benchmark;
+
+import com.extract.ExtraactAllData.support.SyntheticCorpus;
+import com.extract.ExtraactAllData.util.TextParsingUtil;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shared synthetic register text, generated once per trial from a fixed seed
+ * so every run and every benchmark sees exactly the same input.
+ */
+@State(Scope.Benchmark)
+public class CorpusState {
+
+    static final long SEED = 20240601L;
+
+    @Param({"1000", "10000", "100000"})
+    public int records;
+
+    public String text;
+    public List<String> paragraphs;
+    // Names found in each paragraph, for benchmarks that take a paragraph and its names
+    public List<List<String>> names;
+
+    @Setup
+    public void generate() {
+        TextParsingUtil textParsingUtil = new TextParsingUtil();
+        text = SyntheticCorpus.generate(records, SEED);
+        paragraphs = textParsingUtil.splitIntoParagraphsByTrigger(text);
+        names = new ArrayList<>(paragraphs.size());
+        for (String paragraph : paragraphs) {
+            names.add(textParsingUtil.extractAllNames(paragraph));
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.extract.ExtraactAllData.benchmark;
+
+import com.extract.ExtraactAllData.excelGenrator.ExcelGenerator;
+import com.extract.ExtraactAllData.model.ExtractedData;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Both workbook writers over the rows extracted from the corpus
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExcelGeneratorBenchmark {
+
+    private List<ExtractedData> rows;
+
+    @Setup
+    public void extractRows(CorpusState corpus) {
+        rows = ExtractionContext.open(false).extractDataFromText(corpus.text);
+    }
+
+    @Benchmark
+    public byte[] convertToExcel() throws Exception {
+        return ExcelGenerator.convertToExcel(rows);
+    }
+
+    @Benchmark
+    public void writeExcelStreaming() throws IOException {
+        ExcelGenerator.writeExcel(rows, OutputStream.nullOutputStream());
+    }
+}
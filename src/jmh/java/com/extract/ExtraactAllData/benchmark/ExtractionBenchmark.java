@@ -0,0 +1,34 @@
+package com.extract.ExtraactAllData.benchmark;
+
+import com.extract.ExtraactAllData.model.ExtractedData;
+import com.extract.ExtraactAllData.service.DataExtractionService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// End to end extractDataFromText, with the paragraph result cache off so every paragraph is parsed,
+// sequentially and on the fork-join pool
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExtractionBenchmark {
+
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    private DataExtractionService dataExtractionService;
+
+    @Setup
+    public void createService() {
+        dataExtractionService = ExtractionContext.open(false, parallel);
+    }
+
+    @Benchmark
+    public List<ExtractedData> extractDataFromText(CorpusState corpus) {
+        return dataExtractionService.extractDataFromText(corpus.text);
+    }
+}
@@ -0,0 +1,32 @@
+package com.extract.ExtraactAllData.benchmark;
+
+import com.extract.ExtraactAllData.service.DataExtractionService;
+import com.extract.ExtraactAllData.service.ExtractionMetrics;
+import com.extract.ExtraactAllData.service.ParagraphResultCache;
+import com.extract.ExtraactAllData.service.RecordExtractionEngine;
+import com.extract.ExtraactAllData.util.TextParsingUtil;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.Map;
+
+// Minimal Spring context with just the extraction beans, no web server
+final class ExtractionContext {
+
+    private ExtractionContext() {
+    }
+
+    static DataExtractionService open(boolean cacheEnabled) {
+        return open(cacheEnabled, false);
+    }
+
+    static DataExtractionService open(boolean cacheEnabled, boolean parallelEnabled) {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark",
+                Map.of("extraction.cache.enabled", String.valueOf(cacheEnabled),
+                        "extraction.parallel.enabled", String.valueOf(parallelEnabled))));
+        context.register(TextParsingUtil.class, ExtractionMetrics.class, RecordExtractionEngine.class, DataExtractionService.class, ParagraphResultCache.class);
+        context.refresh();
+        return context.getBean(DataExtractionService.class);
+    }
+}
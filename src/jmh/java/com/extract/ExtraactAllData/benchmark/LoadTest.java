@@ -0,0 +1,117 @@
+package com.extract.ExtraactAllData.benchmark;
+
+import com.extract.ExtraactAllData.support.SyntheticCorpus;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mixed load against a running server: heavy clients post large /extract bodies back to back while light clients
+ * call /health and /format, and the latencies of both are reported. Run it once against a server with platform
+ * threads and once with spring.threads.virtual.enabled=true to compare how much the light calls queue.
+ * <p>
+ * Arguments: baseUrl [seconds=30] [heavyClients=16] [lightClients=4] [recordsPerRequest=2000]
+ */
+public final class LoadTest {
+
+    private static final String FORMAT_BODY = "जिला गया तहसील शेरघाटी\nप्रार्थी राम कुमार पुत्र श्याम लाल\n";
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+        int heavyClients = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+        int lightClients = args.length > 3 ? Integer.parseInt(args[3]) : 4;
+        int records = args.length > 4 ? Integer.parseInt(args[4]) : 2000;
+
+        String heavyBody = SyntheticCorpus.generate(records, CorpusState.SEED);
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10)).build();
+        HttpRequest extract = HttpRequest.newBuilder(URI.create(baseUrl + "/api/data-extraction/extract"))
+                .header("Content-Type", "text/plain;charset=UTF-8")
+                .POST(HttpRequest.BodyPublishers.ofString(heavyBody)).build();
+        HttpRequest health = HttpRequest.newBuilder(URI.create(baseUrl + "/api/data-extraction/health")).GET().build();
+        HttpRequest format = HttpRequest.newBuilder(URI.create(baseUrl + "/api/data-extraction/format"))
+                .header("Content-Type", "text/plain;charset=UTF-8")
+                .POST(HttpRequest.BodyPublishers.ofString(FORMAT_BODY)).build();
+
+        // Warm up the JIT and the server before measuring
+        for (int i = 0; i < 3; i++) client.send(extract, HttpResponse.BodyHandlers.discarding());
+
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        List<Client> heavy = new ArrayList<>();
+        List<Client> light = new ArrayList<>();
+        ExecutorService threads = Executors.newFixedThreadPool(heavyClients + lightClients);
+        for (int i = 0; i < heavyClients; i++) heavy.add(new Client(client, end, extract));
+        for (int i = 0; i < lightClients; i++) light.add(new Client(client, end, health, format));
+        heavy.forEach(threads::execute);
+        light.forEach(threads::execute);
+        threads.shutdown();
+        threads.awaitTermination(seconds + 600L, TimeUnit.SECONDS);
+
+        System.out.printf("%d s, %d heavy clients (%d records each), %d light clients against %s%n",
+                seconds, heavyClients, records, lightClients, baseUrl);
+        report("extract", heavy, seconds);
+        report("health+format", light, seconds);
+    }
+
+    private static void report(String name, List<Client> clients, int seconds) {
+        List<Long> all = new ArrayList<>();
+        int errors = 0;
+        for (Client client : clients) {
+            all.addAll(client.latencies);
+            errors += client.errors;
+        }
+        long[] sorted = all.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        System.out.printf("%-14s requests=%d (%.1f/s) errors=%d p50=%.1f ms p95=%.1f ms p99=%.1f ms max=%.1f ms%n",
+                name, sorted.length, sorted.length / (double) seconds, errors,
+                percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99), percentile(sorted, 1.0));
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    // Sends its requests in turn, one at a time, until the end of the run
+    private static final class Client implements Runnable {
+        private final HttpClient client;
+        private final long end;
+        private final HttpRequest[] requests;
+        private final List<Long> latencies = new ArrayList<>();
+        private int errors;
+
+        Client(HttpClient client, long end, HttpRequest... requests) {
+            this.client = client;
+            this.end = end;
+            this.requests = requests;
+        }
+
+        @Override
+        public void run() {
+            for (int i = 0; System.nanoTime() < end; i++) {
+                long start = System.nanoTime();
+                try {
+                    HttpResponse<Void> response = client.send(requests[i % requests.length], HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() >= 300) errors++;
+                } catch (Exception e) {
+                    errors++;
+                }
+                latencies.add(System.nanoTime() - start);
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.extract.ExtraactAllData.benchmark;
+
+import com.extract.ExtraactAllData.util.TextFormatter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TextFormatterBenchmark {
+
+    @Benchmark
+    public String format(CorpusState corpus) {
+        return TextFormatter.format(corpus.text);
+    }
+}
@@ -0,0 +1,49 @@
+package com.extract.ExtraactAllData.benchmark;
+
+import com.extract.ExtraactAllData.util.TextParsingUtil;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Each operation runs one TextParsingUtil method over every paragraph of the corpus
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TextParsingUtilBenchmark {
+
+    private final TextParsingUtil textParsingUtil = new TextParsingUtil();
+
+    @Benchmark
+    public void extractAllNames(CorpusState corpus, Blackhole blackhole) {
+        for (String paragraph : corpus.paragraphs) {
+            blackhole.consume(textParsingUtil.extractAllNames(paragraph));
+        }
+    }
+
+    @Benchmark
+    public void extractRelation(CorpusState corpus, Blackhole blackhole) {
+        for (int i = 0; i < corpus.paragraphs.size(); i++) {
+            String paragraph = corpus.paragraphs.get(i);
+            for (String name : corpus.names.get(i)) {
+                blackhole.consume(textParsingUtil.extractRelation(paragraph, name));
+            }
+        }
+    }
+
+    @Benchmark
+    public void extractUnknownTerms(CorpusState corpus, Blackhole blackhole) {
+        for (String paragraph : corpus.paragraphs) {
+            blackhole.consume(textParsingUtil.extractUnknownTerms(paragraph));
+        }
+    }
+
+    @Benchmark
+    public List<String> splitIntoParagraphsByTrigger(CorpusState corpus) {
+        return textParsingUtil.splitIntoParagraphsByTrigger(corpus.text);
+    }
+}
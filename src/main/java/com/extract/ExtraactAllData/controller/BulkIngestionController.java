@@ -0,0 +1,49 @@
+package com.extract.ExtraactAllData.controller;
+
+import com.extract.ExtraactAllData.model.BulkIngestionRequest;
+import com.extract.ExtraactAllData.model.BulkIngestionStatus;
+import com.extract.ExtraactAllData.service.BulkIngestionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.Map;
+
+// Server-side files in, server-side files out: for archives too large to upload
+@RestController
+@RequestMapping("/api/data-extraction/bulk")
+@CrossOrigin(origins = "*")
+public class BulkIngestionController {
+
+    @Autowired
+    private BulkIngestionService bulkIngestionService;
+
+    @PostMapping
+    public ResponseEntity<?> submit(@RequestBody BulkIngestionRequest request) {
+        try {
+            BulkIngestionStatus status = bulkIngestionService.submit(request);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/data-extraction/bulk/" + status.getRunId()))
+                    .body(status);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            // No base directory configured
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{runId}")
+    public ResponseEntity<BulkIngestionStatus> status(@PathVariable String runId) {
+        BulkIngestionStatus status = bulkIngestionService.getStatus(runId);
+        return status != null ? ResponseEntity.ok(status) : ResponseEntity.notFound().build();
+    }
+
+    @DeleteMapping("/{runId}")
+    public ResponseEntity<BulkIngestionStatus> cancel(@PathVariable String runId) {
+        BulkIngestionStatus status = bulkIngestionService.cancel(runId);
+        return status != null ? ResponseEntity.ok(status) : ResponseEntity.notFound().build();
+    }
+}
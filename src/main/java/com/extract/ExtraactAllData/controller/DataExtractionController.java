@@ -1,9 +1,21 @@
 package com.extract.ExtraactAllData.controller;
 
+import com.extract.ExtraactAllData.excelGenrator.ColumnarExportWriter;
+import com.extract.ExtraactAllData.excelGenrator.DelimitedExportWriter;
+import com.extract.ExtraactAllData.excelGenrator.ExcelExportSettings;
 import com.extract.ExtraactAllData.excelGenrator.ExcelGenerator;
+import com.extract.ExtraactAllData.excelGenrator.PartitionedExcelExport;
+import com.extract.ExtraactAllData.excelGenrator.StreamingExcelWriter;
 import com.extract.ExtraactAllData.model.ExtractedData;
 import com.extract.ExtraactAllData.service.DataExtractionService;
+import com.extract.ExtraactAllData.service.DataExtractionService.ExtractionBusyException;
+import com.extract.ExtraactAllData.service.ParagraphResultCache;
+import com.extract.ExtraactAllData.service.RecordExtractionEngine;
 import com.extract.ExtraactAllData.service.TextService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -13,8 +25,18 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/data-extraction")
@@ -34,6 +56,96 @@ public class DataExtractionController {
         return ResponseEntity.ok(new ApiResponse("SUCCESS", extractedData));
     }
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Same rows as /extract, written as one JSON object per line while the body is still being read
+    @PostMapping(value = "/extract/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> extractDataStream(HttpServletRequest request) throws IOException {
+        dataExtractionService.admit(); // Still able to answer 503, the body below can only block
+        BufferedReader reader = request.getReader();
+        ObjectWriter rowWriter = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+
+        StreamingResponseBody body = out -> {
+            dataExtractionService.extractDataFromReader(reader, rows -> {
+                try {
+                    for (ExtractedData row : rows) {
+                        out.write(rowWriter.writeValueAsBytes(row));
+                        out.write('\n');
+                    }
+                    out.flush(); // Push every finished paragraph to the client right away
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-ndjson")).body(body);
+    }
+
+    // Raw text in, spreadsheet out: rows go from the extractor straight into the workbook writer
+    @PostMapping(value = "/extract/excel", produces = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
+    public ResponseEntity<StreamingResponseBody> extractToExcel(HttpServletRequest request) throws IOException {
+        dataExtractionService.admit();
+        BufferedReader reader = request.getReader();
+
+        StreamingResponseBody body = out -> {
+            try (StreamingExcelWriter writer = new StreamingExcelWriter(out)) {
+                dataExtractionService.extractDataFromReader(reader, rows -> rows.forEach(writer::write));
+                writer.finish();
+            }
+        };
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
+        headers.setContentDispositionFormData("attachment", "extracted_data.xlsx");
+        return ResponseEntity.ok().headers(headers).body(body);
+    }
+
+    // Raw text in, columnar file out (see ColumnarExportWriter), written row group by row group during extraction
+    @PostMapping(value = "/extract/columnar", produces = ColumnarExportWriter.CONTENT_TYPE)
+    public ResponseEntity<StreamingResponseBody> extractToColumnar(HttpServletRequest request) throws IOException {
+        dataExtractionService.admit();
+        BufferedReader reader = request.getReader();
+
+        StreamingResponseBody body = out -> {
+            try (ColumnarExportWriter writer = new ColumnarExportWriter(out)) {
+                dataExtractionService.extractDataFromReader(reader, rows -> {
+                    try {
+                        writer.writeAll(rows);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                writer.finish();
+            }
+        };
+        return columnarResponse(body);
+    }
+
+    // Raw text in, CSV or TSV out with the workbook's columns, no POI involved; gzip=true compresses the stream
+    @PostMapping("/extract/{format:csv|tsv}")
+    public ResponseEntity<StreamingResponseBody> extractToDelimited(@PathVariable String format,
+                                                                    @RequestParam(defaultValue = "false") boolean gzip,
+                                                                    HttpServletRequest request) throws IOException {
+        DelimitedExportWriter.Format delimited = DelimitedExportWriter.Format.parse(format);
+        dataExtractionService.admit();
+        BufferedReader reader = request.getReader();
+
+        StreamingResponseBody body = out -> {
+            try (DelimitedExportWriter writer = new DelimitedExportWriter(out, delimited, gzip)) {
+                dataExtractionService.extractDataFromReader(reader, rows -> {
+                    try {
+                        writer.writeAll(rows);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                writer.finish();
+            }
+        };
+        return delimitedResponse(body, delimited, gzip);
+    }
+
     @Autowired
     private TextService textService;
 
@@ -42,31 +154,119 @@ public class DataExtractionController {
         return textService.formatInput(rawText);
     }
 
+    @Autowired
+    private ParagraphResultCache paragraphResultCache;
+
+    // Hit/miss/eviction counters of the paragraph result cache
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> cacheStats() {
+        return ResponseEntity.ok(paragraphResultCache.statsSummary());
+    }
+
+    @Autowired
+    private RecordExtractionEngine recordExtractionEngine;
+
+    // Records whose extraction was cut off by the per-record time budget since startup
+    @GetMapping("/extract/stats")
+    public ResponseEntity<Map<String, Object>> extractionStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("recordBudgetMs", recordExtractionEngine.getRecordBudgetMs());
+        stats.put("recordsOverBudget", recordExtractionEngine.recordsOverBudget());
+        return ResponseEntity.ok(stats);
+    }
+
+    // Formats the body as it is read and writes each paragraph to the response right away
+    @PostMapping(value = "/format/stream", produces = "text/plain;charset=UTF-8")
+    public ResponseEntity<StreamingResponseBody> formatTextStream(HttpServletRequest request) throws IOException {
+        BufferedReader reader = request.getReader();
+
+        StreamingResponseBody body = out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            textService.formatInput(reader, writer);
+        };
+        return ResponseEntity.ok().contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8)).body(body);
+    }
+
     @GetMapping("/health")
     public ResponseEntity<String> health() {
         return ResponseEntity.ok("Data Extraction Service is running");
     }
+    @Autowired
+    private ExcelExportSettings excelExportSettings;
+
+    // partitionBy (a column such as district or bahiName, or "rows"), mode (sheets or zip) or rowsPerPartition
+    // split the rows across sheets or across workbooks in a ZIP; without them the rows go into one sheet
     @PostMapping("/generate")
-    public ResponseEntity<byte[]> generateExcel(@RequestBody List<ExtractedData> dataList) {
-        try {
-            byte[] excelBytes = ExcelGenerator.convertToExcel(dataList);
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
-            headers.setContentDispositionFormData("attachment", "extracted_data.xlsx");
-            headers.setContentLength(excelBytes.length);
-
-            return ResponseEntity.ok()
-                    .headers(headers)
-                    .body(excelBytes);
-
-        } catch (Exception e) {
-            e.printStackTrace();
-            return ResponseEntity.status(500).body(("Error generating Excel: " + e.getMessage()).getBytes());
+    public ResponseEntity<StreamingResponseBody> generateExcel(@RequestBody List<ExtractedData> dataList,
+                                                               @RequestParam(required = false) String partitionBy,
+                                                               @RequestParam(required = false) String mode,
+                                                               @RequestParam(required = false) Integer rowsPerPartition) {
+        HttpHeaders headers = new HttpHeaders();
+        if (partitionBy != null || mode != null || rowsPerPartition != null) {
+            PartitionedExcelExport export = excelExportSettings.partitioned(partitionBy, mode, rowsPerPartition);
+            headers.setContentType(MediaType.parseMediaType(export.contentType()));
+            headers.setContentDispositionFormData("attachment", "extracted_data" + export.fileExtension());
+            return ResponseEntity.ok().headers(headers).body(out -> export.write(dataList, out));
         }
+
+        // The workbook is written straight into the response, rows beyond the window live in a temp file
+        StreamingResponseBody body = out -> ExcelGenerator.writeExcel(dataList, out);
+
+        headers.setContentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
+        headers.setContentDispositionFormData("attachment", "extracted_data.xlsx");
+
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(body);
+    }
+
+
+    // The same rows as /generate in the columnar format, which analytics reload much faster than a workbook
+    @PostMapping("/generate/columnar")
+    public ResponseEntity<StreamingResponseBody> generateColumnar(@RequestBody List<ExtractedData> dataList) {
+        return columnarResponse(out -> {
+            try (ColumnarExportWriter writer = new ColumnarExportWriter(out)) {
+                writer.writeAll(dataList);
+                writer.finish();
+            }
+        });
+    }
+
+    // The same rows as /generate as CSV or TSV
+    @PostMapping("/generate/{format:csv|tsv}")
+    public ResponseEntity<StreamingResponseBody> generateDelimited(@PathVariable String format,
+                                                                   @RequestParam(defaultValue = "false") boolean gzip,
+                                                                   @RequestBody List<ExtractedData> dataList) {
+        DelimitedExportWriter.Format delimited = DelimitedExportWriter.Format.parse(format);
+        return delimitedResponse(out -> {
+            try (DelimitedExportWriter writer = new DelimitedExportWriter(out, delimited, gzip)) {
+                writer.writeAll(dataList);
+                writer.finish();
+            }
+        }, delimited, gzip);
     }
 
+    private static ResponseEntity<StreamingResponseBody> delimitedResponse(StreamingResponseBody body, DelimitedExportWriter.Format format, boolean gzip) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(gzip ? MediaType.parseMediaType("application/gzip")
+                : new MediaType(MediaType.parseMediaType(format.contentType()), StandardCharsets.UTF_8));
+        headers.setContentDispositionFormData("attachment", "extracted_data" + format.fileExtension() + (gzip ? ".gz" : ""));
+        return ResponseEntity.ok().headers(headers).body(body);
+    }
 
+    private static ResponseEntity<StreamingResponseBody> columnarResponse(StreamingResponseBody body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(ColumnarExportWriter.CONTENT_TYPE));
+        headers.setContentDispositionFormData("attachment", "extracted_data" + ColumnarExportWriter.FILE_EXTENSION);
+        return ResponseEntity.ok().headers(headers).body(body);
+    }
+
+    // All extraction slots stayed busy for extraction.concurrency.wait-ms: the client should retry later
+    @ExceptionHandler(ExtractionBusyException.class)
+    public ResponseEntity<ApiResponse> extractionBusy(ExtractionBusyException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "10")
+                .body(new ApiResponse("BUSY", null));
+    }
 
     @Data
     @NoArgsConstructor
@@ -0,0 +1,117 @@
+package com.extract.ExtraactAllData.controller;
+
+import com.extract.ExtraactAllData.controller.DataExtractionController.ApiResponse;
+import com.extract.ExtraactAllData.excelGenrator.ExcelExportSettings;
+import com.extract.ExtraactAllData.excelGenrator.ExcelGenerator;
+import com.extract.ExtraactAllData.excelGenrator.PartitionedExcelExport;
+import com.extract.ExtraactAllData.model.ExtractedData;
+import com.extract.ExtraactAllData.model.JobStatus;
+import com.extract.ExtraactAllData.service.ExtractionJobService;
+import com.extract.ExtraactAllData.service.ExtractionJobService.JobQueueFullException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/data-extraction/jobs")
+@CrossOrigin(origins = "*")
+public class ExtractionJobController {
+
+    @Autowired
+    private ExtractionJobService extractionJobService;
+
+    @Autowired
+    private ExcelExportSettings excelExportSettings;
+
+    @PostMapping(consumes = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<JobStatus> submitText(@RequestBody String inputText) {
+        return submit(inputText);
+    }
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<JobStatus> submitFile(@RequestParam("file") MultipartFile file) throws IOException {
+        return submit(new String(file.getBytes(), StandardCharsets.UTF_8));
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<JobStatus> status(@PathVariable String jobId) {
+        JobStatus status = extractionJobService.getStatus(jobId);
+        return status != null ? ResponseEntity.ok(status) : ResponseEntity.notFound().build();
+    }
+
+    @GetMapping("/{jobId}/result")
+    public ResponseEntity<?> result(@PathVariable String jobId) {
+        JobStatus status = extractionJobService.getStatus(jobId);
+        if (status == null) {
+            return ResponseEntity.notFound().build();
+        }
+        List<ExtractedData> rows = extractionJobService.getResult(jobId);
+        if (rows == null) {
+            // Not finished yet, failed or cancelled: the status tells which
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(status);
+        }
+        return ResponseEntity.ok(new ApiResponse("SUCCESS", rows));
+    }
+
+    // A mapping of its own because only a declared ResponseEntity<StreamingResponseBody> is streamed;
+    // partitionBy, mode and rowsPerPartition split the rows as for /generate
+    @GetMapping(value = "/{jobId}/result", params = "format=xlsx")
+    public ResponseEntity<StreamingResponseBody> resultExcel(@PathVariable String jobId,
+                                                             @RequestParam(required = false) String partitionBy,
+                                                             @RequestParam(required = false) String mode,
+                                                             @RequestParam(required = false) Integer rowsPerPartition) {
+        JobStatus status = extractionJobService.getStatus(jobId);
+        if (status == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown job " + jobId);
+        }
+        List<ExtractedData> rows = extractionJobService.getResult(jobId);
+        if (rows == null) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Job " + jobId + " is " + status.getState());
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        if (partitionBy != null || mode != null || rowsPerPartition != null) {
+            PartitionedExcelExport export = excelExportSettings.partitioned(partitionBy, mode, rowsPerPartition);
+            headers.setContentType(MediaType.parseMediaType(export.contentType()));
+            headers.setContentDispositionFormData("attachment", "extracted_data_" + jobId + export.fileExtension());
+            return ResponseEntity.ok().headers(headers).body(out -> export.write(rows, out));
+        }
+
+        StreamingResponseBody body = out -> ExcelGenerator.writeExcel(rows, out);
+        headers.setContentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
+        headers.setContentDispositionFormData("attachment", "extracted_data_" + jobId + ".xlsx");
+        return ResponseEntity.ok().headers(headers).body(body);
+    }
+
+    @DeleteMapping("/{jobId}")
+    public ResponseEntity<JobStatus> cancel(@PathVariable String jobId) {
+        JobStatus status = extractionJobService.cancel(jobId);
+        return status != null ? ResponseEntity.ok(status) : ResponseEntity.notFound().build();
+    }
+
+    private ResponseEntity<JobStatus> submit(String inputText) {
+        if (inputText == null || inputText.trim().isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            JobStatus status = extractionJobService.submit(inputText);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/data-extraction/jobs/" + status.getJobId()))
+                    .body(status);
+        } catch (JobQueueFullException e) {
+            // Back-pressure: the client should retry later
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "30").build();
+        }
+    }
+}
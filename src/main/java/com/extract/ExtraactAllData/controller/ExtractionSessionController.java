@@ -0,0 +1,73 @@
+package com.extract.ExtraactAllData.controller;
+
+import com.extract.ExtraactAllData.controller.DataExtractionController.ApiResponse;
+import com.extract.ExtraactAllData.model.ExtractedData;
+import com.extract.ExtraactAllData.model.LineEdit;
+import com.extract.ExtraactAllData.model.SessionUpdate;
+import com.extract.ExtraactAllData.service.DataExtractionService.ExtractionBusyException;
+import com.extract.ExtraactAllData.service.ExtractionSessionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+// Upload a document once, then send line edits and get back only the rows they changed
+@RestController
+@RequestMapping("/api/data-extraction/sessions")
+@CrossOrigin(origins = "*")
+public class ExtractionSessionController {
+
+    @Autowired
+    private ExtractionSessionService extractionSessionService;
+
+    @PostMapping(consumes = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<SessionUpdate> create(@RequestBody String inputText) {
+        if (inputText == null || inputText.trim().isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        SessionUpdate update = extractionSessionService.create(inputText);
+        return ResponseEntity.created(URI.create("/api/data-extraction/sessions/" + update.getSessionId())).body(update);
+    }
+
+    @PatchMapping(value = "/{sessionId}", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> edit(@PathVariable String sessionId, @RequestBody List<LineEdit> edits) {
+        try {
+            SessionUpdate update = extractionSessionService.edit(sessionId, edits);
+            return update != null ? ResponseEntity.ok(update) : ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{sessionId}/rows")
+    public ResponseEntity<ApiResponse> rows(@PathVariable String sessionId) {
+        List<ExtractedData> rows = extractionSessionService.rows(sessionId);
+        return rows != null ? ResponseEntity.ok(new ApiResponse("SUCCESS", rows)) : ResponseEntity.notFound().build();
+    }
+
+    @GetMapping(value = "/{sessionId}/text", produces = "text/plain;charset=UTF-8")
+    public ResponseEntity<String> text(@PathVariable String sessionId) {
+        String text = extractionSessionService.text(sessionId);
+        return text != null
+                ? ResponseEntity.ok().contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8)).body(text)
+                : ResponseEntity.notFound().build();
+    }
+
+    @DeleteMapping("/{sessionId}")
+    public ResponseEntity<Void> close(@PathVariable String sessionId) {
+        return extractionSessionService.close(sessionId) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    @ExceptionHandler(ExtractionBusyException.class)
+    public ResponseEntity<ApiResponse> extractionBusy(ExtractionBusyException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "10")
+                .body(new ApiResponse("BUSY", null));
+    }
+}
@@ -0,0 +1,179 @@
+package com.extract.ExtraactAllData.excelGenrator;
+
+import com.extract.ExtraactAllData.excelGenrator.ColumnarFormat.Column;
+import com.extract.ExtraactAllData.excelGenrator.ColumnarFormat.Cursor;
+import com.extract.ExtraactAllData.model.ExtractedData;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads files written by {@link ColumnarExportWriter}. Only the footer is read up front; each row group is read
+ * from its own byte range, so a large file can be split by row group across workers, and readRowGroup may be
+ * called from several threads at once. Columns are matched by name, columns unknown to this version are skipped.
+ */
+public class ColumnarExportReader implements Closeable {
+
+    private final FileChannel channel;
+    private Column[] columns; // Per column of the file, null where unknown
+    private long rowCount;
+    private long[] groupOffsets;
+    private int[] groupRows;
+    private int[][] chunkLengths;
+
+    public ColumnarExportReader(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            readFooter();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public long rowCount() {
+        return rowCount;
+    }
+
+    public int rowGroupCount() {
+        return groupRows.length;
+    }
+
+    public int rowGroupRows(int rowGroup) {
+        return groupRows[rowGroup];
+    }
+
+    public List<ExtractedData> readAll() throws IOException {
+        List<ExtractedData> rows = new ArrayList<>((int) Math.min(rowCount, Integer.MAX_VALUE));
+        for (int group = 0; group < groupRows.length; group++) {
+            rows.addAll(readRowGroup(group));
+        }
+        return rows;
+    }
+
+    public List<ExtractedData> readRowGroup(int rowGroup) throws IOException {
+        int count = groupRows[rowGroup];
+        List<ExtractedData> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) rows.add(new ExtractedData());
+
+        long position = groupOffsets[rowGroup];
+        for (int c = 0; c < columns.length; c++) {
+            int length = chunkLengths[rowGroup][c];
+            if (columns[c] != null) {
+                String[] values = readChunk(position, length, count);
+                for (int i = 0; i < count; i++) columns[c].setter.accept(rows.get(i), values[i]);
+            }
+            position += length;
+        }
+        return rows;
+    }
+
+    // One column of one row group, by its ExtractedData field name; the other columns are not read
+    public List<String> readColumn(int rowGroup, String fieldName) throws IOException {
+        Column column = Column.byFieldName(fieldName);
+        long position = groupOffsets[rowGroup];
+        for (int c = 0; c < columns.length; c++) {
+            if (column != null && columns[c] == column) {
+                return Arrays.asList(readChunk(position, chunkLengths[rowGroup][c], groupRows[rowGroup]));
+            }
+            position += chunkLengths[rowGroup][c];
+        }
+        throw new IllegalArgumentException("No column " + fieldName + " in this file");
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void readFooter() throws IOException {
+        long size = channel.size();
+        int magicLength = ColumnarFormat.MAGIC.length;
+        if (size < 2L * magicLength + 5) throw new IOException("Not a columnar export: too short");
+        byte[] head = read(0, magicLength + 1);
+        byte[] tail = read(size - 4 - magicLength, 4 + magicLength);
+        if (!Arrays.equals(head, 0, magicLength, ColumnarFormat.MAGIC, 0, magicLength)
+                || !Arrays.equals(tail, 4, 4 + magicLength, ColumnarFormat.MAGIC, 0, magicLength)) {
+            throw new IOException("Not a columnar export");
+        }
+        if (head[magicLength] != ColumnarFormat.VERSION) throw new IOException("Unsupported columnar export version " + head[magicLength]);
+
+        int footerLength = ByteBuffer.wrap(tail, 0, 4).getInt();
+        if (footerLength < 0 || footerLength > size - 2L * magicLength - 5) throw new IOException("Corrupt columnar export footer");
+        byte[] footerBytes = read(size - 4 - magicLength - footerLength, footerLength);
+        Cursor footer = new Cursor(footerBytes, 0, footerLength);
+
+        columns = new Column[footer.readVarInt()];
+        for (int c = 0; c < columns.length; c++) columns[c] = Column.byFieldName(footer.readValue());
+        rowCount = footer.readVarLong();
+        int groups = footer.readVarInt();
+        groupOffsets = new long[groups];
+        groupRows = new int[groups];
+        chunkLengths = new int[groups][columns.length];
+        for (int group = 0; group < groups; group++) {
+            groupOffsets[group] = footer.readVarLong();
+            groupRows[group] = footer.readVarInt();
+            for (int c = 0; c < columns.length; c++) chunkLengths[group][c] = footer.readVarInt();
+        }
+    }
+
+    private String[] readChunk(long position, int length, int rows) throws IOException {
+        byte[] chunk = read(position, length);
+        Cursor header = new Cursor(chunk, 0, length);
+        int encoding = header.readByte();
+        int rawLength = header.readVarInt();
+        int compressedLength = header.readVarInt();
+        if (compressedLength != length - header.position()) throw new IOException("Corrupt column chunk at " + position);
+
+        byte[] raw = new byte[rawLength];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(chunk, header.position(), compressedLength);
+            int inflated = 0;
+            while (inflated < rawLength) {
+                int n = inflater.inflate(raw, inflated, rawLength - inflated);
+                if (n == 0 && (inflater.finished() || inflater.needsInput())) throw new IOException("Corrupt column chunk at " + position);
+                inflated += n;
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt column chunk at " + position, e);
+        } finally {
+            inflater.end();
+        }
+
+        Cursor data = new Cursor(raw, 0, rawLength);
+        String[] values = new String[rows];
+        if (encoding == ColumnarFormat.PLAIN) {
+            for (int i = 0; i < rows; i++) values[i] = data.readValue();
+        } else if (encoding == ColumnarFormat.DICTIONARY) {
+            String[] dictionary = new String[data.readVarInt() + 1]; // Entry 0 stays null
+            for (int d = 1; d < dictionary.length; d++) dictionary[d] = data.readValue();
+            for (int i = 0; i < rows; i++) {
+                int code = data.readVarInt();
+                if (code >= dictionary.length) throw new IOException("Corrupt dictionary code at " + position);
+                values[i] = dictionary[code];
+            }
+        } else {
+            throw new IOException("Unknown column encoding " + encoding);
+        }
+        return values;
+    }
+
+    private byte[] read(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) throw new EOFException("Truncated columnar export");
+        }
+        return buffer.array();
+    }
+}
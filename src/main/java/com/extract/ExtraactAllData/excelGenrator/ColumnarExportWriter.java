@@ -0,0 +1,167 @@
+package com.extract.ExtraactAllData.excelGenrator;
+
+import com.extract.ExtraactAllData.excelGenrator.ColumnarFormat.Bytes;
+import com.extract.ExtraactAllData.excelGenrator.ColumnarFormat.Column;
+import com.extract.ExtraactAllData.model.ExtractedData;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+/**
+ * Writes extracted rows as a compressed columnar file for analytics, laid out as described in {@link ColumnarFormat}.
+ * Rows are buffered until a row group is full; the group is then written column by column, each column
+ * deflated on its own and dictionary-encoded when it has few distinct values. Only the current row group is
+ * held in memory, so rows can come straight from {@code extractDataFromReader}.
+ * Read the files back with {@link ColumnarExportReader}. Close the writer after finish, or in place of it on failure.
+ */
+public class ColumnarExportWriter implements Closeable {
+
+    public static final int DEFAULT_ROW_GROUP_SIZE = 65_536;
+    public static final String CONTENT_TYPE = "application/octet-stream";
+    public static final String FILE_EXTENSION = ".xcol";
+
+    private static final Column[] COLUMNS = Column.ALL;
+
+    private final OutputStream out;
+    private final int rowGroupSize;
+    private final String[][] values;
+    private final int[] codes;
+    private final Map<String, Integer> dictionary = new LinkedHashMap<>();
+    private final Deflater deflater = new Deflater();
+    private final Bytes raw = new Bytes(64 * 1024);
+    private final Bytes chunkHeader = new Bytes(16);
+    private final Bytes rowGroups = new Bytes(1024); // Footer entries of the groups written so far
+    private byte[] compressed = new byte[64 * 1024];
+    private long position;
+    private int rows;
+    private long rowCount;
+    private int rowGroupCount;
+
+    public ColumnarExportWriter(OutputStream out) {
+        this(out, DEFAULT_ROW_GROUP_SIZE);
+    }
+
+    public ColumnarExportWriter(OutputStream out, int rowGroupSize) {
+        if (rowGroupSize < 1) throw new IllegalArgumentException("rowGroupSize must be at least 1");
+        this.out = out;
+        this.rowGroupSize = rowGroupSize;
+        this.values = new String[COLUMNS.length][rowGroupSize];
+        this.codes = new int[rowGroupSize];
+    }
+
+    public void write(ExtractedData data) throws IOException {
+        for (int c = 0; c < COLUMNS.length; c++) {
+            values[c][rows] = COLUMNS[c].getter.apply(data);
+        }
+        if (++rows == rowGroupSize) writeRowGroup();
+    }
+
+    public void writeAll(Iterable<ExtractedData> dataList) throws IOException {
+        for (ExtractedData data : dataList) {
+            write(data);
+        }
+    }
+
+    // Rows written so far, including those still buffered
+    public long rowCount() {
+        return rowCount + rows;
+    }
+
+    // Writes the last row group and the footer; the stream itself is left open
+    public void finish() throws IOException {
+        writeFileHeader();
+        if (rows > 0) writeRowGroup();
+
+        Bytes footer = new Bytes(rowGroups.size() + 1024);
+        footer.writeVarLong(COLUMNS.length);
+        for (Column column : COLUMNS) footer.writeValue(column.fieldName);
+        footer.writeVarLong(rowCount);
+        footer.writeVarLong(rowGroupCount);
+        footer.write(rowGroups.array(), 0, rowGroups.size());
+
+        int length = footer.size();
+        footer.write(length >>> 24);
+        footer.write(length >>> 16);
+        footer.write(length >>> 8);
+        footer.write(length);
+        footer.write(ColumnarFormat.MAGIC, 0, ColumnarFormat.MAGIC.length);
+        out.write(footer.array(), 0, footer.size());
+        out.flush();
+    }
+
+    // Frees the deflater, also when finish was never reached; the stream itself is left open
+    @Override
+    public void close() {
+        deflater.end();
+    }
+
+    private void writeFileHeader() throws IOException {
+        if (position > 0) return;
+        out.write(ColumnarFormat.MAGIC);
+        out.write(ColumnarFormat.VERSION);
+        position = ColumnarFormat.MAGIC.length + 1;
+    }
+
+    private void writeRowGroup() throws IOException {
+        writeFileHeader();
+        rowGroups.writeVarLong(position);
+        rowGroups.writeVarLong(rows);
+        for (int c = 0; c < COLUMNS.length; c++) {
+            raw.reset();
+            int encoding = encode(c);
+            int compressedLength = deflate();
+
+            chunkHeader.reset();
+            chunkHeader.write(encoding);
+            chunkHeader.writeVarLong(raw.size());
+            chunkHeader.writeVarLong(compressedLength);
+            out.write(chunkHeader.array(), 0, chunkHeader.size());
+            out.write(compressed, 0, compressedLength);
+
+            int chunkLength = chunkHeader.size() + compressedLength;
+            rowGroups.writeVarLong(chunkLength);
+            position += chunkLength;
+            Arrays.fill(values[c], 0, rows, null); // Let the strings of this group go
+        }
+        rowCount += rows;
+        rowGroupCount++;
+        rows = 0;
+    }
+
+    // Dictionary only pays off while most values repeat; otherwise the plain values are smaller
+    private int encode(int c) {
+        String[] columnValues = values[c];
+        if (COLUMNS[c].dictionary) {
+            dictionary.clear();
+            for (int i = 0; i < rows; i++) {
+                String value = columnValues[i];
+                codes[i] = value == null ? 0 : dictionary.computeIfAbsent(value, v -> dictionary.size() + 1);
+            }
+            if (dictionary.size() <= rows / 2) {
+                raw.writeVarLong(dictionary.size());
+                for (String value : dictionary.keySet()) raw.writeValue(value);
+                for (int i = 0; i < rows; i++) raw.writeVarLong(codes[i]);
+                return ColumnarFormat.DICTIONARY;
+            }
+        }
+        for (int i = 0; i < rows; i++) raw.writeValue(columnValues[i]);
+        return ColumnarFormat.PLAIN;
+    }
+
+    private int deflate() {
+        deflater.reset();
+        deflater.setInput(raw.array(), 0, raw.size());
+        deflater.finish();
+        int length = 0;
+        while (!deflater.finished()) {
+            if (length == compressed.length) compressed = Arrays.copyOf(compressed, compressed.length * 2);
+            length += deflater.deflate(compressed, length, compressed.length - length);
+        }
+        return length;
+    }
+}
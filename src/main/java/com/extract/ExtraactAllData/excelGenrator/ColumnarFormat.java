@@ -0,0 +1,148 @@
+package com.extract.ExtraactAllData.excelGenrator;
+
+import com.extract.ExtraactAllData.model.ExtractedData;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Layout of the columnar export shared by {@link ColumnarExportWriter} and {@link ColumnarExportReader}:
+ * <pre>
+ * file      = MAGIC version:byte rowGroup* footer footerLength:int32 MAGIC
+ * rowGroup  = chunk per column, in footer order
+ * chunk     = encoding:byte rawLength:varint compressedLength:varint deflate(raw)
+ * PLAIN     raw = value per row
+ * DICTIONARY raw = entries:varint value* code:varint per row (0 = null, n = entry n)
+ * value     = length+1:varint utf8 bytes (0 = null)
+ * footer    = columns:varint name* rows:varlong groups:varint (offset:varlong rows:varint chunkLength:varint per column)*
+ * </pre>
+ * Every row group carries its own dictionaries, so any one of them can be read on its own given the footer.
+ */
+final class ColumnarFormat {
+
+    static final byte[] MAGIC = {'X', 'C', 'O', 'L'};
+    static final int VERSION = 1;
+    static final int PLAIN = 0;
+    static final int DICTIONARY = 1;
+
+    private ColumnarFormat() {
+    }
+
+    // Every ExcelColumn, then dateOfRitual, which the sheets leave out; named as in the JSON rows
+    static final class Column {
+        static final Column[] ALL = all();
+
+        final String fieldName;
+        final Function<ExtractedData, String> getter;
+        final BiConsumer<ExtractedData, String> setter;
+        final boolean dictionary;
+
+        private Column(String fieldName, Function<ExtractedData, String> getter, BiConsumer<ExtractedData, String> setter, boolean dictionary) {
+            this.fieldName = fieldName;
+            this.getter = getter;
+            this.setter = setter;
+            this.dictionary = dictionary;
+        }
+
+        private static Column[] all() {
+            List<Column> columns = new ArrayList<>();
+            for (ExcelColumn column : ExcelColumn.values()) {
+                columns.add(new Column(column.fieldName(), column::valueOf, column::setValue, column.dictionary()));
+            }
+            columns.add(new Column("dateOfRitual", ExtractedData::getDateOfRitual, ExtractedData::setDateOfRitual, true));
+            return columns.toArray(new Column[0]);
+        }
+
+        static Column byFieldName(String name) {
+            for (Column column : ALL) {
+                if (column.fieldName.equals(name)) return column;
+            }
+            return null;
+        }
+    }
+
+    // A reusable byte buffer whose array can be handed to the Deflater without a copy
+    static final class Bytes extends ByteArrayOutputStream {
+
+        Bytes(int size) {
+            super(size);
+        }
+
+        byte[] array() {
+            return buf;
+        }
+
+        void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        // Length + 1, so that 0 is left for null
+        void writeValue(String value) {
+            if (value == null) {
+                write(0);
+                return;
+            }
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(utf8.length + 1L);
+            write(utf8, 0, utf8.length);
+        }
+    }
+
+    // Reads what Bytes wrote
+    static final class Cursor {
+        private final byte[] bytes;
+        private final int end;
+        private int pos;
+
+        Cursor(byte[] bytes, int pos, int end) {
+            this.bytes = bytes;
+            this.pos = pos;
+            this.end = end;
+        }
+
+        long readVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (pos >= end) throw new IOException("Truncated columnar data");
+                byte b = bytes[pos++];
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) return value;
+            }
+            throw new IOException("Malformed varint in columnar data");
+        }
+
+        int readVarInt() throws IOException {
+            long value = readVarLong();
+            if (value < 0 || value > Integer.MAX_VALUE) throw new IOException("Malformed varint in columnar data");
+            return (int) value;
+        }
+
+        int position() {
+            return pos;
+        }
+
+        int readByte() throws IOException {
+            if (pos >= end) throw new IOException("Truncated columnar data");
+            return bytes[pos++] & 0xFF;
+        }
+
+        String readValue() throws IOException {
+            int length = readVarInt();
+            if (length == 0) return null;
+            length--;
+            if (length > end - pos) throw new IOException("Truncated columnar data");
+            String value = new String(bytes, pos, length, StandardCharsets.UTF_8);
+            pos += length;
+            return value;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.extract.ExtraactAllData.excelGenrator;
+
+import com.extract.ExtraactAllData.model.ExtractedData;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes extracted rows as CSV or TSV, UTF-8, with the columns and header names of the Excel export.
+ * A field holding the delimiter, a double quote or a line break is quoted and its quotes doubled, as in
+ * RFC 4180, and every row ends with CRLF. Only a write buffer is held, so rows can go straight from
+ * {@code extractDataFromReader} into the response or a file; with gzip the stream is compressed on the way.
+ * Close the writer after finish, or in place of it on failure.
+ */
+public class DelimitedExportWriter implements Closeable {
+
+    public enum Format {
+        CSV(',', "text/csv", ".csv"),
+        TSV('\t', "text/tab-separated-values", ".tsv");
+
+        private final char delimiter;
+        private final String contentType;
+        private final String fileExtension;
+
+        Format(char delimiter, String contentType, String fileExtension) {
+            this.delimiter = delimiter;
+            this.contentType = contentType;
+            this.fileExtension = fileExtension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String fileExtension() {
+            return fileExtension;
+        }
+
+        public static Format parse(String name) {
+            try {
+                return valueOf(name.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown delimited format " + name + ", expected csv or tsv");
+            }
+        }
+    }
+
+    private static final ExcelColumn[] COLUMNS = ExcelColumn.values();
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final OutputStream out;
+    private final GzipStream gzip;
+    private final Writer writer;
+    private final char delimiter;
+    private boolean headerWritten;
+    private long rowCount;
+
+    public DelimitedExportWriter(OutputStream out, Format format, boolean gzip) throws IOException {
+        this.out = out;
+        this.gzip = gzip ? new GzipStream(out, BUFFER_SIZE) : null;
+        this.writer = new BufferedWriter(new OutputStreamWriter(gzip ? this.gzip : out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        this.delimiter = format.delimiter;
+    }
+
+    // For file channels; the channel is left open
+    public DelimitedExportWriter(WritableByteChannel channel, Format format, boolean gzip) throws IOException {
+        this(Channels.newOutputStream(channel), format, gzip);
+    }
+
+    public void write(ExtractedData data) throws IOException {
+        writeHeader();
+        for (ExcelColumn column : COLUMNS) {
+            if (column.ordinal() > 0) writer.write(delimiter);
+            writeField(column.valueOf(data));
+        }
+        writer.write("\r\n");
+        rowCount++;
+    }
+
+    public void writeAll(Iterable<ExtractedData> dataList) throws IOException {
+        for (ExtractedData data : dataList) {
+            write(data);
+        }
+    }
+
+    public long rowCount() {
+        return rowCount;
+    }
+
+    // Flushes everything and ends the gzip stream; the output stream itself is left open
+    public void finish() throws IOException {
+        writeHeader();
+        writer.flush();
+        if (gzip != null) gzip.finish();
+        out.flush();
+    }
+
+    // Frees the gzip deflater, also when finish was never reached; the output stream itself is left open
+    @Override
+    public void close() {
+        if (gzip != null) gzip.end();
+    }
+
+    private void writeHeader() throws IOException {
+        if (headerWritten) return;
+        headerWritten = true;
+        for (ExcelColumn column : COLUMNS) {
+            if (column.ordinal() > 0) writer.write(delimiter);
+            writeField(column.header());
+        }
+        writer.write("\r\n");
+    }
+
+    // Null and empty both become an empty field
+    private void writeField(String value) throws IOException {
+        if (value == null || value.isEmpty()) return;
+        if (!needsQuotes(value)) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        int from = 0;
+        for (int i = value.indexOf('"'); i >= 0; i = value.indexOf('"', from)) {
+            writer.write(value, from, i + 1 - from);
+            writer.write('"');
+            from = i + 1;
+        }
+        writer.write(value, from, value.length() - from);
+        writer.write('"');
+    }
+
+    private boolean needsQuotes(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == delimiter || c == '"' || c == '\n' || c == '\r') return true;
+        }
+        return false;
+    }
+
+    // Closing a GZIPOutputStream would also close the stream underneath, so its deflater is ended on its own
+    private static final class GzipStream extends GZIPOutputStream {
+
+        GzipStream(OutputStream out, int size) throws IOException {
+            super(out, size);
+        }
+
+        void end() {
+            def.end();
+        }
+    }
+}
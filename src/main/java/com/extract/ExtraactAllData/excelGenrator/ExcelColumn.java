@@ -0,0 +1,84 @@
+package com.extract.ExtraactAllData.excelGenrator;
+
+import com.extract.ExtraactAllData.model.ExtractedData;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+// Column order and header text of every exported sheet, with the ExtractedData field behind each column.
+// dictionary marks the low-cardinality fields, which the columnar export dictionary-encodes
+public enum ExcelColumn {
+    IMAGE_NO("Image No", "imageNo", ExtractedData::getImageNo, ExtractedData::setImageNo, true),
+    PANDA_NAME("Panda Name", "pandaName", ExtractedData::getPandaName, ExtractedData::setPandaName, true),
+    BAHI_NAME("Bahi Name", "bahiName", ExtractedData::getBahiName, ExtractedData::setBahiName, true),
+    FOLIO_NO("Folio No", "folioNo", ExtractedData::getFolioNo, ExtractedData::setFolioNo, true),
+    DATA_POSITION("Data Position", "dataPosition", ExtractedData::getDataPosition, ExtractedData::setDataPosition, false),
+    DISTRICT("District", "district", ExtractedData::getDistrict, ExtractedData::setDistrict, true),
+    TEHSIL("Tehsil", "tehsil", ExtractedData::getTehsil, ExtractedData::setTehsil, true),
+    STATION("Station", "station", ExtractedData::getStation, ExtractedData::setStation, true),
+    POST_OFFICE("Post Office", "postOffice", ExtractedData::getPostOffice, ExtractedData::setPostOffice, true),
+    CITY_VILLAGE("City/Village", "cityVillage", ExtractedData::getCityVillage, ExtractedData::setCityVillage, true),
+    FROM_PLACE("From Place", "fromWhichPlace", ExtractedData::getFromWhichPlace, ExtractedData::setFromWhichPlace, true),
+    CASTE("Caste", "caste", ExtractedData::getCaste, ExtractedData::setCaste, true),
+    SUBCASTE("Subcaste", "subcaste", ExtractedData::getSubcaste, ExtractedData::setSubcaste, true),
+    INDIVIDUAL_ID("Individual ID", "individualID", ExtractedData::getIndividualID, ExtractedData::setIndividualID, false),
+    GIVEN_NAME("Given Name", "givenName", ExtractedData::getGivenName, ExtractedData::setGivenName, false),
+    SURNAME("Surname", "surname", ExtractedData::getSurname, ExtractedData::setSurname, true),
+    RELATION("Relation", "relation", ExtractedData::getRelation, ExtractedData::setRelation, true),
+    GENDER("Gender", "gender", ExtractedData::getGender, ExtractedData::setGender, true),
+    FAMILY_ID("Family ID", "familyID", ExtractedData::getFamilyID, ExtractedData::setFamilyID, false),
+    RITUAL_NAME("Ritual Name", "ritualName", ExtractedData::getRitualName, ExtractedData::setRitualName, true),
+    WHOSE_RITUAL_1("Whose Ritual 1", "whoseRitual1", ExtractedData::getWhoseRitual1, ExtractedData::setWhoseRitual1, false),
+    WHOSE_RITUAL_2("Whose Ritual 2", "whoseRitual2", ExtractedData::getWhoseRitual2, ExtractedData::setWhoseRitual2, false),
+    CONTACT_NO_1("Contact No1", "contactNo1", ExtractedData::getContactNo1, ExtractedData::setContactNo1, false),
+    CONTACT_NO_2("Contact No2", "contactNo2", ExtractedData::getContactNo2, ExtractedData::setContactNo2, false),
+    FLAGS_AND_EXCEPTIONS("Flags/Exceptions", "flagsAndException", ExtractedData::getFlagsAndException, ExtractedData::setFlagsAndException, false),
+    ADDITIONAL_INFO("Additional Info", "additionalInforma", ExtractedData::getAdditionalInforma, ExtractedData::setAdditionalInforma, false);
+
+    private final String header;
+    private final String fieldName;
+    private final Function<ExtractedData, String> value;
+    private final BiConsumer<ExtractedData, String> setter;
+    private final boolean dictionary;
+
+    ExcelColumn(String header, String fieldName, Function<ExtractedData, String> value, BiConsumer<ExtractedData, String> setter,
+                boolean dictionary) {
+        this.header = header;
+        this.fieldName = fieldName;
+        this.value = value;
+        this.setter = setter;
+        this.dictionary = dictionary;
+    }
+
+    public String header() {
+        return header;
+    }
+
+    // Name of the field in the JSON rows
+    public String fieldName() {
+        return fieldName;
+    }
+
+    public String valueOf(ExtractedData data) {
+        return value.apply(data);
+    }
+
+    public void setValue(ExtractedData data, String value) {
+        setter.accept(data, value);
+    }
+
+    boolean dictionary() {
+        return dictionary;
+    }
+
+    // The header row every sheet starts with
+    public static Row writeHeader(Sheet sheet) {
+        Row headerRow = sheet.createRow(0);
+        for (ExcelColumn column : values()) {
+            headerRow.createCell(column.ordinal()).setCellValue(column.header());
+        }
+        return headerRow;
+    }
+}
@@ -0,0 +1,34 @@
+package com.extract.ExtraactAllData.excelGenrator;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+// Defaults of partitioned exports, request parameters override the key, mode and row count
+@Component
+public class ExcelExportSettings {
+
+    // Rows per sheet, and per partition when splitting by row count
+    @Value("${extraction.export.rows-per-partition:" + StreamingExcelWriter.MAX_ROWS_PER_SHEET + "}")
+    private int rowsPerPartition;
+
+    // Workbooks built at the same time for ZIP exports, 0 = one per core
+    @Value("${extraction.export.parallelism:0}")
+    private int parallelism;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    // Unknown keys or modes and row counts outside 1..1,048,575 are answered with 400 Bad Request
+    public PartitionedExcelExport partitioned(String partitionBy, String mode, Integer rowsPerPartition) {
+        try {
+            return new PartitionedExcelExport(PartitionedExcelExport.parseKey(partitionBy),
+                    rowsPerPartition != null ? rowsPerPartition : this.rowsPerPartition,
+                    mode != null ? PartitionedExcelExport.parseMode(mode) : PartitionedExcelExport.Mode.SHEETS,
+                    parallelism, virtualThreads);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+}
@@ -4,6 +4,8 @@ import com.extract.ExtraactAllData.model.ExtractedData;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 public class ExcelGenerator {
@@ -13,49 +15,15 @@ public class ExcelGenerator {
         Sheet sheet = workbook.createSheet("Extracted Data");
 
         // Create header row
-        String[] headers = {
-                "Image No", "Panda Name", "Bahi Name", "Folio No", "Data Position", "District",
-                "Tehsil", "Station", "Post Office", "City/Village", "From Place", "Caste", "Subcaste",
-                "Individual ID", "Given Name", "Surname", "Relation", "Gender", "Family ID",
-                "Ritual Name", "Whose Ritual 1", "Whose Ritual 2", "Contact No1", "Contact No2",
-                "Flags/Exceptions", "Additional Info"
-        };
-
-        Row headerRow = sheet.createRow(0);
-        for (int i = 0; i < headers.length; i++) {
-            headerRow.createCell(i).setCellValue(headers[i]);
-        }
+        ExcelColumn.writeHeader(sheet);
 
         // Fill data rows
         int rowNum = 1;
         for (ExtractedData data : dataList) {
             Row row = sheet.createRow(rowNum++);
-            row.createCell(0).setCellValue(data.getImageNo());
-            row.createCell(1).setCellValue(data.getPandaName());
-            row.createCell(2).setCellValue(data.getBahiName());
-            row.createCell(3).setCellValue(data.getFolioNo());
-            row.createCell(4).setCellValue(data.getDataPosition());
-            row.createCell(5).setCellValue(data.getDistrict());
-            row.createCell(6).setCellValue(data.getTehsil());
-            row.createCell(7).setCellValue(data.getStation());
-            row.createCell(8).setCellValue(data.getPostOffice());
-            row.createCell(9).setCellValue(data.getCityVillage());
-            row.createCell(10).setCellValue(data.getFromWhichPlace());
-            row.createCell(11).setCellValue(data.getCaste());
-            row.createCell(12).setCellValue(data.getSubcaste());
-            row.createCell(13).setCellValue(data.getIndividualID());
-            row.createCell(14).setCellValue(data.getGivenName());
-            row.createCell(15).setCellValue(data.getSurname());
-            row.createCell(16).setCellValue(data.getRelation());
-            row.createCell(17).setCellValue(data.getGender());
-            row.createCell(18).setCellValue(data.getFamilyID());
-            row.createCell(19).setCellValue(data.getRitualName());
-            row.createCell(20).setCellValue(data.getWhoseRitual1());
-            row.createCell(21).setCellValue(data.getWhoseRitual2());
-            row.createCell(22).setCellValue(data.getContactNo1());
-            row.createCell(23).setCellValue(data.getContactNo2());
-            row.createCell(24).setCellValue(data.getFlagsAndException());
-            row.createCell(25).setCellValue(data.getAdditionalInforma());
+            for (ExcelColumn column : ExcelColumn.values()) {
+                row.createCell(column.ordinal()).setCellValue(column.valueOf(data));
+            }
         }
 
         ByteArrayOutputStream bos = new ByteArrayOutputStream();
@@ -63,4 +31,14 @@ public class ExcelGenerator {
         workbook.close();
         return bos.toByteArray();
     }
+
+    // Streams the workbook to out with a bounded row window instead of building it in memory
+    public static void writeExcel(Iterable<ExtractedData> dataList, OutputStream out) throws IOException {
+        try (StreamingExcelWriter writer = new StreamingExcelWriter(out)) {
+            for (ExtractedData data : dataList) {
+                writer.write(data);
+            }
+            writer.finish();
+        }
+    }
 }
@@ -0,0 +1,240 @@
+package com.extract.ExtraactAllData.excelGenrator;
+
+import com.extract.ExtraactAllData.model.ExtractedData;
+import com.extract.ExtraactAllData.util.WorkerThreads;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Splits rows into partitions, by the value of one column (district, bahi name, ...) or into runs of a fixed
+ * number of rows, and writes them either as sheets of one workbook or as one workbook each inside a ZIP.
+ * A partition larger than the sheet row limit continues on further sheets, so no export fails on the
+ * XLSX limit of 1,048,576 rows.
+ * <p>
+ * ZIP partitions are built in parallel into temp files, a few ahead of the one being copied to the output,
+ * and are streamed in partition order. Sheets of one workbook are written one after the other, POI workbooks
+ * are not thread-safe.
+ */
+public class PartitionedExcelExport {
+
+    public enum Mode { SHEETS, ZIP }
+
+    private static final String NO_VALUE = "blank";
+
+    private final ExcelColumn key;
+    private final int rowsPerPartition;
+    private final Mode mode;
+    private final int parallelism;
+    private final boolean virtualThreads;
+
+    /**
+     * @param key              column whose value picks the partition, null to split by row count only
+     * @param rowsPerPartition rows per partition without a key, and per sheet within a partition
+     *                         (at most {@link StreamingExcelWriter#MAX_ROWS_PER_SHEET})
+     * @param parallelism      workbooks built at the same time in ZIP mode, 0 = one per core
+     */
+    public PartitionedExcelExport(ExcelColumn key, int rowsPerPartition, Mode mode, int parallelism, boolean virtualThreads) {
+        if (rowsPerPartition < 1 || rowsPerPartition > StreamingExcelWriter.MAX_ROWS_PER_SHEET) {
+            throw new IllegalArgumentException("rowsPerPartition must be between 1 and " + StreamingExcelWriter.MAX_ROWS_PER_SHEET);
+        }
+        this.key = key;
+        this.rowsPerPartition = rowsPerPartition;
+        this.mode = mode;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.virtualThreads = virtualThreads;
+    }
+
+    // "district", "bahi_name", "BAHI_NAME" or "bahiName" for ExcelColumn keys; null, blank or "rows" for none
+    public static ExcelColumn parseKey(String name) {
+        if (name == null || name.isBlank() || name.equalsIgnoreCase("rows")) return null;
+        String normalized = name.trim().replaceAll("([a-z])([A-Z])", "$1_$2").toUpperCase(Locale.ROOT);
+        try {
+            return ExcelColumn.valueOf(normalized);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown partition key " + name + ", expected rows or one of " + Arrays.toString(ExcelColumn.values()));
+        }
+    }
+
+    public static Mode parseMode(String name) {
+        try {
+            return Mode.valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown export mode " + name + ", expected sheets or zip");
+        }
+    }
+
+    public String contentType() {
+        return mode == Mode.ZIP ? "application/zip" : "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+    }
+
+    public String fileExtension() {
+        return mode == Mode.ZIP ? ".zip" : ".xlsx";
+    }
+
+    public void write(List<ExtractedData> rows, OutputStream out) throws IOException {
+        List<Partition> partitions = partition(rows);
+        if (mode == Mode.ZIP) {
+            writeZip(rows, partitions, out);
+        } else {
+            writeSheets(rows, partitions, out);
+        }
+    }
+
+    // In order of first appearance; every row is read once here and once more when it is written
+    List<Partition> partition(List<ExtractedData> rows) {
+        List<Partition> partitions = new ArrayList<>();
+        if (key == null) {
+            for (int from = 0, part = 1; from < rows.size() || part == 1; from += rowsPerPartition, part++) {
+                int to = Math.min(rows.size(), from + rowsPerPartition);
+                int[] indexes = new int[to - from];
+                for (int i = 0; i < indexes.length; i++) indexes[i] = from + i;
+                partitions.add(new Partition(String.format("Part %03d", part), indexes, indexes.length));
+            }
+            return partitions;
+        }
+
+        Map<String, Partition> byValue = new LinkedHashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            String value = key.valueOf(rows.get(i));
+            String name = value == null || value.isBlank() ? NO_VALUE : value.trim();
+            byValue.computeIfAbsent(name, n -> new Partition(n, new int[16], 0)).add(i);
+        }
+        partitions.addAll(byValue.values());
+        if (partitions.isEmpty()) partitions.add(new Partition(NO_VALUE, new int[0], 0));
+        return partitions;
+    }
+
+    private void writeSheets(List<ExtractedData> rows, List<Partition> partitions, OutputStream out) throws IOException {
+        try (StreamingExcelWriter writer = new StreamingExcelWriter(out, StreamingExcelWriter.DEFAULT_ROW_WINDOW, rowsPerPartition, null)) {
+            for (Partition partition : partitions) {
+                writer.startSheet(partition.name);
+                for (int i = 0; i < partition.size; i++) writer.write(rows.get(partition.rows[i]));
+            }
+            writer.finish();
+        }
+    }
+
+    private void writeZip(List<ExtractedData> rows, List<Partition> partitions, OutputStream out) throws IOException {
+        ExecutorService workers = Executors.newFixedThreadPool(Math.min(parallelism, partitions.size()),
+                WorkerThreads.factory("excel-export-", virtualThreads));
+        List<Future<Path>> workbooks = new ArrayList<>();
+        try {
+            ZipOutputStream zip = new ZipOutputStream(out);
+            zip.setLevel(Deflater.NO_COMPRESSION); // An .xlsx is already a deflated ZIP
+            List<String> entryNames = new ArrayList<>();
+            int submitted = 0;
+            for (int i = 0; i < partitions.size(); i++) {
+                // Keep the workers busy but only a bounded number of finished temp files waiting
+                for (; submitted < partitions.size() && submitted <= i + 2 * parallelism; submitted++) {
+                    Partition partition = partitions.get(submitted);
+                    workbooks.add(workers.submit(() -> writeWorkbook(rows, partition)));
+                }
+                Path workbook = await(workbooks.get(i));
+                try {
+                    zip.putNextEntry(new ZipEntry(entryName(partitions.get(i).name, entryNames)));
+                    Files.copy(workbook, zip);
+                    zip.closeEntry();
+                } finally {
+                    Files.deleteIfExists(workbook);
+                }
+            }
+            zip.finish();
+            out.flush();
+        } finally {
+            workers.shutdownNow();
+            awaitTermination(workers);
+            for (Future<Path> workbook : workbooks) deleteIfBuilt(workbook);
+        }
+    }
+
+    private Path writeWorkbook(List<ExtractedData> rows, Partition partition) throws IOException {
+        Path file = Files.createTempFile("partition-", ".xlsx");
+        try (OutputStream out = Files.newOutputStream(file);
+             StreamingExcelWriter writer = new StreamingExcelWriter(out, StreamingExcelWriter.DEFAULT_ROW_WINDOW, rowsPerPartition, partition.name)) {
+            for (int i = 0; i < partition.size; i++) writer.write(rows.get(partition.rows[i]));
+            writer.finish();
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return file;
+    }
+
+    private static Path await(Future<Path> workbook) throws IOException {
+        try {
+            return workbook.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while building the export");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ioException) throw ioException;
+            if (cause instanceof UncheckedIOException uncheckedIOException) throw uncheckedIOException.getCause();
+            if (cause instanceof RuntimeException runtimeException) throw runtimeException;
+            throw new IOException("Could not build partition workbook", cause);
+        }
+    }
+
+    private static void awaitTermination(ExecutorService workers) {
+        try {
+            workers.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Temp files of partitions that were built but never copied, after a failure or an aborted download
+    private static void deleteIfBuilt(Future<Path> workbook) {
+        if (!workbook.isDone() || workbook.isCancelled()) return; // Never started
+        try {
+            Files.deleteIfExists(workbook.get());
+        } catch (Exception e) {
+            // Failed or interrupted partitions have removed their file themselves
+        }
+    }
+
+    // File names keep letters of any script but no path or reserved chars
+    private static String entryName(String partitionName, List<String> used) {
+        String base = "extracted_data_" + partitionName.replaceAll("[\\\\/:*?\"<>|\\s]+", "_");
+        String name = base + ".xlsx";
+        for (int n = 2; used.contains(name.toLowerCase(Locale.ROOT)); n++) name = base + "_" + n + ".xlsx";
+        used.add(name.toLowerCase(Locale.ROOT));
+        return name;
+    }
+
+    static final class Partition {
+        final String name;
+        int[] rows;
+        int size;
+
+        Partition(String name, int[] rows, int size) {
+            this.name = name;
+            this.rows = rows;
+            this.size = size;
+        }
+
+        void add(int row) {
+            if (size == rows.length) rows = Arrays.copyOf(rows, size * 2);
+            rows[size++] = row;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.extract.ExtraactAllData.excelGenrator;
+
+import com.extract.ExtraactAllData.model.ExtractedData;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.WorkbookUtil;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Writes extracted rows into an .xlsx with a fixed window of rows in memory.
+ * Older rows are flushed to a compressed temp file, and {@link #finish()} streams the
+ * workbook to the target, so the file is never held in memory as a whole.
+ * A sheet that reaches the row limit is continued on a new sheet named "name (2)", "name (3)", ...
+ */
+public class StreamingExcelWriter implements Closeable {
+
+    public static final int DEFAULT_ROW_WINDOW = 100;
+    public static final String DEFAULT_SHEET_NAME = "Extracted Data";
+
+    // Data rows that fit in one sheet next to the header row (SpreadsheetVersion.EXCEL2007 has 1,048,576 rows)
+    public static final int MAX_ROWS_PER_SHEET = 1_048_575;
+
+    private final OutputStream out;
+    private final SXSSFWorkbook workbook;
+    private final int maxRowsPerSheet;
+    private final Set<String> sheetNames = new HashSet<>();
+    private Sheet sheet;
+    private String sheetBaseName;
+    private int sheetPart;
+    private int rowNum;
+    private int rowCount;
+
+    public StreamingExcelWriter(OutputStream out) {
+        this(out, DEFAULT_ROW_WINDOW);
+    }
+
+    public StreamingExcelWriter(OutputStream out, int rowWindow) {
+        this(out, rowWindow, MAX_ROWS_PER_SHEET, DEFAULT_SHEET_NAME);
+    }
+
+    // Without a first sheet name, the first sheet is started by startSheet (or the first write)
+    public StreamingExcelWriter(OutputStream out, int rowWindow, int maxRowsPerSheet, String firstSheetName) {
+        if (maxRowsPerSheet < 1 || maxRowsPerSheet > MAX_ROWS_PER_SHEET) {
+            throw new IllegalArgumentException("maxRowsPerSheet must be between 1 and " + MAX_ROWS_PER_SHEET);
+        }
+        this.out = out;
+        this.maxRowsPerSheet = maxRowsPerSheet;
+        this.workbook = new SXSSFWorkbook(rowWindow);
+        this.workbook.setCompressTempFiles(true);
+        if (firstSheetName != null) startSheet(firstSheetName);
+    }
+
+    // Later rows go to a new sheet with the header row; the name is made valid and unique
+    public void startSheet(String name) {
+        sheetBaseName = name;
+        sheetPart = 1;
+        createSheet(name);
+    }
+
+    public void write(ExtractedData data) {
+        if (sheet == null) startSheet(DEFAULT_SHEET_NAME);
+        if (rowNum > maxRowsPerSheet) createSheet(sheetBaseName + " (" + ++sheetPart + ")");
+        Row row = sheet.createRow(rowNum++);
+        for (ExcelColumn column : ExcelColumn.values()) {
+            String value = column.valueOf(data);
+            if (value != null) row.createCell(column.ordinal()).setCellValue(value); // Null fields stay empty cells
+        }
+        rowCount++;
+    }
+
+    // Data rows written to all sheets
+    public int rowCount() {
+        return rowCount;
+    }
+
+    public int sheetCount() {
+        return workbook.getNumberOfSheets();
+    }
+
+    // Writes the workbook to the output stream, the stream itself is left open
+    public void finish() throws IOException {
+        if (sheet == null) startSheet(DEFAULT_SHEET_NAME); // A workbook needs at least one sheet
+        workbook.write(out);
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        workbook.dispose(); // Deletes the temp files backing flushed rows
+        workbook.close();
+    }
+
+    private void createSheet(String name) {
+        sheet = workbook.createSheet(uniqueSheetName(name));
+        ExcelColumn.writeHeader(sheet);
+        rowNum = 1;
+    }
+
+    // Sheet names are at most 31 chars, without []:*?/\ and unique regardless of case
+    private String uniqueSheetName(String name) {
+        String safe = WorkbookUtil.createSafeSheetName(name == null || name.isBlank() ? DEFAULT_SHEET_NAME : name);
+        String unique = safe;
+        for (int n = 2; !sheetNames.add(unique.toLowerCase(Locale.ROOT)); n++) {
+            String suffix = " " + n;
+            unique = safe.substring(0, Math.min(safe.length(), 31 - suffix.length())) + suffix;
+        }
+        return unique;
+    }
+}
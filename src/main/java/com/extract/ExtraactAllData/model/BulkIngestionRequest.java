@@ -0,0 +1,15 @@
+package com.extract.ExtraactAllData.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Body of POST /bulk: input and output paths are relative to extraction.bulk.base-dir
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkIngestionRequest {
+    private String input;
+    private String output;
+    private String format; // jsonl (default), xlsx, columnar, csv, tsv, csv.gz or tsv.gz
+}
@@ -0,0 +1,27 @@
+package com.extract.ExtraactAllData.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// Snapshot of a bulk file ingestion as returned by the bulk endpoints
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkIngestionStatus {
+    private String runId;
+    private String state; // QUEUED, RUNNING, COMPLETED, FAILED or CANCELLED
+    private String input;
+    private String output;
+    private String format;
+    private long bytesRead;
+    private long bytesTotal;
+    private long paragraphs;
+    private long rows;
+    private Instant submittedAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String error;
+}
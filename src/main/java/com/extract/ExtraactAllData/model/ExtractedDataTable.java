@@ -0,0 +1,204 @@
+package com.extract.ExtraactAllData.model;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Extraction rows stored by column instead of as one {@link ExtractedData} per row.
+ * Paragraph-level values are kept once per paragraph and shared by all of its individuals; place, caste,
+ * ritual, gender and relation values go through a dictionary, so each distinct string is held once per table.
+ * Row numbers and individual ids are ints and only become strings in the views.
+ * <p>
+ * {@link #get} builds a fresh ExtractedData for the row, meant for serialization; changing it does not
+ * change the table. The table itself is append-only and not thread-safe while rows are being added.
+ */
+public class ExtractedDataTable extends AbstractList<ExtractedData> implements RandomAccess {
+
+    // Dictionary-encoded paragraph columns
+    private static final int PANDA_NAME = 0;
+    private static final int BAHI_NAME = 1;
+    private static final int DISTRICT = 2;
+    private static final int TEHSIL = 3;
+    private static final int STATION = 4;
+    private static final int POST_OFFICE = 5;
+    private static final int CITY_VILLAGE = 6;
+    private static final int FROM_WHICH_PLACE = 7;
+    private static final int CASTE = 8;
+    private static final int SUBCASTE = 9;
+    private static final int RITUAL_NAME = 10;
+    private static final int GENDER = 11;
+    private static final int CODED_COLUMNS = 12;
+
+    // Mostly unique paragraph columns, kept as references
+    private static final int IMAGE_NO = 0;
+    private static final int FOLIO_NO = 1;
+    private static final int WHOSE_RITUAL_1 = 2;
+    private static final int WHOSE_RITUAL_2 = 3;
+    private static final int CONTACT_NO_1 = 4;
+    private static final int CONTACT_NO_2 = 5;
+    private static final int FLAGS_AND_EXCEPTION = 6;
+    private static final int ADDITIONAL_INFORMA = 7;
+    private static final int TEXT_COLUMNS = 8;
+
+    private static final int NO_VALUE = -1;
+
+    private final int firstDataPosition;
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final List<String> dictionary = new ArrayList<>();
+
+    private int paragraphCount;
+    private final int[][] codedColumns = new int[CODED_COLUMNS][16];
+    private final String[][] textColumns = new String[TEXT_COLUMNS][16];
+
+    private int rowCount;
+    private int[] rowParagraph = new int[16];
+    private int[] rowIndividualId = new int[16]; // 1-based within the paragraph, 0 for the row of a paragraph without individuals
+    private int[] rowRelation = new int[16];
+    private String[] rowGivenName = new String[16];
+    private String[] rowSurname = new String[16];
+
+    public ExtractedDataTable() {
+        this(1);
+    }
+
+    // Rows are numbered (dataPosition) from firstDataPosition
+    public ExtractedDataTable(int firstDataPosition) {
+        this.firstDataPosition = firstDataPosition;
+    }
+
+    // Appends the rows of one paragraph: one per individual, or a single row without individual data for a paragraph without names
+    public void addParagraph(ParagraphResult result) {
+        RecordFields fields = result.getFields();
+        int paragraph = paragraphCount++;
+        if (paragraph == codedColumns[0].length) growParagraphs();
+
+        codedColumns[PANDA_NAME][paragraph] = encode(fields.getPandaName());
+        codedColumns[BAHI_NAME][paragraph] = encode(fields.getBahiName());
+        codedColumns[DISTRICT][paragraph] = encode(fields.getDistrict());
+        codedColumns[TEHSIL][paragraph] = encode(fields.getTehsil());
+        codedColumns[STATION][paragraph] = encode(fields.getStation());
+        codedColumns[POST_OFFICE][paragraph] = encode(fields.getPostOffice());
+        codedColumns[CITY_VILLAGE][paragraph] = encode(fields.getCityVillage());
+        codedColumns[FROM_WHICH_PLACE][paragraph] = encode(fields.getFromWhichPlace());
+        codedColumns[CASTE][paragraph] = encode(fields.getCaste());
+        codedColumns[SUBCASTE][paragraph] = encode(fields.getSubcaste());
+        codedColumns[RITUAL_NAME][paragraph] = encode(fields.getRitualName());
+        codedColumns[GENDER][paragraph] = encode(fields.getGender());
+        textColumns[IMAGE_NO][paragraph] = fields.getImageNo();
+        textColumns[FOLIO_NO][paragraph] = fields.getFolioNo();
+        textColumns[WHOSE_RITUAL_1][paragraph] = fields.getWhoseRitual1();
+        textColumns[WHOSE_RITUAL_2][paragraph] = fields.getWhoseRitual2();
+        textColumns[CONTACT_NO_1][paragraph] = fields.getContactNo1();
+        textColumns[CONTACT_NO_2][paragraph] = fields.getContactNo2();
+        textColumns[FLAGS_AND_EXCEPTION][paragraph] = fields.getFlagsAndException();
+        textColumns[ADDITIONAL_INFORMA][paragraph] = fields.getAdditionalInforma();
+
+        if (result.hasPlaceholderRow()) {
+            addRow(paragraph, 0, null);
+            return;
+        }
+        int individualId = 1;
+        for (Individual individual : result.getIndividuals()) {
+            addRow(paragraph, individualId++, individual);
+        }
+    }
+
+    @Override
+    public ExtractedData get(int row) {
+        if (row < 0 || row >= rowCount) throw new IndexOutOfBoundsException("Row " + row + " of " + rowCount);
+        int paragraph = rowParagraph[row];
+
+        ExtractedData data = new ExtractedData();
+        data.setDataPosition(String.valueOf(firstDataPosition + row));
+        data.setImageNo(textColumns[IMAGE_NO][paragraph]);
+        data.setPandaName(decode(PANDA_NAME, paragraph));
+        data.setBahiName(decode(BAHI_NAME, paragraph));
+        data.setFolioNo(textColumns[FOLIO_NO][paragraph]);
+        data.setDistrict(decode(DISTRICT, paragraph));
+        data.setTehsil(decode(TEHSIL, paragraph));
+        data.setStation(decode(STATION, paragraph));
+        data.setPostOffice(decode(POST_OFFICE, paragraph));
+        data.setCityVillage(decode(CITY_VILLAGE, paragraph));
+        data.setFromWhichPlace(decode(FROM_WHICH_PLACE, paragraph));
+        data.setCaste(decode(CASTE, paragraph));
+        data.setSubcaste(decode(SUBCASTE, paragraph));
+        data.setRitualName(decode(RITUAL_NAME, paragraph));
+        data.setWhoseRitual1(textColumns[WHOSE_RITUAL_1][paragraph]);
+        data.setWhoseRitual2(textColumns[WHOSE_RITUAL_2][paragraph]);
+        data.setContactNo1(textColumns[CONTACT_NO_1][paragraph]);
+        data.setContactNo2(textColumns[CONTACT_NO_2][paragraph]);
+        data.setFlagsAndException(textColumns[FLAGS_AND_EXCEPTION][paragraph]);
+        data.setAdditionalInforma(textColumns[ADDITIONAL_INFORMA][paragraph]);
+        // familyID is left blank as per instructions
+
+        int individualId = rowIndividualId[row];
+        if (individualId > 0) {
+            data.setIndividualID(String.valueOf(individualId));
+            data.setGivenName(rowGivenName[row]);
+            data.setSurname(rowSurname[row]);
+            data.setRelation(rowRelation[row] == NO_VALUE ? null : dictionary.get(rowRelation[row]));
+            data.setGender(decode(GENDER, paragraph)); // Gender for the whole record for now
+        }
+        return data;
+    }
+
+    @Override
+    public int size() {
+        return rowCount;
+    }
+
+    public int paragraphCount() {
+        return paragraphCount;
+    }
+
+    // Distinct strings held by the dictionary-encoded columns
+    public int dictionarySize() {
+        return dictionary.size();
+    }
+
+    private void addRow(int paragraph, int individualId, Individual individual) {
+        int row = rowCount++;
+        if (row == rowParagraph.length) growRows();
+        rowParagraph[row] = paragraph;
+        rowIndividualId[row] = individualId;
+        rowGivenName[row] = individual != null ? individual.getGivenName() : null;
+        rowSurname[row] = individual != null ? individual.getSurname() : null;
+        rowRelation[row] = individual != null ? encode(individual.getRelation()) : NO_VALUE;
+    }
+
+    private int encode(String value) {
+        if (value == null) return NO_VALUE;
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = dictionary.size();
+            dictionary.add(value);
+            codes.put(value, code);
+        }
+        return code;
+    }
+
+    private String decode(int column, int paragraph) {
+        int code = codedColumns[column][paragraph];
+        return code == NO_VALUE ? null : dictionary.get(code);
+    }
+
+    private void growParagraphs() {
+        int capacity = codedColumns[0].length * 2;
+        for (int i = 0; i < CODED_COLUMNS; i++) codedColumns[i] = Arrays.copyOf(codedColumns[i], capacity);
+        for (int i = 0; i < TEXT_COLUMNS; i++) textColumns[i] = Arrays.copyOf(textColumns[i], capacity);
+    }
+
+    private void growRows() {
+        int capacity = rowParagraph.length * 2;
+        rowParagraph = Arrays.copyOf(rowParagraph, capacity);
+        rowIndividualId = Arrays.copyOf(rowIndividualId, capacity);
+        rowRelation = Arrays.copyOf(rowRelation, capacity);
+        rowGivenName = Arrays.copyOf(rowGivenName, capacity);
+        rowSurname = Arrays.copyOf(rowSurname, capacity);
+    }
+}
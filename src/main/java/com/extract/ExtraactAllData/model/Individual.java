@@ -0,0 +1,18 @@
+package com.extract.ExtraactAllData.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Individual {
+    private String givenName;
+    private String surname;
+    private String relation;
+
+    public Individual copy() {
+        return new Individual(givenName, surname, relation);
+    }
+}
@@ -0,0 +1,23 @@
+package com.extract.ExtraactAllData.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// Snapshot of a batch extraction job as returned by the job endpoints
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobStatus {
+    private String jobId;
+    private String state; // QUEUED, RUNNING, COMPLETED, FAILED or CANCELLED
+    private int paragraphsProcessed;
+    private int paragraphsTotal;
+    private int rows;
+    private Instant submittedAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String error;
+}
@@ -0,0 +1,17 @@
+package com.extract.ExtraactAllData.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// One edit of a session document: removeLines lines from startLine (1-based) are replaced by lines
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LineEdit {
+    private int startLine;
+    private int removeLines;
+    private List<String> lines;
+}
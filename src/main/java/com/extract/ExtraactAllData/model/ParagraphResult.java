@@ -0,0 +1,37 @@
+package com.extract.ExtraactAllData.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Everything extracted from one paragraph before rows are numbered: the paragraph-level fields and
+ * the individuals in row order. A paragraph without names still produces one row.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ParagraphResult {
+    private RecordFields fields;
+    private List<Individual> individuals;
+
+    public int rowCount() {
+        return hasPlaceholderRow() ? 1 : individuals.size();
+    }
+
+    // Only a paragraph without names gets a row without individual data. One whose names were all
+    // ritual persons already listed gets no rows, as in the sequential extraction before it
+    public boolean hasPlaceholderRow() {
+        return individuals.isEmpty() && (fields.getNames() == null || fields.getNames().isEmpty());
+    }
+
+    // Deep copy, so that a cached result can be handed out without being shared
+    public ParagraphResult copy() {
+        List<Individual> individualsCopy = new ArrayList<>(individuals.size());
+        for (Individual individual : individuals) individualsCopy.add(individual.copy());
+        return new ParagraphResult(fields == null ? null : fields.copy(), individualsCopy);
+    }
+}
@@ -0,0 +1,51 @@
+package com.extract.ExtraactAllData.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class RecordFields implements Cloneable {
+    // Paragraph-level values, shared by every individual of the record
+    private String imageNo;
+    private String pandaName;
+    private String bahiName;
+    private String folioNo;
+    private String district;
+    private String tehsil;
+    private String station;
+    private String postOffice;
+    private String cityVillage;
+    private String fromWhichPlace;
+    private String caste;
+    private String subcaste;
+    private String ritualName;
+    private String whoseRitual1;
+    private String whoseRitual2;
+    private String contactNo1;
+    private String contactNo2;
+    private String flagsAndException;
+    private String additionalInforma;
+    private String dateOfRitual;
+    private String gender; // Gender for the whole record for now
+
+    // Individual-level inputs
+    private String prarthiName;
+    private List<String> names; // Longest first, as returned by extractAllNames
+
+    private boolean overBudget; // Extraction stopped at the record time budget, such results are not cached
+
+    // Field by field copy with its own names list, the strings are shared
+    public RecordFields copy() {
+        try {
+            RecordFields copy = (RecordFields) super.clone();
+            if (names != null) copy.names = new ArrayList<>(names);
+            return copy;
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.extract.ExtraactAllData.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Rows changed by one edit: removedRows rows from firstDataPosition are replaced by rows, numbered from
+ * firstDataPosition, and every later row moves by rowDelta. Applying the changes in order to the previous rows
+ * gives the rows of the edited document, numbered as a full extraction would number them.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RowChange {
+    private int firstDataPosition;
+    private int removedRows;
+    private int rowDelta;
+    private int paragraphsExtracted;
+    private List<ExtractedData> rows;
+}
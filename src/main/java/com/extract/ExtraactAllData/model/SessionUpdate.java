@@ -0,0 +1,19 @@
+package com.extract.ExtraactAllData.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// State of an extraction session after an upload or a batch of edits, with the rows each step changed
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionUpdate {
+    private String sessionId;
+    private int lineCount;
+    private int paragraphCount;
+    private int rowCount;
+    private List<RowChange> changes;
+}
@@ -0,0 +1,302 @@
+package com.extract.ExtraactAllData.service;
+
+import com.extract.ExtraactAllData.excelGenrator.ColumnarExportWriter;
+import com.extract.ExtraactAllData.excelGenrator.DelimitedExportWriter;
+import com.extract.ExtraactAllData.excelGenrator.StreamingExcelWriter;
+import com.extract.ExtraactAllData.model.BulkIngestionRequest;
+import com.extract.ExtraactAllData.model.BulkIngestionStatus;
+import com.extract.ExtraactAllData.model.ExtractedData;
+import com.extract.ExtraactAllData.util.MappedTextReader;
+import com.extract.ExtraactAllData.util.WorkerThreads;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Extracts large transcription files from local disk into a local JSONL, XLSX, columnar or CSV/TSV file.
+ * The input is read through {@link MappedTextReader}, so it is never on the heap as a whole, and rows are
+ * written as each paragraph is extracted. Paths are resolved against {@code extraction.bulk.base-dir}
+ * and may not leave it; bulk ingestion is off while that property is empty.
+ * Runs are executed one at a time, in submission order, and the output only appears once a run completes.
+ */
+@Service
+public class BulkIngestionService {
+
+    public enum State { QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED }
+
+    private static final Logger log = LoggerFactory.getLogger(BulkIngestionService.class);
+
+    private static final List<String> FORMATS = List.of("jsonl", "xlsx", "columnar", "csv", "tsv", "csv.gz", "tsv.gz");
+
+    @Autowired
+    private DataExtractionService dataExtractionService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${extraction.bulk.base-dir:}")
+    private String baseDir;
+
+    @Value("${extraction.bulk.retention-minutes:1440}")
+    private long retentionMinutes;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private final Map<String, Run> runs = new ConcurrentHashMap<>();
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void start() {
+        executor = Executors.newSingleThreadExecutor(WorkerThreads.factory("bulk-ingestion-", virtualThreads));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public BulkIngestionStatus submit(BulkIngestionRequest request) {
+        evictExpiredRuns();
+        Path base = baseDir();
+        String format = request.getFormat() == null ? "jsonl" : request.getFormat().toLowerCase(Locale.ROOT);
+        if (!FORMATS.contains(format)) {
+            throw new IllegalArgumentException("Unknown format: " + request.getFormat() + " (one of " + FORMATS + ")");
+        }
+        Path input = resolve(base, request.getInput(), "input");
+        Path output = resolve(base, request.getOutput(), "output");
+        if (!Files.isRegularFile(input)) throw new IllegalArgumentException("Input file not found: " + request.getInput());
+        try {
+            if (!input.toRealPath().startsWith(base.toRealPath())) { // Symbolic links may not lead out either
+                throw new IllegalArgumentException("The input path must stay inside the base directory");
+            }
+            checkOutput(base, input, output);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        Run run = new Run(UUID.randomUUID().toString(), input, output, format);
+        runs.put(run.id, run);
+        run.future = executor.submit(() -> execute(run));
+        return run.status(base);
+    }
+
+    // Returns null for unknown run ids
+    public BulkIngestionStatus getStatus(String runId) {
+        Run run = runs.get(runId);
+        return run != null ? run.status(baseDir()) : null;
+    }
+
+    public BulkIngestionStatus cancel(String runId) {
+        Run run = runs.get(runId);
+        if (run == null) return null;
+        synchronized (run) {
+            if (run.state == State.QUEUED || run.state == State.RUNNING) {
+                run.state = State.CANCELLED;
+                run.finishedAt = Instant.now();
+                run.future.cancel(true);
+            }
+        }
+        return run.status(baseDir());
+    }
+
+    // Extracts input into output (one of FORMATS) on the calling thread; paragraphSink sees each paragraph's rows first
+    public void ingest(Path input, Path output, String format, Consumer<MappedTextReader> onStart,
+                       Consumer<List<ExtractedData>> paragraphSink) throws IOException {
+        Path partial = output.resolveSibling(output.getFileName() + ".part");
+        if (output.getParent() != null) Files.createDirectories(output.getParent());
+
+        Files.deleteIfExists(partial); // Left over from a crash; a link there is removed, not followed
+        try (MappedTextReader reader = new MappedTextReader(input);
+             OutputStream out = new BufferedOutputStream(Files.newOutputStream(partial, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE))) {
+            onStart.accept(reader);
+            if (format.equals("xlsx")) {
+                try (StreamingExcelWriter writer = new StreamingExcelWriter(out)) {
+                    dataExtractionService.extractDataFromReader(reader, rows -> {
+                        paragraphSink.accept(rows);
+                        rows.forEach(writer::write);
+                    });
+                    writer.finish();
+                }
+            } else if (format.startsWith("csv") || format.startsWith("tsv")) {
+                try (DelimitedExportWriter writer = new DelimitedExportWriter(out, DelimitedExportWriter.Format.parse(format.substring(0, 3)),
+                        format.endsWith(".gz"))) {
+                    dataExtractionService.extractDataFromReader(reader, rows -> {
+                        paragraphSink.accept(rows);
+                        try {
+                            writer.writeAll(rows);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                    writer.finish();
+                }
+            } else if (format.equals("columnar")) {
+                try (ColumnarExportWriter writer = new ColumnarExportWriter(out)) {
+                    dataExtractionService.extractDataFromReader(reader, rows -> {
+                        paragraphSink.accept(rows);
+                        try {
+                            writer.writeAll(rows);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                    writer.finish();
+                }
+            } else {
+                ObjectWriter jsonWriter = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+                Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+                dataExtractionService.extractDataFromReader(reader, rows -> {
+                    paragraphSink.accept(rows);
+                    try {
+                        for (ExtractedData row : rows) {
+                            writer.write(jsonWriter.writeValueAsString(row));
+                            writer.write('\n');
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                writer.flush();
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+        Files.move(partial, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void execute(Run run) {
+        synchronized (run) {
+            if (run.state != State.QUEUED) return;
+            run.state = State.RUNNING;
+            run.startedAt = Instant.now();
+        }
+        try {
+            checkOutput(baseDir(), run.input, run.output); // Links may have changed while the run was queued
+            ingest(run.input, run.output, run.format, reader -> run.reader = reader, rows -> {
+                if (run.state == State.CANCELLED || Thread.currentThread().isInterrupted()) {
+                    throw new CancellationException();
+                }
+                run.paragraphs.incrementAndGet();
+                run.rows.addAndGet(rows.size());
+            });
+            finish(run, State.COMPLETED, null);
+            log.info("Bulk ingestion {} -> {}: {} paragraphs, {} rows", run.input, run.output, run.paragraphs, run.rows);
+        } catch (CancellationException e) {
+            finish(run, State.CANCELLED, null);
+        } catch (IOException | RuntimeException e) {
+            log.error("Bulk ingestion of {} failed", run.input, e);
+            finish(run, State.FAILED, e.getMessage());
+        }
+    }
+
+    private void finish(Run run, State state, String error) {
+        synchronized (run) {
+            if (run.state == State.CANCELLED && state != State.CANCELLED) return;
+            run.state = state;
+            run.error = error;
+            if (run.finishedAt == null) run.finishedAt = Instant.now();
+        }
+    }
+
+    private Path baseDir() {
+        if (baseDir == null || baseDir.isBlank()) {
+            throw new IllegalStateException("Bulk ingestion is disabled, set extraction.bulk.base-dir");
+        }
+        return Paths.get(baseDir).toAbsolutePath().normalize();
+    }
+
+    /**
+     * The output and any directories created for it must end up inside the base directory once symbolic links
+     * are followed, and the output may not be the input under another name (a link, or different case on a
+     * case-insensitive file system). The final move replaces a link at the output itself rather than writing through it.
+     */
+    private static void checkOutput(Path base, Path input, Path output) throws IOException {
+        Path existing = output;
+        while (existing != null && !Files.exists(existing)) existing = existing.getParent();
+        if (existing == null || !existing.toRealPath().startsWith(base.toRealPath())) {
+            throw new IllegalArgumentException("The output path must stay inside the base directory");
+        }
+        if (existing.equals(output) && Files.isSameFile(input, output)) {
+            throw new IllegalArgumentException("Output would overwrite the input");
+        }
+    }
+
+    // Finished runs are kept for their status until the retention period has passed
+    private void evictExpiredRuns() {
+        Instant cutoff = Instant.now().minus(Duration.ofMinutes(retentionMinutes));
+        runs.values().removeIf(run -> run.finishedAt != null && run.finishedAt.isBefore(cutoff));
+    }
+
+    private static Path resolve(Path base, String relative, String what) {
+        if (relative == null || relative.isBlank()) throw new IllegalArgumentException("Missing " + what + " path");
+        Path path = base.resolve(relative).normalize();
+        if (!path.startsWith(base)) throw new IllegalArgumentException("The " + what + " path must stay inside the base directory");
+        return path;
+    }
+
+    private static class Run {
+        private final String id;
+        private final Path input;
+        private final Path output;
+        private final String format;
+        private final Instant submittedAt = Instant.now();
+        private final AtomicLong paragraphs = new AtomicLong();
+        private final AtomicLong rows = new AtomicLong();
+        private volatile State state = State.QUEUED;
+        private volatile MappedTextReader reader;
+        private volatile Instant startedAt;
+        private volatile Instant finishedAt;
+        private volatile String error;
+        private volatile Future<?> future;
+
+        Run(String id, Path input, Path output, String format) {
+            this.id = id;
+            this.input = input;
+            this.output = output;
+            this.format = format;
+        }
+
+        BulkIngestionStatus status(Path base) {
+            MappedTextReader current = reader;
+            return new BulkIngestionStatus(id, state.name(), base.relativize(input).toString(), base.relativize(output).toString(),
+                    format, current != null ? current.position() : 0, current != null ? current.size() : 0,
+                    paragraphs.get(), rows.get(), submittedAt, startedAt, finishedAt, error);
+        }
+    }
+}
@@ -1,16 +1,36 @@
-
 package com.extract.ExtraactAllData.service;
 
 import com.extract.ExtraactAllData.model.ExtractedData;
+import com.extract.ExtraactAllData.model.ExtractedDataTable;
+import com.extract.ExtraactAllData.model.Individual;
+import com.extract.ExtraactAllData.model.ParagraphResult;
+import com.extract.ExtraactAllData.model.RecordFields;
+import com.extract.ExtraactAllData.util.ParagraphSplitter;
+import com.extract.ExtraactAllData.util.RelationIndex;
+import com.extract.ExtraactAllData.util.SingleFlight;
 import com.extract.ExtraactAllData.util.TextParsingUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDate;
+import java.io.IOException;
+import java.io.Reader;
 import java.util.ArrayList;
+import java.util.HexFormat;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 
 @Service
 public class DataExtractionService {
@@ -18,165 +38,279 @@ public class DataExtractionService {
     @Autowired
     private TextParsingUtil textParsingUtil;
 
+    @Autowired
+    private RecordExtractionEngine recordExtractionEngine;
+
+    @Autowired
+    private ParagraphResultCache paragraphResultCache;
+
+    @Autowired
+    private ExtractionMetrics metrics;
+
+    // Parallel mode: paragraphs are extracted on a fork-join pool, rows are numbered afterwards in input order
+    @Value("${extraction.parallel.enabled:false}")
+    private boolean parallelEnabled;
+
+    @Value("${extraction.parallel.parallelism:0}")
+    private int parallelism;
+
+    @Value("${extraction.parallel.min-paragraphs:64}")
+    private int parallelMinParagraphs;
+
+    // Paragraphs parsed at the same time across all requests, 0 = one per core. Parsing is CPU-bound, so with
+    // virtual request threads this is what keeps it from piling onto the carrier threads
+    @Value("${extraction.concurrency.max-extractions:0}")
+    private int maxConcurrentExtractions;
+
+    // How long a request waits to be admitted (see admit) before it fails with ExtractionBusyException
+    @Value("${extraction.concurrency.wait-ms:30000}")
+    private long concurrencyWaitMs;
+
+    // Identical texts posted while one is being extracted wait for that extraction instead of running their own
+    @Value("${extraction.coalesce.enabled:true}")
+    private boolean coalesceEnabled;
+
+    // Longest wait for an identical extraction in flight, after which the request extracts the text itself
+    @Value("${extraction.coalesce.wait-ms:60000}")
+    private long coalesceWaitMs;
+
+    private final SingleFlight<String, ExtractedDataTable> textExtractions = new SingleFlight<>();
+    private volatile ForkJoinPool extractionPool;
+    private Semaphore extractionSlots;
+    private Counter extractionsRejected;
+
+    @PostConstruct
+    public void init() {
+        int slots = maxConcurrentExtractions > 0 ? maxConcurrentExtractions : Runtime.getRuntime().availableProcessors();
+        extractionSlots = new Semaphore(slots); // Not fair: a fair one hands the slot to another thread after every paragraph
+        MeterRegistry registry = metrics.registry();
+        Gauge.builder("extraction.concurrency.active", extractionSlots, semaphore -> slots - semaphore.availablePermits())
+                .description("Paragraphs being parsed right now").register(registry);
+        Gauge.builder("extraction.concurrency.waiting", extractionSlots, Semaphore::getQueueLength)
+                .description("Threads waiting for an extraction slot").register(registry);
+        extractionsRejected = Counter.builder("extraction.concurrency.rejected")
+                .description("Requests that gave up waiting for an extraction slot").register(registry);
+        FunctionCounter.builder("extraction.requests.coalesced", textExtractions, SingleFlight::coalesced)
+                .description("Requests answered by an identical extraction that was already running").register(registry);
+        FunctionCounter.builder("extraction.requests.coalesce.timeouts", textExtractions, SingleFlight::waitTimeouts)
+                .description("Requests that stopped waiting for an identical extraction and ran their own").register(registry);
+        Gauge.builder("extraction.requests.in.flight", textExtractions, SingleFlight::inFlight)
+                .description("Distinct texts being extracted right now").register(registry);
+    }
+
+    // Concurrent calls with the same text share one extraction and get the same (read-only) rows
     public List<ExtractedData> extractDataFromText(String inputText) {
-        List<ExtractedData> extractedDataList = new ArrayList<>();
+        if (!coalesceEnabled) return extractText(inputText);
+        String key = HexFormat.of().formatHex(ParagraphResultCache.sha256(inputText));
+        return textExtractions.execute(key, () -> extractText(inputText), coalesceWaitMs);
+    }
 
+    private ExtractedDataTable extractText(String inputText) {
+        admit();
+        long start = System.nanoTime();
         // Split the input text into paragraphs representing family blocks or distinct records
         List<String> paragraphs = textParsingUtil.splitIntoParagraphsByTrigger(inputText);
 
-        int dataIndex = 1;
+        ExtractedDataTable rows = parallelEnabled && paragraphs.size() >= parallelMinParagraphs
+                ? extractParallel(paragraphs)
+                : extractSequential(paragraphs);
+        metrics.request("text", start, rows.paragraphCount(), ExtractionMetrics.utf8Length(inputText));
+        return rows;
+    }
+
+    ExtractedDataTable extractSequential(List<String> paragraphs) {
+        return extractSequential(paragraphs, processed -> { });
+    }
+
+    // Sequential extraction that reports the number of paragraphs done after each one
+    public ExtractedDataTable extractSequential(List<String> paragraphs, IntConsumer progress) {
+        ExtractedDataTable extractedDataList = new ExtractedDataTable();
+        int processed = 0;
         for (String record : paragraphs) {
-            if (record.trim().isEmpty()) continue;
-
-            // --- Extract Common/Paragraph-level Data First ---
-            String imageNo = textParsingUtil.extractImageNo(record);
-            String pandaName = textParsingUtil.extractPandaName(record);
-            String bahiName = textParsingUtil.extractBahiName(record);
-            String folioNo = textParsingUtil.extractFolioNo(record);
-            String district = textParsingUtil.extractJila(record);
-            String tehsil = textParsingUtil.extractTahsil(record);
-            String station = textParsingUtil.extractStation(record);
-            String postOffice = textParsingUtil.extractPostOffice(record);
-            String cityVillage = textParsingUtil.extractCityVillage(record);
-            String fromWhichPlace = textParsingUtil.extractFromWhichPlace(record);
-            String caste = textParsingUtil.extractCaste(record);
-            String subcaste = textParsingUtil.extractSubCaste(record);
-            String ritualName = textParsingUtil.extractanusthan_ka_naam(record);
-            String whoseRitual1 = textParsingUtil.extractKiskaAnusthan(record);
-            String whoseRitual2 = textParsingUtil.extractKiskaAnusthan2(record);
-            String contactNo1 = textParsingUtil.extractContactNo1(record);
-            String contactNo2 = textParsingUtil.extractContactNo2(record);
-            String flags = textParsingUtil.extractUnknownTerms(record);
-            String dateOfRitual= textParsingUtil.extractDateOfRitual(record);
-
-            // Extract the date from additional information
-            String rawDateStr = textParsingUtil.extractExtraNotesOrDate(record);
-            LocalDate extractedDate = (rawDateStr != null) ? textParsingUtil.parseDate(rawDateStr) : null;
-            String additionalInfo = (extractedDate != null) ? rawDateStr : null; // Store original date string or other notes
-
-
-            // --- Extract Individual-specific Data ---
-            List<String> allNamesInRecord = textParsingUtil.extractAllNames(record);
-
-            // Try to find the "prarthi" or main person explicitly
-            String prarthiName = textParsingUtil.extractPraMainPersonName(record);
-
-            if (!allNamesInRecord.isEmpty()) {
-                int individualIDCounter = 1;
-
-                // Prioritize the Prarthi if found
-                if (prarthiName != null && allNamesInRecord.contains(prarthiName)) {
-                    ExtractedData data = createNewExtractedDataInstance(
-                            dataIndex++, imageNo, pandaName, bahiName, folioNo, district, tehsil,
-                            station, postOffice, cityVillage, fromWhichPlace, caste, subcaste,
-                            ritualName, whoseRitual1, whoseRitual2, contactNo1, contactNo2, flags, additionalInfo
-                    );
-                    data.setIndividualID(String.valueOf(individualIDCounter++));
-                    data.setGivenName(textParsingUtil.extractGivenName(prarthiName));
-                    data.setSurname(textParsingUtil.extractSurname(prarthiName));
-                    data.setRelation(textParsingUtil.extractRelation(record, prarthiName));
-                    data.setGender(textParsingUtil.extractGender(record)); // Gender for the whole record for now
-                    extractedDataList.add(data);
-                    allNamesInRecord.remove(prarthiName); // Remove to avoid re-processing
-                }
+            if (!record.trim().isEmpty()) {
+                extractedDataList.addParagraph(extractParagraph(record));
+            }
+            progress.accept(++processed);
+        }
+        return extractedDataList;
+    }
+
+    ExtractedDataTable extractParallel(List<String> paragraphs) {
+        ParagraphResult[] results = new ParagraphResult[paragraphs.size()];
+        pool().invoke(new ParagraphExtractionTask(paragraphs, results, 0, paragraphs.size()));
+
+        // Numbering depends on the row counts of all earlier paragraphs, so it stays sequential
+        ExtractedDataTable extractedDataList = new ExtractedDataTable();
+        for (ParagraphResult result : results) {
+            if (result == null) continue;
+            extractedDataList.addParagraph(result);
+        }
+        return extractedDataList;
+    }
+
+    // Reads the text incrementally and hands over the numbered rows of each paragraph as soon as it is closed
+    public void extractDataFromReader(Reader reader, Consumer<List<ExtractedData>> paragraphSink) throws IOException {
+        long start = System.nanoTime();
+        int[] dataIndex = {1};
+        long[] records = {0};
+        long[] bytes = {0}; // of the paragraphs, line breaks between them are not counted
+        ParagraphSplitter.split(reader, record -> {
+            if (record.trim().isEmpty()) return;
+            ExtractedDataTable rows = new ExtractedDataTable(dataIndex[0]);
+            rows.addParagraph(extractParagraph(record));
+            dataIndex[0] += rows.size();
+            records[0]++;
+            bytes[0] += ExtractionMetrics.utf8Length(record);
+            paragraphSink.accept(rows);
+        });
+        metrics.request("stream", start, records[0], bytes[0]);
+    }
 
+    /**
+     * Admission check for request threads, to be called before anything is committed to the response: waits up
+     * to extraction.concurrency.wait-ms for a slot to come free and throws ExtractionBusyException otherwise.
+     * Paragraphs themselves wait for a slot as long as it takes, so admitted requests, streaming bodies,
+     * jobs and bulk runs slow down under load rather than fail halfway.
+     */
+    public void admit() {
+        try {
+            if (extractionSlots.tryAcquire(concurrencyWaitMs, TimeUnit.MILLISECONDS)) {
+                extractionSlots.release();
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        extractionsRejected.increment();
+        throw new ExtractionBusyException("No extraction slot free within " + concurrencyWaitMs + " ms, try again later");
+    }
 
-                // Now iterate through remaining names (family members)
-                // Filter out names that are already identified as ritual persons if they're handled
-                List<String> remainingNames = new ArrayList<>(allNamesInRecord);
-                if (whoseRitual1 != null) remainingNames.remove(whoseRitual1);
-                if (whoseRitual2 != null) remainingNames.remove(whoseRitual2);
+    // Everything extracted from one paragraph, before dataPosition numbering (served from the cache when seen before)
+    public ParagraphResult extractParagraph(String record) {
+        acquireSlot();
+        try {
+            ParagraphResult result = paragraphResultCache.get(record, this::parseParagraph);
+            metrics.paragraph(result);
+            return result;
+        } finally {
+            extractionSlots.release();
+        }
+    }
 
+    // Blocks until a slot is free; an interrupt (a cancelled job or run) ends the extraction
+    private void acquireSlot() {
+        try {
+            extractionSlots.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for an extraction slot");
+        }
+    }
 
-                for (String name : remainingNames) {
-                    ExtractedData data = createNewExtractedDataInstance(
-                            dataIndex++, imageNo, pandaName, bahiName, folioNo, district, tehsil,
-                            station, postOffice, cityVillage, fromWhichPlace, caste, subcaste,
-                            ritualName, whoseRitual1, whoseRitual2, contactNo1, contactNo2, flags, additionalInfo
-                    );
+    private ParagraphResult parseParagraph(String record) {
+        // --- Extract Common/Paragraph-level Data First (single keyword walk) ---
+        RecordFields fields = recordExtractionEngine.extract(record);
+        String whoseRitual1 = fields.getWhoseRitual1();
+        String whoseRitual2 = fields.getWhoseRitual2();
+        RelationIndex relations = metrics.time(ExtractionMetrics.Extractor.RELATIONS, textParsingUtil::indexRelations, record);
 
-                    data.setIndividualID(String.valueOf(individualIDCounter++));
-                    data.setGivenName(textParsingUtil.extractGivenName(name));
-                    data.setSurname(textParsingUtil.extractSurname(name));
-                    data.setRelation(textParsingUtil.extractRelation(record, name));
-                    data.setGender(textParsingUtil.extractGender(record)); // Gender for the whole record for now
+        // --- Extract Individual-specific Data ---
+        List<Individual> individuals = new ArrayList<>();
+        List<String> allNamesInRecord = new ArrayList<>(fields.getNames());
 
-                    extractedDataList.add(data);
-                }
+        // Try to find the "prarthi" or main person explicitly
+        String prarthiName = fields.getPrarthiName();
 
-                // If ritual persons were not among other names, add them specifically
-                if (whoseRitual1 != null && !allNamesInRecord.contains(whoseRitual1)) {
-                    ExtractedData data = createNewExtractedDataInstance(
-                            dataIndex++, imageNo, pandaName, bahiName, folioNo, district, tehsil,
-                            station, postOffice, cityVillage, fromWhichPlace, caste, subcaste,
-                            ritualName, whoseRitual1, whoseRitual2, contactNo1, contactNo2, flags, additionalInfo
-                    );
-                    data.setIndividualID(String.valueOf(individualIDCounter++));
-                    data.setGivenName(textParsingUtil.extractGivenName(whoseRitual1));
-                    data.setSurname(textParsingUtil.extractSurname(whoseRitual1));
-                    data.setRelation("मृतक (अनुष्ठान)"); // Explicitly mark as deceased for ritual
-                    data.setGender(textParsingUtil.extractGender(record));
-                    extractedDataList.add(data);
-                }
-                if (whoseRitual2 != null && !allNamesInRecord.contains(whoseRitual2)) {
-                    ExtractedData data = createNewExtractedDataInstance(
-                            dataIndex++, imageNo, pandaName, bahiName, folioNo, district, tehsil,
-                            station, postOffice, cityVillage, fromWhichPlace, caste, subcaste,
-                            ritualName, whoseRitual1, whoseRitual2, contactNo1, contactNo2, flags, additionalInfo
-                    );
-                    data.setIndividualID(String.valueOf(individualIDCounter++));
-                    data.setGivenName(textParsingUtil.extractGivenName(whoseRitual2));
-                    data.setSurname(textParsingUtil.extractSurname(whoseRitual2));
-                    data.setRelation("मृतक (अनुष्ठान)"); // Explicitly mark as deceased for ritual
-                    data.setGender(textParsingUtil.extractGender(record));
-                    extractedDataList.add(data);
-                }
+        if (!allNamesInRecord.isEmpty()) {
+            // Prioritize the Prarthi if found
+            if (prarthiName != null && allNamesInRecord.contains(prarthiName)) {
+                individuals.add(individual(prarthiName, relations.relationOf(prarthiName)));
+                allNamesInRecord.remove(prarthiName); // Remove to avoid re-processing
+            }
 
+            // Now iterate through remaining names (family members)
+            // Filter out names that are already identified as ritual persons if they're handled
+            List<String> remainingNames = new ArrayList<>(allNamesInRecord);
+            if (whoseRitual1 != null) remainingNames.remove(whoseRitual1);
+            if (whoseRitual2 != null) remainingNames.remove(whoseRitual2);
+
+            for (String name : remainingNames) {
+                individuals.add(individual(name, relations.relationOf(name)));
+            }
 
-            } else {
-                // If no individual names found, add one entry for the family block with common data
-                ExtractedData data = createNewExtractedDataInstance(
-                        dataIndex++, imageNo, pandaName, bahiName, folioNo, district, tehsil,
-                        station, postOffice, cityVillage, fromWhichPlace, caste, subcaste,
-                        ritualName, whoseRitual1, whoseRitual2, contactNo1, contactNo2, flags, additionalInfo
-                );
-                extractedDataList.add(data);
+            // If ritual persons were not among other names, add them specifically
+            if (whoseRitual1 != null && !allNamesInRecord.contains(whoseRitual1)) {
+                individuals.add(individual(whoseRitual1, "मृतक (अनुष्ठान)")); // Explicitly mark as deceased for ritual
+            }
+            if (whoseRitual2 != null && !allNamesInRecord.contains(whoseRitual2)) {
+                individuals.add(individual(whoseRitual2, "मृतक (अनुष्ठान)")); // Explicitly mark as deceased for ritual
             }
         }
 
-        return extractedDataList;
+        return new ParagraphResult(fields, individuals);
+    }
+
+    // One person of the paragraph, with given name and surname split
+    private Individual individual(String name, String relation) {
+        return metrics.time(ExtractionMetrics.Extractor.INDIVIDUAL_NAMES,
+                n -> new Individual(textParsingUtil.extractGivenName(n), textParsingUtil.extractSurname(n), relation), name);
     }
 
-    // Helper method to create a new ExtractedData instance and set common fields
-    private ExtractedData createNewExtractedDataInstance(
-            int dataPosition, String imageNo, String pandaName, String bahiName, String folioNo,
-            String district, String tehsil, String station, String postOffice, String cityVillage,
-            String fromWhichPlace, String caste, String subcaste, String ritualName,
-            String whoseRitual1, String whoseRitual2, String contactNo1, String contactNo2,
-            String flagsAndException, String additionalInforma) {
-
-        ExtractedData data = new ExtractedData();
-        data.setDataPosition(String.valueOf(dataPosition));
-        data.setImageNo(imageNo);
-        data.setPandaName(pandaName);
-        data.setBahiName(bahiName);
-        data.setFolioNo(folioNo);
-        data.setDistrict(district);
-        data.setTehsil(tehsil);
-        data.setStation(station);
-        data.setPostOffice(postOffice);
-        data.setCityVillage(cityVillage);
-        data.setFromWhichPlace(fromWhichPlace);
-        data.setCaste(caste);
-        data.setSubcaste(subcaste);
-        data.setRitualName(ritualName);
-        data.setWhoseRitual1(whoseRitual1);
-        data.setWhoseRitual2(whoseRitual2);
-        data.setContactNo1(contactNo1);
-        data.setContactNo2(contactNo2);
-        data.setFlagsAndException(flagsAndException);
-        data.setAdditionalInforma(additionalInforma);
-        // familyID is left blank as per instructions
-        return data;
+    private ForkJoinPool pool() {
+        ForkJoinPool pool = extractionPool;
+        if (pool == null) {
+            synchronized (this) {
+                pool = extractionPool;
+                if (pool == null) {
+                    int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+                    pool = new ForkJoinPool(threads);
+                    extractionPool = pool;
+                }
+            }
+        }
+        return pool;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ForkJoinPool pool = extractionPool;
+        if (pool != null) pool.shutdown();
+    }
+
+    public static class ExtractionBusyException extends RuntimeException {
+        public ExtractionBusyException(String message) {
+            super(message);
+        }
+    }
+
+    // Splits the paragraph range in halves until it is small enough to extract directly
+    private class ParagraphExtractionTask extends RecursiveAction {
+        private static final int BATCH_SIZE = 16;
+
+        private final List<String> paragraphs;
+        private final ParagraphResult[] results;
+        private final int from;
+        private final int to;
+
+        ParagraphExtractionTask(List<String> paragraphs, ParagraphResult[] results, int from, int to) {
+            this.paragraphs = paragraphs;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= BATCH_SIZE) {
+                for (int i = from; i < to; i++) {
+                    String record = paragraphs.get(i);
+                    if (!record.trim().isEmpty()) results[i] = extractParagraph(record);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ParagraphExtractionTask(paragraphs, results, from, middle),
+                    new ParagraphExtractionTask(paragraphs, results, middle, to));
+        }
     }
 }
@@ -0,0 +1,201 @@
+package com.extract.ExtraactAllData.service;
+
+import com.extract.ExtraactAllData.model.ExtractedData;
+import com.extract.ExtraactAllData.model.ExtractedDataTable;
+import com.extract.ExtraactAllData.model.JobStatus;
+import com.extract.ExtraactAllData.util.TextParsingUtil;
+import com.extract.ExtraactAllData.util.WorkerThreads;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs large extractions in the background on a bounded worker pool.
+ * Jobs wait in a bounded queue; when it is full, submission fails with {@link JobQueueFullException}.
+ * Job state and results are kept in memory until the retention period after they finish.
+ */
+@Service
+public class ExtractionJobService {
+
+    public enum State { QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED }
+
+    private static final Logger log = LoggerFactory.getLogger(ExtractionJobService.class);
+
+    @Autowired
+    private TextParsingUtil textParsingUtil;
+
+    @Autowired
+    private DataExtractionService dataExtractionService;
+
+    @Autowired
+    private ExtractionMetrics metrics;
+
+    @Value("${extraction.jobs.workers:2}")
+    private int workers;
+
+    @Value("${extraction.jobs.queue-capacity:16}")
+    private int queueCapacity;
+
+    @Value("${extraction.jobs.retention-minutes:60}")
+    private long retentionMinutes;
+
+    // Workers are virtual threads when the request threads are (Java 21)
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void start() {
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                WorkerThreads.factory("extraction-job-", virtualThreads),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public JobStatus submit(String inputText) {
+        evictExpiredJobs();
+
+        Job job = new Job(UUID.randomUUID().toString(), inputText);
+        jobs.put(job.id, job);
+        try {
+            job.future = executor.submit(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            throw new JobQueueFullException("Job queue is full (" + queueCapacity + " waiting), try again later");
+        }
+        return job.status();
+    }
+
+    // Returns null for unknown or expired job ids
+    public JobStatus getStatus(String jobId) {
+        Job job = jobs.get(jobId);
+        return job != null ? job.status() : null;
+    }
+
+    // Rows of a completed job, null if the job is unknown or not completed
+    public List<ExtractedData> getResult(String jobId) {
+        Job job = jobs.get(jobId);
+        return job != null && job.state == State.COMPLETED ? job.result : null;
+    }
+
+    public JobStatus cancel(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) return null;
+
+        synchronized (job) {
+            if (job.state == State.QUEUED || job.state == State.RUNNING) {
+                job.state = State.CANCELLED;
+                job.finishedAt = Instant.now();
+                job.text = null;
+                if (job.future != null) {
+                    job.future.cancel(true);
+                    executor.remove((Runnable) job.future); // Frees the queue slot right away
+                }
+            }
+        }
+        return job.status();
+    }
+
+    private void run(Job job) {
+        String text;
+        synchronized (job) {
+            if (job.state != State.QUEUED) return;
+            job.state = State.RUNNING;
+            job.startedAt = Instant.now();
+            text = job.text;
+            job.text = null; // The paragraphs below are all that is needed from here on
+        }
+
+        try {
+            long start = System.nanoTime();
+            long bytes = ExtractionMetrics.utf8Length(text);
+            List<String> paragraphs = textParsingUtil.splitIntoParagraphsByTrigger(text);
+            job.paragraphsTotal = paragraphs.size();
+
+            ExtractedDataTable result = dataExtractionService.extractSequential(paragraphs, processed -> {
+                job.paragraphsProcessed.set(processed);
+                if (job.state == State.CANCELLED || Thread.currentThread().isInterrupted()) {
+                    throw new CancellationException();
+                }
+            });
+            metrics.request("job", start, result.paragraphCount(), bytes);
+            finish(job, State.COMPLETED, result, null);
+        } catch (CancellationException e) {
+            finish(job, State.CANCELLED, null, null);
+        } catch (RuntimeException e) {
+            log.error("Job {} failed", job.id, e);
+            finish(job, State.FAILED, null, e.getMessage());
+        }
+    }
+
+    private void finish(Job job, State state, List<ExtractedData> result, String error) {
+        synchronized (job) {
+            if (job.state == State.CANCELLED && state != State.CANCELLED) return; // Cancelled while finishing
+            job.result = result;
+            job.error = error;
+            job.state = state;
+            if (job.finishedAt == null) job.finishedAt = Instant.now();
+        }
+    }
+
+    private void evictExpiredJobs() {
+        Instant cutoff = Instant.now().minus(Duration.ofMinutes(retentionMinutes));
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    private static class Job {
+        private final String id;
+        private final Instant submittedAt = Instant.now();
+        private final AtomicInteger paragraphsProcessed = new AtomicInteger();
+        private volatile String text;
+        private volatile State state = State.QUEUED;
+        private volatile int paragraphsTotal;
+        private volatile Instant startedAt;
+        private volatile Instant finishedAt;
+        private volatile List<ExtractedData> result;
+        private volatile String error;
+        private volatile Future<?> future;
+
+        Job(String id, String text) {
+            this.id = id;
+            this.text = text;
+        }
+
+        JobStatus status() {
+            List<ExtractedData> rows = result;
+            return new JobStatus(id, state.name(), paragraphsProcessed.get(), paragraphsTotal,
+                    rows != null ? rows.size() : 0, submittedAt, startedAt, finishedAt, error);
+        }
+    }
+
+    public static class JobQueueFullException extends RuntimeException {
+        public JobQueueFullException(String message) {
+            super(message);
+        }
+    }
+}
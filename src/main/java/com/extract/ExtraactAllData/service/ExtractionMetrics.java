@@ -0,0 +1,229 @@
+package com.extract.ExtraactAllData.service;
+
+import com.extract.ExtraactAllData.model.Individual;
+import com.extract.ExtraactAllData.model.ParagraphResult;
+import com.extract.ExtraactAllData.model.RecordFields;
+import com.extract.ExtraactAllData.util.TextParsingUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Micrometer meters of the extraction pipeline, published at {@code /actuator/prometheus}.
+ * <ul>
+ *   <li>{@code extraction.extractor} - latency histogram per extractor method, tagged {@code extractor}</li>
+ *   <li>{@code extraction.request} - duration per request, with {@code extraction.request.records.per.second}
+ *       and {@code extraction.request.bytes.per.second}, tagged {@code path} (text, stream, job)</li>
+ *   <li>{@code extraction.input} - UTF-8 bytes extracted, {@code extraction.paragraphs} and {@code extraction.individuals}</li>
+ *   <li>{@code extraction.fields.null} - extracted values that came out empty, tagged {@code field}</li>
+ *   <li>{@code extraction.date.parse.failures} - dates that matched but could not be parsed, tagged {@code source}</li>
+ * </ul>
+ * Everything is a counter increment or one clock read per extractor call, cheap next to the regex work it measures.
+ * Without a MeterRegistry bean (plain test contexts) the meters go to a private SimpleMeterRegistry.
+ */
+@Component
+public class ExtractionMetrics {
+
+    public enum Extractor {
+        ANCHORS, IMAGE_NO, PANDA_NAME, BAHI_NAME, FOLIO_NO, DISTRICT, TEHSIL, STATION, POST_OFFICE, CITY_VILLAGE,
+        FROM_WHICH_PLACE, VOCABULARY, RITUAL_PERSONS, CONTACT_NUMBERS, DATES,
+        PRARTHI_NAME, ALL_NAMES, UNKNOWN_TERMS, GENDER, RELATIONS, INDIVIDUAL_NAMES;
+
+        final String tag = name().toLowerCase(Locale.ROOT);
+    }
+
+    // Paragraph-level fields counted when null, named as in ExtractedData
+    private static final Map<String, Function<RecordFields, String>> PARAGRAPH_FIELDS = Map.ofEntries(
+            Map.entry("imageNo", RecordFields::getImageNo),
+            Map.entry("pandaName", RecordFields::getPandaName),
+            Map.entry("bahiName", RecordFields::getBahiName),
+            Map.entry("folioNo", RecordFields::getFolioNo),
+            Map.entry("district", RecordFields::getDistrict),
+            Map.entry("tehsil", RecordFields::getTehsil),
+            Map.entry("station", RecordFields::getStation),
+            Map.entry("postOffice", RecordFields::getPostOffice),
+            Map.entry("cityVillage", RecordFields::getCityVillage),
+            Map.entry("fromWhichPlace", RecordFields::getFromWhichPlace),
+            Map.entry("caste", RecordFields::getCaste),
+            Map.entry("subcaste", RecordFields::getSubcaste),
+            Map.entry("ritualName", RecordFields::getRitualName),
+            Map.entry("whoseRitual1", RecordFields::getWhoseRitual1),
+            Map.entry("whoseRitual2", RecordFields::getWhoseRitual2),
+            Map.entry("contactNo1", RecordFields::getContactNo1),
+            Map.entry("contactNo2", RecordFields::getContactNo2),
+            Map.entry("dateOfRitual", RecordFields::getDateOfRitual),
+            Map.entry("additionalInforma", RecordFields::getAdditionalInforma),
+            Map.entry("gender", RecordFields::getGender));
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TextParsingUtil textParsingUtil;
+
+    // The per-call clock reads; counters stay on either way
+    @Value("${extraction.metrics.extractor-timing.enabled:true}")
+    private boolean extractorTiming;
+
+    private Timer[] extractorTimers;
+    private Counter paragraphs;
+    private Counter individuals;
+    private List<Function<RecordFields, String>> fieldGetters;
+    private Counter[] nullFieldCounters;
+    private Counter nullGivenNames;
+    private Counter nullSurnames;
+    private Counter nullRelations;
+    private final Map<String, Request> requests = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        if (meterRegistry == null) meterRegistry = new SimpleMeterRegistry();
+
+        extractorTimers = new Timer[Extractor.values().length];
+        for (Extractor extractor : Extractor.values()) {
+            extractorTimers[extractor.ordinal()] = Timer.builder("extraction.extractor")
+                    .description("Time spent in one extractor call for one record")
+                    .tag("extractor", extractor.tag)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofNanos(500))
+                    .maximumExpectedValue(Duration.ofSeconds(2))
+                    .register(meterRegistry);
+        }
+
+        paragraphs = Counter.builder("extraction.paragraphs").description("Paragraphs (records) extracted").register(meterRegistry);
+        individuals = Counter.builder("extraction.individuals").description("Individuals found in the paragraphs").register(meterRegistry);
+
+        List<Function<RecordFields, String>> getters = new ArrayList<>(PARAGRAPH_FIELDS.size());
+        nullFieldCounters = new Counter[PARAGRAPH_FIELDS.size()];
+        for (Map.Entry<String, Function<RecordFields, String>> field : PARAGRAPH_FIELDS.entrySet()) {
+            nullFieldCounters[getters.size()] = nullFieldCounter(field.getKey());
+            getters.add(field.getValue());
+        }
+        fieldGetters = List.copyOf(getters);
+        nullGivenNames = nullFieldCounter("givenName");
+        nullSurnames = nullFieldCounter("surname");
+        nullRelations = nullFieldCounter("relation");
+
+        FunctionCounter.builder("extraction.date.parse.failures", textParsingUtil, TextParsingUtil::additionalDateFailures)
+                .description("Dates that matched the pattern but are not valid dates")
+                .tag("source", "additional_informa")
+                .register(meterRegistry);
+        FunctionCounter.builder("extraction.date.parse.failures", textParsingUtil, TextParsingUtil::ritualDateFailures)
+                .description("Dates that matched the pattern but are not valid dates")
+                .tag("source", "date_of_ritual")
+                .register(meterRegistry);
+    }
+
+    public MeterRegistry registry() {
+        return meterRegistry;
+    }
+
+    // Runs one extractor on the record and records how long it took
+    public <T> T time(Extractor extractor, Function<String, T> method, String record) {
+        if (!extractorTiming) return method.apply(record);
+        long start = System.nanoTime();
+        try {
+            return method.apply(record);
+        } finally {
+            extractorTimers[extractor.ordinal()].record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Counts one extracted paragraph, its individuals and its empty fields
+    public void paragraph(ParagraphResult result) {
+        paragraphs.increment();
+        RecordFields fields = result.getFields();
+        for (int i = 0; i < fieldGetters.size(); i++) {
+            if (fieldGetters.get(i).apply(fields) == null) nullFieldCounters[i].increment();
+        }
+
+        List<Individual> found = result.getIndividuals();
+        individuals.increment(found.size());
+        for (Individual individual : found) {
+            if (individual.getGivenName() == null) nullGivenNames.increment();
+            if (individual.getSurname() == null) nullSurnames.increment();
+            if (individual.getRelation() == null) nullRelations.increment();
+        }
+    }
+
+    // Records one finished request of the given path (text, stream, job)
+    public void request(String path, long startNanos, long records, long bytes) {
+        long elapsed = System.nanoTime() - startNanos;
+        Request request = requests.computeIfAbsent(path, this::newRequest);
+        request.duration.record(elapsed, TimeUnit.NANOSECONDS);
+        request.input.increment(bytes);
+        if (elapsed > 0) {
+            double seconds = elapsed / 1e9;
+            request.recordsPerSecond.record(records / seconds);
+            request.bytesPerSecond.record(bytes / seconds);
+        }
+    }
+
+    // Number of bytes the text takes as UTF-8, without encoding it
+    public static long utf8Length(CharSequence text) {
+        long bytes = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                bytes += 1;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length() && Character.isLowSurrogate(text.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    private Counter nullFieldCounter(String field) {
+        return Counter.builder("extraction.fields.null")
+                .description("Extracted values that came out empty")
+                .tag("field", field)
+                .register(meterRegistry);
+    }
+
+    private Request newRequest(String path) {
+        return new Request(
+                Timer.builder("extraction.request").description("Duration of one extraction request")
+                        .tag("path", path).publishPercentileHistogram().register(meterRegistry),
+                Counter.builder("extraction.input").description("Input extracted, as UTF-8").baseUnit("bytes")
+                        .tag("path", path).register(meterRegistry),
+                DistributionSummary.builder("extraction.request.records.per.second").description("Records per second of one request")
+                        .tag("path", path).register(meterRegistry),
+                DistributionSummary.builder("extraction.request.bytes.per.second").description("Input bytes per second of one request")
+                        .tag("path", path).register(meterRegistry));
+    }
+
+    private static class Request {
+        private final Timer duration;
+        private final Counter input;
+        private final DistributionSummary recordsPerSecond;
+        private final DistributionSummary bytesPerSecond;
+
+        Request(Timer duration, Counter input, DistributionSummary recordsPerSecond, DistributionSummary bytesPerSecond) {
+            this.duration = duration;
+            this.input = input;
+            this.recordsPerSecond = recordsPerSecond;
+            this.bytesPerSecond = bytesPerSecond;
+        }
+    }
+}
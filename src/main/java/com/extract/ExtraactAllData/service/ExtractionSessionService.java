@@ -0,0 +1,309 @@
+package com.extract.ExtraactAllData.service;
+
+import com.extract.ExtraactAllData.model.ExtractedData;
+import com.extract.ExtraactAllData.model.ExtractedDataTable;
+import com.extract.ExtraactAllData.model.LineEdit;
+import com.extract.ExtraactAllData.model.ParagraphResult;
+import com.extract.ExtraactAllData.model.RowChange;
+import com.extract.ExtraactAllData.model.SessionUpdate;
+import com.extract.ExtraactAllData.util.ParagraphSplitter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Documents uploaded once and then corrected by line edits. Whether a line starts, continues or ends a paragraph
+ * depends only on the line itself, so an edit can only move the boundaries of the paragraphs it touches and of
+ * the ones right before and after it. Only that region is split again, and only the paragraphs whose text
+ * actually changed are extracted again. Sessions are kept in memory, bounded in number and dropped when
+ * unused for the TTL.
+ */
+@Service
+public class ExtractionSessionService {
+
+    @Autowired
+    private DataExtractionService dataExtractionService;
+
+    @Autowired
+    private ExtractionMetrics metrics;
+
+    @Value("${extraction.sessions.ttl-minutes:30}")
+    private long ttlMinutes;
+
+    @Value("${extraction.sessions.maximum-size:64}")
+    private long maximumSize;
+
+    private Cache<String, Session> sessions;
+    private Counter paragraphsReused;
+
+    @PostConstruct
+    public void init() {
+        sessions = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofMinutes(ttlMinutes))
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(metrics.registry(), sessions, "extraction-sessions");
+        paragraphsReused = Counter.builder("extraction.sessions.paragraphs.reused")
+                .description("Paragraphs in the re-split region of an edit whose text did not change").register(metrics.registry());
+    }
+
+    // Extracts the whole text; the only change holds every row
+    public SessionUpdate create(String text) {
+        dataExtractionService.admit();
+        long start = System.nanoTime();
+        Session session = new Session(UUID.randomUUID().toString(), splitLines(text));
+        List<Paragraph> paragraphs = split(session.lines, 0);
+        for (Paragraph paragraph : paragraphs) paragraph.result = dataExtractionService.extractParagraph(paragraph.text);
+        session.paragraphs.addAll(paragraphs);
+        sessions.put(session.id, session);
+
+        ExtractedDataTable rows = new ExtractedDataTable();
+        paragraphs.forEach(paragraph -> rows.addParagraph(paragraph.result));
+        metrics.request("session", start, paragraphs.size(), ExtractionMetrics.utf8Length(text));
+        return session.update(List.of(new RowChange(1, 0, rows.size(), paragraphs.size(), rows)));
+    }
+
+    /**
+     * Applies the edits in order, each against the document left by the one before. The batch is all or nothing:
+     * an edit outside the document rejects it with IllegalArgumentException before anything is applied, and
+     * when an extraction fails the edits before it are undone.
+     *
+     * @return null for unknown or expired sessions
+     */
+    public SessionUpdate edit(String sessionId, List<LineEdit> edits) {
+        Session session = sessions.getIfPresent(sessionId);
+        if (session == null) return null;
+        dataExtractionService.admit();
+        long start = System.nanoTime();
+        synchronized (session) {
+            validate(edits, session.lines.size());
+            session.bytesExtracted = 0;
+            List<RowChange> changes = new ArrayList<>();
+            long extracted = 0;
+            // A single edit extracts before it changes anything, only longer batches need to be undone
+            Snapshot before = edits.size() > 1 ? new Snapshot(session) : null;
+            try {
+                for (LineEdit edit : edits) {
+                    RowChange change = apply(session, edit);
+                    extracted += change.getParagraphsExtracted();
+                    changes.add(change);
+                }
+            } catch (RuntimeException e) {
+                if (before != null) before.restore(session);
+                throw e;
+            }
+            metrics.request("session", start, extracted, session.bytesExtracted);
+            return session.update(changes);
+        }
+    }
+
+    // All rows of the current document, null for unknown or expired sessions
+    public List<ExtractedData> rows(String sessionId) {
+        Session session = sessions.getIfPresent(sessionId);
+        if (session == null) return null;
+        synchronized (session) {
+            ExtractedDataTable rows = new ExtractedDataTable();
+            session.paragraphs.forEach(paragraph -> rows.addParagraph(paragraph.result));
+            return rows;
+        }
+    }
+
+    // The current document, lines joined with '\n'
+    public String text(String sessionId) {
+        Session session = sessions.getIfPresent(sessionId);
+        if (session == null) return null;
+        synchronized (session) {
+            return String.join("\n", session.lines);
+        }
+    }
+
+    public boolean close(String sessionId) {
+        return sessions.asMap().remove(sessionId) != null;
+    }
+
+    // Everything is extracted before the session changes, so a failing extraction leaves it as it was
+    private RowChange apply(Session session, LineEdit edit) {
+        List<String> lines = session.lines;
+        int from = edit.getStartLine() - 1;
+        int removed = edit.getRemoveLines();
+        List<String> inserted = new ArrayList<>();
+        if (edit.getLines() != null) {
+            for (String line : edit.getLines()) inserted.addAll(splitLines(line));
+        }
+
+        // Paragraphs that end on or after the line before the edit and start on or before the line after it
+        List<Paragraph> paragraphs = session.paragraphs;
+        int first = 0;
+        while (first < paragraphs.size() && paragraphs.get(first).lastLine < from - 1) first++;
+        int end = first;
+        while (end < paragraphs.size() && paragraphs.get(end).firstLine <= from + removed) end++;
+
+        int regionStart = first < end ? Math.min(from, paragraphs.get(first).firstLine) : from;
+        int regionEnd = first < end ? Math.max(from + removed, paragraphs.get(end - 1).lastLine + 1) : from + removed;
+        List<String> region = new ArrayList<>(lines.subList(regionStart, from));
+        region.addAll(inserted);
+        region.addAll(lines.subList(from + removed, regionEnd));
+        List<Paragraph> resplit = split(region, regionStart);
+
+        // Paragraphs at either end of the region whose text is unchanged keep their result and their rows
+        List<Paragraph> old = paragraphs.subList(first, end);
+        int same = 0;
+        while (same < old.size() && same < resplit.size() && old.get(same).text.equals(resplit.get(same).text)) same++;
+        int sameAtEnd = 0;
+        while (sameAtEnd < old.size() - same && sameAtEnd < resplit.size() - same
+                && old.get(old.size() - 1 - sameAtEnd).text.equals(resplit.get(resplit.size() - 1 - sameAtEnd).text)) sameAtEnd++;
+        for (int i = 0; i < same; i++) resplit.get(i).result = old.get(i).result;
+        for (int i = 0; i < sameAtEnd; i++) resplit.get(resplit.size() - 1 - i).result = old.get(old.size() - 1 - i).result;
+
+        int firstDataPosition = 1;
+        for (int i = 0; i < first + same; i++) firstDataPosition += paragraphs.get(i).result.rowCount();
+        int removedRows = 0;
+        for (int i = same; i < old.size() - sameAtEnd; i++) removedRows += old.get(i).result.rowCount();
+
+        ExtractedDataTable rows = new ExtractedDataTable(firstDataPosition);
+        List<Paragraph> changed = resplit.subList(same, resplit.size() - sameAtEnd);
+        long bytes = 0;
+        for (Paragraph paragraph : changed) {
+            paragraph.result = dataExtractionService.extractParagraph(paragraph.text);
+            bytes += ExtractionMetrics.utf8Length(paragraph.text);
+            rows.addParagraph(paragraph.result);
+        }
+
+        int lineDelta = inserted.size() - removed;
+        List<String> editedLines = lines.subList(from, from + removed);
+        editedLines.clear();
+        editedLines.addAll(inserted);
+        for (int i = end; i < paragraphs.size(); i++) paragraphs.get(i).shift(lineDelta);
+        old.clear();
+        old.addAll(resplit);
+        session.bytesExtracted += bytes;
+        paragraphsReused.increment(same + sameAtEnd);
+        return new RowChange(firstDataPosition, removedRows, rows.size() - removedRows, changed.size(), rows);
+    }
+
+    // Checks the whole batch first, so that a bad edit rejects it before anything is applied
+    private static void validate(List<LineEdit> edits, int lineCount) {
+        for (LineEdit edit : edits) {
+            int from = edit.getStartLine() - 1;
+            int removed = edit.getRemoveLines();
+            if (from < 0 || removed < 0 || from + removed > lineCount) {
+                throw new IllegalArgumentException("Lines " + edit.getStartLine() + " to " + (edit.getStartLine() + removed - 1)
+                        + " are outside the document (" + lineCount + " lines)");
+            }
+            int inserted = 0;
+            if (edit.getLines() != null) {
+                for (String line : edit.getLines()) inserted += splitLines(line).size();
+            }
+            lineCount += inserted - removed;
+        }
+    }
+
+    // Paragraphs of the lines with their line numbers, split exactly as splitIntoParagraphsByTrigger splits
+    private static List<Paragraph> split(List<String> lines, int firstLineNumber) {
+        List<Paragraph> paragraphs = new ArrayList<>();
+        int[] span = {-1, -1}; // first and last non-blank line of the open paragraph
+        ParagraphSplitter splitter = new ParagraphSplitter(text -> paragraphs.add(new Paragraph(span[0], span[1], text)));
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            int before = paragraphs.size();
+            splitter.line(line);
+            if (paragraphs.size() > before) span[0] = -1;
+            if (!line.trim().isEmpty()) {
+                if (span[0] < 0) span[0] = firstLineNumber + i;
+                span[1] = firstLineNumber + i;
+            }
+        }
+        splitter.finish();
+        return paragraphs;
+    }
+
+    // Lines end at '\n' only, as in LINE_SPLIT_PATTERN; a final line break does not start another line
+    private static List<String> splitLines(String text) {
+        List<String> lines = new ArrayList<>();
+        int start = 0;
+        for (int i = text.indexOf('\n'); i >= 0; i = text.indexOf('\n', start)) {
+            lines.add(text.substring(start, i));
+            start = i + 1;
+        }
+        if (start < text.length() || lines.isEmpty()) lines.add(text.substring(start));
+        return lines;
+    }
+
+    private static final class Session {
+        private final String id;
+        private final List<String> lines;
+        private final List<Paragraph> paragraphs = new ArrayList<>();
+        private long bytesExtracted; // by the edits of the current batch, for the request metrics
+
+        Session(String id, List<String> lines) {
+            this.id = id;
+            this.lines = lines;
+        }
+
+        SessionUpdate update(List<RowChange> changes) {
+            int rowCount = 0;
+            for (Paragraph paragraph : paragraphs) rowCount += paragraph.result.rowCount();
+            return new SessionUpdate(id, lines.size(), paragraphs.size(), rowCount, changes);
+        }
+    }
+
+    // The lines and paragraphs of a session, with the line numbers the paragraphs had then
+    private static final class Snapshot {
+        private final List<String> lines;
+        private final List<Paragraph> paragraphs;
+        private final int[] firstLines;
+        private final int[] lastLines;
+
+        Snapshot(Session session) {
+            lines = new ArrayList<>(session.lines);
+            paragraphs = new ArrayList<>(session.paragraphs);
+            firstLines = new int[paragraphs.size()];
+            lastLines = new int[paragraphs.size()];
+            for (int i = 0; i < paragraphs.size(); i++) {
+                firstLines[i] = paragraphs.get(i).firstLine;
+                lastLines[i] = paragraphs.get(i).lastLine;
+            }
+        }
+
+        void restore(Session session) {
+            session.lines.clear();
+            session.lines.addAll(lines);
+            session.paragraphs.clear();
+            session.paragraphs.addAll(paragraphs);
+            for (int i = 0; i < paragraphs.size(); i++) {
+                paragraphs.get(i).firstLine = firstLines[i];
+                paragraphs.get(i).lastLine = lastLines[i];
+            }
+        }
+    }
+
+    // A paragraph and the lines it was built from (0-based, inclusive, blank lines around it excluded)
+    private static final class Paragraph {
+        private int firstLine;
+        private int lastLine;
+        private final String text;
+        private ParagraphResult result;
+
+        Paragraph(int firstLine, int lastLine, String text) {
+            this.firstLine = firstLine;
+            this.lastLine = lastLine;
+            this.text = text;
+        }
+
+        void shift(int lines) {
+            firstLine += lines;
+            lastLine += lines;
+        }
+    }
+}
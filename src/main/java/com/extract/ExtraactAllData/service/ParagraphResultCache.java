@@ -0,0 +1,235 @@
+package com.extract.ExtraactAllData.service;
+
+import com.extract.ExtraactAllData.model.ParagraphResult;
+import com.extract.ExtraactAllData.util.PatternRegistry;
+import com.extract.ExtraactAllData.util.TextParsingUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Content-addressed cache of per-paragraph extraction results.
+ * The key is the SHA-256 of the paragraph text, prefixed with the parser version, which combines
+ * {@code extraction.cache.parser-version} with a fingerprint of every pattern in {@link PatternRegistry}
+ * and of the vocabulary and stop-word lists, so changed rules never return stale results. Entries are evicted by Caffeine's size-bounded W-TinyLFU policy
+ * and can optionally be appended to a local file that is reloaded on startup.
+ * Every caller gets its own copy of a cached result.
+ */
+@Component
+public class ParagraphResultCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ParagraphResultCache.class);
+    private static final int DISK_FLUSH_EVERY = 256;
+
+    @Autowired
+    private TextParsingUtil textParsingUtil;
+
+    @Autowired
+    private ExtractionMetrics metrics;
+
+    @Value("${extraction.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${extraction.cache.maximum-size:100000}")
+    private long maximumSize;
+
+    @Value("${extraction.cache.parser-version:1}")
+    private String parserVersion;
+
+    @Value("${extraction.cache.disk-path:}")
+    private String diskPath;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Cache<String, ParagraphResult> cache;
+    private String versionPrefix;
+    private BufferedWriter diskWriter;
+    private int pendingDiskWrites;
+    private int diskEntriesLoaded;
+
+    @PostConstruct
+    public void init() throws IOException {
+        versionPrefix = parserVersion + "-" + patternFingerprint() + ":";
+        cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(metrics.registry(), cache, "paragraph-results");
+        if (enabled && !diskPath.isBlank()) {
+            loadFromDisk();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        synchronized (this) {
+            if (diskWriter != null) {
+                diskWriter.close();
+                diskWriter = null;
+            }
+        }
+    }
+
+    public ParagraphResult get(String paragraph, Function<String, ParagraphResult> extractor) {
+        if (!enabled) return extractor.apply(paragraph);
+
+        String key = key(paragraph);
+        ParagraphResult[] loaded = new ParagraphResult[1];
+        ParagraphResult cached = cache.get(key, k -> {
+            loaded[0] = extractor.apply(paragraph);
+            // Depends on load at the time, so it is retried next time instead
+            boolean overBudget = loaded[0].getFields() != null && loaded[0].getFields().isOverBudget();
+            return overBudget ? null : loaded[0];
+        });
+        if (cached == null) return loaded[0];
+        // Outside the mapping function, so the disk write does not hold up other loads of the cache
+        if (cached == loaded[0]) appendToDisk(key, cached);
+        return cached.copy();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public Map<String, Object> statsSummary() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("enabled", enabled);
+        summary.put("parserVersion", versionPrefix.substring(0, versionPrefix.length() - 1));
+        summary.put("size", cache.estimatedSize());
+        summary.put("maximumSize", maximumSize);
+        summary.put("hits", stats.hitCount());
+        summary.put("misses", stats.missCount());
+        summary.put("hitRate", stats.hitRate());
+        summary.put("evictions", stats.evictionCount());
+        summary.put("diskEntriesLoaded", diskEntriesLoaded);
+        return summary;
+    }
+
+    // Drops the in-memory entries, the disk store is kept
+    void invalidateMemory() {
+        cache.invalidateAll();
+    }
+
+    // Reads entries of the current parser version back into memory and rewrites the file without stale versions,
+    // capped at maximumSize so that it does not grow without bound
+    synchronized void loadFromDisk() throws IOException {
+        Path file = Paths.get(diskPath);
+        if (diskWriter != null) {
+            diskWriter.close();
+            diskWriter = null;
+        }
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+
+        Map<String, String> current = new LinkedHashMap<>();
+        if (Files.exists(file)) {
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    int tab = line.indexOf('\t');
+                    if (tab > 0 && line.startsWith(versionPrefix)) {
+                        String key = line.substring(0, tab);
+                        current.remove(key); // A later line of the same key counts as the newer one
+                        current.put(key, line.substring(tab + 1));
+                    }
+                }
+            }
+        }
+
+        diskEntriesLoaded = 0;
+        // The newest maximumSize entries are kept, more would not fit in memory anyway
+        long skip = Math.max(0, current.size() - maximumSize);
+        Path compacted = file.resolveSibling(file.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(compacted, StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, String> entry : current.entrySet()) {
+                if (skip > 0) {
+                    skip--;
+                    continue;
+                }
+                try {
+                    cache.put(entry.getKey(), objectMapper.readValue(entry.getValue(), ParagraphResult.class));
+                    writer.write(entry.getKey());
+                    writer.write('\t');
+                    writer.write(entry.getValue());
+                    writer.newLine();
+                    diskEntriesLoaded++;
+                } catch (IOException e) {
+                    log.warn("Skipping unreadable cache entry {}: {}", entry.getKey(), e.getMessage());
+                }
+            }
+        }
+        Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING);
+        log.info("Loaded {} cached paragraph results from {}", diskEntriesLoaded, file);
+
+        diskWriter = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+    }
+
+    private void appendToDisk(String key, ParagraphResult result) {
+        if (diskWriter == null) return;
+        try {
+            String json = objectMapper.writeValueAsString(result);
+            synchronized (this) {
+                if (diskWriter == null) return;
+                diskWriter.write(key);
+                diskWriter.write('\t');
+                diskWriter.write(json);
+                diskWriter.newLine();
+                if (++pendingDiskWrites >= DISK_FLUSH_EVERY) {
+                    diskWriter.flush();
+                    pendingDiskWrites = 0;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not write paragraph result to the disk cache: {}", e.getMessage());
+        }
+    }
+
+    synchronized void flushDisk() throws IOException {
+        if (diskWriter != null) diskWriter.flush();
+    }
+
+    private String key(String paragraph) {
+        return versionPrefix + HexFormat.of().formatHex(sha256(paragraph));
+    }
+
+    private String patternFingerprint() {
+        StringBuilder source = new StringBuilder();
+        PatternRegistry.all().forEach((name, pattern) ->
+                source.append(name).append('=').append(pattern.pattern()).append('/').append(pattern.flags()).append('\n'));
+        source.append(textParsingUtil.getVocabulary().definition());
+        source.append(textParsingUtil.getStopWords().definition());
+        return HexFormat.of().formatHex(sha256(source.toString())).substring(0, 12);
+    }
+
+    static byte[] sha256(String text) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
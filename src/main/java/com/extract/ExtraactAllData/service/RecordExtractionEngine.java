@@ -0,0 +1,130 @@
+package com.extract.ExtraactAllData.service;
+
+import com.extract.ExtraactAllData.model.RecordFields;
+import com.extract.ExtraactAllData.util.DateScanner;
+import com.extract.ExtraactAllData.util.RecordBudget;
+import com.extract.ExtraactAllData.util.RecordScanner;
+import com.extract.ExtraactAllData.util.RecordScanner.Anchor;
+import com.extract.ExtraactAllData.util.TextParsingUtil;
+import com.extract.ExtraactAllData.util.VocabularyDictionary.Category;
+import io.micrometer.core.instrument.FunctionCounter;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.extract.ExtraactAllData.service.ExtractionMetrics.Extractor.*;
+
+/**
+ * Fills every paragraph-level field of a record from a single keyword walk.
+ * Extractors whose anchor keywords are absent are skipped, and intermediate results
+ * (names, ritual persons, contact numbers) are computed once and shared between fields.
+ * The values are the same as calling the individual {@link TextParsingUtil} methods.
+ * Each record runs under a {@link RecordBudget}; a record that exceeds it keeps the fields found so far
+ * and says so in flagsAndException. Every extractor call is timed through {@link ExtractionMetrics}.
+ */
+@Component
+public class RecordExtractionEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(RecordExtractionEngine.class);
+
+    @Autowired
+    private TextParsingUtil textParsingUtil;
+
+    @Autowired
+    private ExtractionMetrics metrics;
+
+    // Wall-clock budget per record; a record that backtracks past it is flagged instead of finished, 0 = no limit
+    @Value("${extraction.record-budget-ms:2000}")
+    private long recordBudgetMs;
+
+    private final LongAdder recordsOverBudget = new LongAdder();
+
+    @PostConstruct
+    public void registerMetrics() {
+        FunctionCounter.builder("extraction.records.over.budget", recordsOverBudget, LongAdder::sum)
+                .description("Records cut off by the per-record time budget")
+                .register(metrics.registry());
+    }
+
+    public RecordFields extract(String record) {
+        RecordFields fields = new RecordFields();
+        try (RecordBudget ignored = RecordBudget.open(recordBudgetMs)) {
+            extractInto(record, fields);
+        } catch (RecordBudget.ExceededException e) {
+            // Keep what was extracted so far and flag the record instead of holding the thread
+            recordsOverBudget.increment();
+            log.warn("{} ({} chars), returning a partial result", e.getMessage(), record.length());
+            if (fields.getNames() == null) fields.setNames(new ArrayList<>());
+            fields.setFlagsAndException(e.getMessage());
+            fields.setOverBudget(true);
+        }
+        return fields;
+    }
+
+    public long recordsOverBudget() {
+        return recordsOverBudget.sum();
+    }
+
+    public long getRecordBudgetMs() {
+        return recordBudgetMs;
+    }
+
+    private void extractInto(String record, RecordFields fields) {
+        EnumSet<Anchor> anchors = metrics.time(ANCHORS, RecordScanner::scan, record);
+        TextParsingUtil util = textParsingUtil;
+
+        if (anchors.contains(Anchor.IMAGE_NO)) fields.setImageNo(metrics.time(IMAGE_NO, util::extractImageNo, record));
+        if (anchors.contains(Anchor.PANDA)) fields.setPandaName(metrics.time(PANDA_NAME, util::extractPandaName, record));
+        if (anchors.contains(Anchor.BAHI)) fields.setBahiName(metrics.time(BAHI_NAME, util::extractBahiName, record));
+        if (anchors.contains(Anchor.FOLIO)) fields.setFolioNo(metrics.time(FOLIO_NO, util::extractFolioNo, record));
+        if (anchors.contains(Anchor.JILA)) fields.setDistrict(metrics.time(DISTRICT, util::extractJila, record));
+        if (anchors.contains(Anchor.TAHSIL)) fields.setTehsil(metrics.time(TEHSIL, util::extractTahsil, record));
+        if (anchors.contains(Anchor.STATION)) fields.setStation(metrics.time(STATION, util::extractStation, record));
+        if (anchors.contains(Anchor.POST_OFFICE)) fields.setPostOffice(metrics.time(POST_OFFICE, util::extractPostOffice, record));
+        if (anchors.contains(Anchor.CITY_VILLAGE)) fields.setCityVillage(metrics.time(CITY_VILLAGE, util::extractCityVillage, record));
+        if (anchors.contains(Anchor.FROM_PLACE)) fields.setFromWhichPlace(metrics.time(FROM_WHICH_PLACE, util::extractFromWhichPlace, record));
+
+        // Caste, subcaste and ritual name come from one dictionary scan
+        Map<Category, String> vocabulary = metrics.time(VOCABULARY, util::extractVocabulary, record);
+        fields.setCaste(vocabulary.get(Category.CASTE));
+        fields.setSubcaste(vocabulary.get(Category.SUBCASTE));
+        fields.setRitualName(vocabulary.get(Category.RITUAL));
+
+        // Whose ritual 1 and 2 are the first two entries of the same list
+        if (anchors.contains(Anchor.WHOSE_RITUAL)) {
+            List<String> ritualPersons = metrics.time(RITUAL_PERSONS, util::extractRitualPersons, record);
+            fields.setWhoseRitual1(ritualPersons.size() > 0 ? ritualPersons.get(0) : null);
+            fields.setWhoseRitual2(ritualPersons.size() > 1 ? ritualPersons.get(1) : null);
+        }
+
+        if (anchors.contains(Anchor.CONTACT)) {
+            List<String> contacts = metrics.time(CONTACT_NUMBERS, util::extractContactNumbers, record);
+            fields.setContactNo1(contacts.size() > 0 ? contacts.get(0) : null);
+            fields.setContactNo2(contacts.size() > 1 ? contacts.get(1) : null);
+        }
+
+        if (anchors.contains(Anchor.DIGIT)) {
+            // One pass gives both dates; additionalInforma keeps the last date only if it parses
+            DateScanner.Dates dates = metrics.time(DATES, util::extractRecordDates, record);
+            fields.setDateOfRitual(dates.getRitualDate());
+            fields.setAdditionalInforma(dates.getAdditionalInforma());
+        }
+
+        // Names feed both the individuals and the flags, so they are extracted once
+        String prarthiName = anchors.contains(Anchor.PRARTHI) ? metrics.time(PRARTHI_NAME, util::extractPraMainPersonName, record) : null;
+        List<String> names = metrics.time(ALL_NAMES, text -> util.extractAllNames(text, prarthiName), record);
+        fields.setPrarthiName(prarthiName);
+        fields.setNames(names);
+        fields.setFlagsAndException(metrics.time(UNKNOWN_TERMS, text -> util.extractUnknownTerms(text, names), record));
+        fields.setGender(metrics.time(GENDER, util::extractGender, record));
+    }
+}
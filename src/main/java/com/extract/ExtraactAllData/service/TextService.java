@@ -3,10 +3,18 @@ package com.extract.ExtraactAllData.service;
 import com.extract.ExtraactAllData.util.TextFormatter;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+
 @Service
 public class TextService {
 
     public String formatInput(String input) {
         return TextFormatter.format(input);
     }
-}
\ No newline at end of file
+
+    public void formatInput(Reader input, Writer output) throws IOException {
+        TextFormatter.format(input, output);
+    }
+}
@@ -0,0 +1,298 @@
+package com.extract.ExtraactAllData.util;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Hand-written replacement for the date regexes. Digits are read straight into int day, month and year,
+ * ASCII and Devanagari alike, so a record is scanned once without matchers or digit-conversion strings.
+ * Two kinds of date are recognised, with the same results the patterns used to give:
+ * <ul>
+ *     <li>numeric dates, {@code \d{1,2}[-./]\d{1,2}[-./]\d{2,4}} with all digits ASCII or all Devanagari,
+ *     found left to right without overlap; the last one becomes additionalInforma if it is a valid date;</li>
+ *     <li>ritual dates, {@code [०-९\d]{1,2}[./\-\s][०-९\d]{1,2}[./\-\s][०-९\d]{2,4}} with mixed digits;
+ *     the first one that is a real date is dateOfRitual. A ता/ता०/ता./त. prefix never changes which digits
+ *     form the date, so it needs no handling of its own.</li>
+ * </ul>
+ */
+public final class DateScanner {
+
+    private static final DateTimeFormatter RITUAL_DATE_FORMAT = DateTimeFormatter.ofPattern("d MMMM yyyy", new Locale("hi", "IN"));
+
+    private DateScanner() {
+    }
+
+    /** The dates of one record, see {@link #scan}. */
+    public static final class Dates {
+        private final String lastNumericDate;
+        private final boolean lastNumericDateValid;
+        private final boolean lastNumericDateInvalid;
+        private final String ritualDate;
+        private final int invalidRitualDates;
+
+        Dates(String lastNumericDate, boolean lastNumericDateValid, boolean lastNumericDateInvalid,
+              String ritualDate, int invalidRitualDates) {
+            this.lastNumericDate = lastNumericDate;
+            this.lastNumericDateValid = lastNumericDateValid;
+            this.lastNumericDateInvalid = lastNumericDateInvalid;
+            this.ritualDate = ritualDate;
+            this.invalidRitualDates = invalidRitualDates;
+        }
+
+        // The last numeric date with ASCII digits, null if there is none
+        public String getLastNumericDate() {
+            return lastNumericDate;
+        }
+
+        // The last numeric date if parseNumericDate accepts it, as used for additionalInforma
+        public String getAdditionalInforma() {
+            return lastNumericDateValid ? lastNumericDate : null;
+        }
+
+        // The last numeric date has the d-M-yyyy or d-M-yy shape but a day, month or year out of range
+        public boolean isLastNumericDateInvalid() {
+            return lastNumericDateInvalid;
+        }
+
+        // Formatted as "d MMMM yyyy" in Hindi
+        public String getRitualDate() {
+            return ritualDate;
+        }
+
+        // Ritual dates before the one returned that had a day past the end of their month
+        public int getInvalidRitualDates() {
+            return invalidRitualDates;
+        }
+    }
+
+    // One pass for both kinds of date
+    public static Dates scan(CharSequence text) {
+        int length = text.length();
+        int[] parts = new int[4]; // day, month, year, year digits
+        int numericFrom = 0;
+        int lastStart = -1;
+        int lastEnd = -1;
+        int ritualFrom = 0;
+        String ritualDate = null;
+        int invalidRitualDates = 0;
+
+        for (int i = 0; i < length; i++) {
+            if (digitValue(text.charAt(i)) < 0) continue;
+
+            if (i >= numericFrom) {
+                int end = numericDateEnd(text, i);
+                if (end >= 0) {
+                    lastStart = i;
+                    lastEnd = end;
+                    numericFrom = end;
+                }
+            }
+
+            if (ritualDate == null && i >= ritualFrom) {
+                int end = ritualDateEnd(text, i, parts);
+                if (end >= 0) {
+                    ritualFrom = end; // Like Matcher.find, the next try starts after this one
+                    int day = parts[0];
+                    int month = parts[1];
+                    int year = parts[3] == 2 ? (parts[2] < 50 ? 2000 : 1900) + parts[2] : parts[2];
+                    if (day >= 1 && day <= 31 && month >= 1 && month <= 12) {
+                        if (day <= Month.of(month).length(Year.isLeap(year))) {
+                            ritualDate = LocalDate.of(year, month, day).format(RITUAL_DATE_FORMAT);
+                        } else {
+                            invalidRitualDates++;
+                        }
+                    }
+                }
+            }
+        }
+
+        if (lastStart < 0) return new Dates(null, false, false, ritualDate, invalidRitualDates);
+        String lastDate = toAsciiDigits(text, lastStart, lastEnd);
+        int shape = numericDateShape(lastDate);
+        return new Dates(lastDate, shape == VALID, shape == INVALID, ritualDate, invalidRitualDates);
+    }
+
+    // Every numeric date in order, with ASCII digits
+    public static List<String> numericDates(CharSequence text) {
+        List<String> dates = new ArrayList<>();
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            int end = numericDateEnd(text, i);
+            if (end >= 0) {
+                dates.add(toAsciiDigits(text, i, end));
+                i = end - 1;
+            }
+        }
+        return dates;
+    }
+
+    public static boolean containsNumericDate(CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (numericDateEnd(text, i) >= 0) return true;
+        }
+        return false;
+    }
+
+    // Same as DATE_PATTERN.matcher(text).replaceAll(" ").trim()
+    public static String replaceNumericDates(String text) {
+        StringBuilder result = null;
+        int copiedUpTo = 0;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            int end = numericDateEnd(text, i);
+            if (end >= 0) {
+                if (result == null) result = new StringBuilder(length);
+                result.append(text, copiedUpTo, i).append(' ');
+                copiedUpTo = end;
+                i = end - 1;
+            }
+        }
+        if (result == null) return text.trim();
+        return result.append(text, copiedUpTo, length).toString().trim();
+    }
+
+    /**
+     * Parses a "d-M-yyyy" or "d-M-yy" date whose separators may also be '.' or '/', ignoring every char that
+     * is not an ASCII digit or separator. Two-digit years up to the current one are 20xx, later ones 19xx.
+     * A day past the end of its month becomes the last day of the month.
+     *
+     * @return null if the text does not have that shape
+     * @throws DateTimeException if it does but the day, month or year is out of range
+     */
+    public static LocalDate parseNumericDate(CharSequence text) {
+        int[] parts = new int[4];
+        if (!readNumericDate(text, parts)) return null;
+        int day = parts[0];
+        int month = parts[1];
+        int year = parts[2];
+        if (parts[3] == 2) {
+            year += year <= LocalDate.now().getYear() % 100 ? 2000 : 1900;
+        } else if (year == 0) {
+            throw new DateTimeException("Invalid year 0 in " + text);
+        }
+        if (day < 1 || day > 31 || month < 1 || month > 12) {
+            throw new DateTimeException("Invalid day or month in " + text);
+        }
+        return LocalDate.of(year, month, Math.min(day, Month.of(month).length(Year.isLeap(year))));
+    }
+
+    private static final int NO_DATE = 0;
+    private static final int VALID = 1;
+    private static final int INVALID = 2;
+
+    // Whether parseNumericDate would return a date, null or throw, without building the date
+    private static int numericDateShape(CharSequence text) {
+        int[] parts = new int[4];
+        if (!readNumericDate(text, parts)) return NO_DATE;
+        if (parts[3] == 4 && parts[2] == 0) return INVALID;
+        return parts[0] >= 1 && parts[0] <= 31 && parts[1] >= 1 && parts[1] <= 12 ? VALID : INVALID;
+    }
+
+    // Fills day, month, year and year digits; false unless the digits and separators form d{1,2} d{1,2} d{4}|d{2}
+    private static boolean readNumericDate(CharSequence text, int[] parts) {
+        int part = 0;
+        int digits = 0;
+        int value = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (++digits > 4) return false;
+                value = value * 10 + (c - '0');
+            } else if (c == '-' || c == '.' || c == '/') {
+                if (part == 2 || digits == 0 || digits > 2) return false;
+                parts[part++] = value;
+                digits = 0;
+                value = 0;
+            }
+        }
+        if (part != 2 || (digits != 2 && digits != 4)) return false;
+        parts[2] = value;
+        parts[3] = digits;
+        return true;
+    }
+
+    // End of the numeric date starting at start, or -1
+    private static int numericDateEnd(CharSequence text, int start) {
+        char first = text.charAt(start);
+        boolean devanagari = first >= '०' && first <= '९';
+        if (!devanagari && (first < '0' || first > '9')) return -1;
+
+        int i = start;
+        for (int part = 0; part < 2; part++) {
+            int run = digitRun(text, i, devanagari, 3);
+            if (run < 1 || run > 2) return -1; // {1,2} cannot end inside a longer run, the next char must be a separator
+            i += run;
+            if (i >= text.length() || !isNumericSeparator(text.charAt(i))) return -1;
+            i++;
+        }
+        int run = digitRun(text, i, devanagari, 4);
+        return run >= 2 ? i + run : -1;
+    }
+
+    // End of the ritual date starting at start, or -1; fills day, month, year and year digits
+    private static int ritualDateEnd(CharSequence text, int start, int[] parts) {
+        int i = start;
+        for (int part = 0; part < 2; part++) {
+            int value = 0;
+            int run = 0;
+            for (int d; run < 3 && i + run < text.length() && (d = digitValue(text.charAt(i + run))) >= 0; run++) {
+                value = value * 10 + d;
+            }
+            if (run < 1 || run > 2) return -1;
+            i += run;
+            if (i >= text.length() || !isRitualSeparator(text.charAt(i))) return -1;
+            parts[part] = value;
+            i++;
+        }
+        int value = 0;
+        int run = 0;
+        for (int d; run < 4 && i + run < text.length() && (d = digitValue(text.charAt(i + run))) >= 0; run++) {
+            value = value * 10 + d;
+        }
+        if (run < 2) return -1;
+        parts[2] = value;
+        parts[3] = run;
+        return i + run;
+    }
+
+    private static int digitRun(CharSequence text, int start, boolean devanagari, int max) {
+        char zero = devanagari ? '०' : '0';
+        int run = 0;
+        while (run < max && start + run < text.length()) {
+            char c = text.charAt(start + run);
+            if (c < zero || c > zero + 9) break;
+            run++;
+        }
+        return run;
+    }
+
+    private static int digitValue(char c) {
+        if (c >= '0' && c <= '9') return c - '0';
+        if (c >= '०' && c <= '९') return c - '०';
+        return -1;
+    }
+
+    private static boolean isNumericSeparator(char c) {
+        return c == '-' || c == '.' || c == '/';
+    }
+
+    // [./\-\s]
+    private static boolean isRitualSeparator(char c) {
+        return c == '.' || c == '/' || c == '-' || c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static String toAsciiDigits(CharSequence text, int start, int end) {
+        char[] chars = new char[end - start];
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            chars[i - start] = c >= '०' && c <= '९' ? (char) ('0' + (c - '०')) : c;
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,164 @@
+package com.extract.ExtraactAllData.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aho-Corasick automaton over a set of keywords, reporting every occurrence in one left-to-right pass.
+ * A space inside a keyword stands for {@code \s*}: the automaton runs over the text with regex whitespace
+ * skipped, and each hit is checked to have whitespace only where its keyword had a space.
+ * Instances are immutable and safe to share between threads.
+ */
+public final class KeywordAutomaton {
+
+    public interface HitListener {
+        void onHit(int keyword, int start, int end);
+    }
+
+    private final List<Map<Character, Integer>> children;
+    private final int[] fail;
+    private final int[][] outputs;
+    private final int[] keywordLength;       // length without spaces
+    private final boolean[][] gapAfter;      // gapAfter[k][i]: whitespace allowed after char i of keyword k
+    private final int maxKeywordLength;
+
+    private KeywordAutomaton(Builder builder) {
+        children = builder.children;
+        keywordLength = builder.lengths.stream().mapToInt(Integer::intValue).toArray();
+        gapAfter = builder.gaps.toArray(new boolean[0][]);
+        maxKeywordLength = Math.max(1, builder.maxLength);
+
+        int nodes = children.size();
+        fail = new int[nodes];
+        List<List<Integer>> nodeOutputs = builder.nodeOutputs;
+
+        // Breadth-first: fail links point to the longest proper suffix that is also a trie path
+        ArrayDeque<Integer> queue = new ArrayDeque<>(children.get(0).values());
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (Map.Entry<Character, Integer> edge : children.get(node).entrySet()) {
+                int child = edge.getValue();
+                int state = fail[node];
+                while (state != 0 && !children.get(state).containsKey(edge.getKey())) state = fail[state];
+                Integer target = children.get(state).get(edge.getKey());
+                fail[child] = (target != null && target != child) ? target : 0;
+                nodeOutputs.get(child).addAll(nodeOutputs.get(fail[child]));
+                queue.add(child);
+            }
+        }
+
+        outputs = new int[nodes][];
+        for (int i = 0; i < nodes; i++) {
+            outputs[i] = nodeOutputs.get(i).stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int size() {
+        return keywordLength.length;
+    }
+
+    // Reports every hit as [start, end) in the original text, in order of end position
+    public void scan(CharSequence text, HitListener listener) {
+        int[] positions = new int[maxKeywordLength]; // original index of the last non-whitespace chars, as a ring
+        long seen = 0;
+        int state = 0;
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (isRegexWhitespace(c)) continue;
+            positions[(int) (seen % maxKeywordLength)] = i;
+            seen++;
+
+            while (state != 0 && !children.get(state).containsKey(c)) state = fail[state];
+            Integer next = children.get(state).get(c);
+            state = next != null ? next : 0;
+
+            for (int keyword : outputs[state]) {
+                long first = seen - keywordLength[keyword];
+                if (whitespaceOnlyAtGaps(keyword, positions, first)) {
+                    listener.onHit(keyword, positions[(int) (first % maxKeywordLength)], i + 1);
+                }
+            }
+        }
+    }
+
+    private boolean whitespaceOnlyAtGaps(int keyword, int[] positions, long first) {
+        boolean[] gaps = gapAfter[keyword];
+        int previous = positions[(int) (first % maxKeywordLength)];
+        for (int k = 1; k < keywordLength[keyword]; k++) {
+            int current = positions[(int) ((first + k) % maxKeywordLength)];
+            if (current != previous + 1 && !gaps[k - 1]) return false;
+            previous = current;
+        }
+        return true;
+    }
+
+    // Regex \s without UNICODE_CHARACTER_CLASS
+    static boolean isRegexWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    public static final class Builder {
+        private final List<Map<Character, Integer>> children = new ArrayList<>();
+        private final List<List<Integer>> nodeOutputs = new ArrayList<>();
+        private final List<Integer> lengths = new ArrayList<>();
+        private final List<boolean[]> gaps = new ArrayList<>();
+        private int maxLength;
+
+        private Builder() {
+            newNode();
+        }
+
+        // Adds a keyword and returns its id, ids are assigned in insertion order
+        public int add(String keyword) {
+            String trimmed = keyword.trim();
+            StringBuilder chars = new StringBuilder();
+            boolean[] gap = new boolean[trimmed.length()];
+            for (int i = 0; i < trimmed.length(); i++) {
+                char c = trimmed.charAt(i);
+                if (isRegexWhitespace(c)) {
+                    gap[chars.length() - 1] = true;
+                } else {
+                    chars.append(c);
+                }
+            }
+            if (chars.length() == 0) throw new IllegalArgumentException("Empty keyword");
+
+            int node = 0;
+            for (int i = 0; i < chars.length(); i++) {
+                char c = chars.charAt(i);
+                Integer next = children.get(node).get(c);
+                if (next == null) {
+                    next = newNode();
+                    children.get(node).put(c, next);
+                }
+                node = next;
+            }
+
+            int id = lengths.size();
+            nodeOutputs.get(node).add(id);
+            lengths.add(chars.length());
+            gaps.add(Arrays.copyOf(gap, chars.length()));
+            maxLength = Math.max(maxLength, chars.length());
+            return id;
+        }
+
+        public KeywordAutomaton build() {
+            return new KeywordAutomaton(this);
+        }
+
+        private int newNode() {
+            children.add(new HashMap<>());
+            nodeOutputs.add(new ArrayList<>());
+            return children.size() - 1;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.extract.ExtraactAllData.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a UTF-8 file through memory-mapped windows, so a multi-GB file is decoded piece by piece
+ * without being copied onto the heap. A character split across two windows is decoded once the next window
+ * is mapped. Malformed bytes become U+FFFD, and a leading byte order mark is skipped.
+ */
+public final class MappedTextReader extends Reader {
+
+    public static final int DEFAULT_WINDOW_BYTES = 64 * 1024 * 1024;
+    private static final int MAX_UTF8_BYTES = 4;
+
+    private final FileChannel channel;
+    private final long size;
+    private final int windowBytes;
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final CharBuffer chars = CharBuffer.allocate(16 * 1024);
+
+    private MappedByteBuffer window;
+    private long windowStart;
+    private boolean flushed;
+    private boolean started;
+
+    public MappedTextReader(Path file) throws IOException {
+        this(file, DEFAULT_WINDOW_BYTES);
+    }
+
+    public MappedTextReader(Path file, int windowBytes) throws IOException {
+        if (windowBytes < MAX_UTF8_BYTES * 4) throw new IllegalArgumentException("Window too small: " + windowBytes);
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.windowBytes = windowBytes;
+        chars.flip(); // Empty until the first read
+    }
+
+    public long size() {
+        return size;
+    }
+
+    // Bytes decoded so far
+    public long position() {
+        return window == null ? 0 : windowStart + window.position();
+    }
+
+    @Override
+    public int read(char[] buffer, int offset, int length) throws IOException {
+        if (length == 0) return 0;
+        if (!chars.hasRemaining() && !fill()) return -1;
+
+        int count = Math.min(length, chars.remaining());
+        chars.get(buffer, offset, count);
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close(); // The mapping itself is released once the reader is unreachable
+    }
+
+    // Decodes the next chars into the buffer, false at the end of the file
+    private boolean fill() throws IOException {
+        chars.clear();
+        while (chars.position() == 0 && !flushed) {
+            if (window == null || (window.remaining() < MAX_UTF8_BYTES && windowEnd() < size)) {
+                map(position());
+            }
+            boolean lastWindow = windowEnd() == size;
+            CoderResult result = decoder.decode(window, chars, lastWindow);
+            if (result.isError()) result.throwException();
+            if (lastWindow && !window.hasRemaining()) {
+                decoder.flush(chars);
+                flushed = true;
+            }
+        }
+        chars.flip();
+
+        if (!started && chars.hasRemaining()) {
+            started = true;
+            if (chars.get(chars.position()) == '\uFEFF') chars.get();
+            if (!chars.hasRemaining()) return fill();
+        }
+        return chars.hasRemaining();
+    }
+
+    private void map(long start) throws IOException {
+        long length = Math.min(windowBytes, size - start);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+        windowStart = start;
+    }
+
+    private long windowEnd() {
+        return windowStart + window.capacity();
+    }
+}
@@ -0,0 +1,123 @@
+package com.extract.ExtraactAllData.util;
+
+import java.util.regex.Pattern;
+
+/**
+ * Answers {@code PARAGRAPH_END_PATTERN.matcher(paragraph).matches()} for a paragraph that only ever grows
+ * at the end, without rescanning it. The pattern is {@code .*(alternatives)$}, i.e. "some suffix is one of the
+ * alternatives", and every alternative can be decided from a bounded trailing window plus a few positions
+ * kept up to date while characters are appended:
+ * <ul>
+ *     <li>the fixed-length alternatives fit in the last ten chars;</li>
+ *     <li>{@code वासी[^\s]*} needs "वासी" after the last whitespace;</li>
+ *     <li>the two "ता ... date" alternatives only allow date chars after "ता", so "ता" must sit right before
+ *     the trailing run of such chars, and the run may not contain '/' or '-' before the closing date.</li>
+ * </ul>
+ * A paragraph containing a line terminator that {@code .} does not cross falls back to the full regex.
+ */
+final class ParagraphEndTracker {
+
+    private static final int SHORT_WINDOW = 10;
+    private static final int ID_WINDOW = 11;
+    private static final int MIN_DATE_LENGTH = 5;
+    private static final int MAX_DATE_LENGTH = 10;
+
+    private final StringBuilder text = new StringBuilder();
+    private int dateRunStart;       // start of the trailing run of [.०-९ /-]
+    private int mixedDateRunStart;  // start of the trailing run of [.०-९0-9 /-]
+    private int lastWhitespace = -1;
+    private final int[] lastSeparators = {-1, -1, -1}; // last three positions of '/' or '-', newest first
+    private boolean hasLineTerminator;
+
+    void reset() {
+        text.setLength(0);
+        dateRunStart = 0;
+        mixedDateRunStart = 0;
+        lastWhitespace = -1;
+        lastSeparators[0] = lastSeparators[1] = lastSeparators[2] = -1;
+        hasLineTerminator = false;
+    }
+
+    void append(CharSequence chars) {
+        for (int i = 0; i < chars.length(); i++) {
+            append(chars.charAt(i));
+        }
+    }
+
+    void append(char c) {
+        int index = text.length();
+        text.append(c);
+
+        boolean dateChar = c == '.' || c == ' ' || c == '/' || c == '-' || (c >= '०' && c <= '९');
+        if (!dateChar) dateRunStart = index + 1;
+        if (!dateChar && !(c >= '0' && c <= '9')) mixedDateRunStart = index + 1;
+
+        if (c == '/' || c == '-') {
+            lastSeparators[2] = lastSeparators[1];
+            lastSeparators[1] = lastSeparators[0];
+            lastSeparators[0] = index;
+        }
+        if (c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r') lastWhitespace = index;
+        if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') hasLineTerminator = true;
+    }
+
+    boolean endsParagraph() {
+        if (hasLineTerminator) {
+            return PatternRegistry.PARAGRAPH_END_PATTERN.matcher(text).matches();
+        }
+        int end = text.length();
+
+        if (PatternRegistry.PARAGRAPH_END_SHORT_PATTERN.matcher(text).region(Math.max(0, end - SHORT_WINDOW), end).matches()) {
+            return true;
+        }
+
+        // वासी[^\s]*
+        if (text.indexOf("वासी", lastWhitespace + 1) >= 0) {
+            return true;
+        }
+
+        // ता[\.०-९ ]*<date>
+        if (followsTa(dateRunStart) && endsWithDate(PatternRegistry.PARAGRAPH_END_DATE_PATTERN, dateRunStart)) {
+            return true;
+        }
+
+        // [०-९]{4,5}[-–][०-९]{4,5}ता[\.०-९0-9 ]*<date>
+        if (followsTa(mixedDateRunStart) && endsWithDate(PatternRegistry.PARAGRAPH_END_MIXED_DATE_PATTERN, mixedDateRunStart)) {
+            int taStart = mixedDateRunStart - 2;
+            return PatternRegistry.PARAGRAPH_END_ID_PATTERN.matcher(text).region(Math.max(0, taStart - ID_WINDOW), taStart).matches();
+        }
+        return false;
+    }
+
+    private boolean followsTa(int position) {
+        return position >= 2 && text.charAt(position - 2) == 'त' && text.charAt(position - 1) == 'ा';
+    }
+
+    // The run from runStart to the end is filler chars followed by a date; the filler may not contain '/' or '-'
+    private boolean endsWithDate(Pattern datePattern, int runStart) {
+        int end = text.length();
+        for (int length = MIN_DATE_LENGTH; length <= MAX_DATE_LENGTH && end - length >= runStart; length++) {
+            int dateStart = end - length;
+            if (datePattern.matcher(text).region(dateStart, end).matches() && lastSeparatorBefore(dateStart) < runStart) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // A matched date holds at most two separators, so the newest one before it is among the last three
+    private int lastSeparatorBefore(int position) {
+        for (int separator : lastSeparators) {
+            if (separator < position) return separator;
+        }
+        return lastSeparators[2];
+    }
+
+    String text() {
+        return text.toString();
+    }
+
+    int length() {
+        return text.length();
+    }
+}
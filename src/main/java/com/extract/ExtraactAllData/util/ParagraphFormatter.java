@@ -0,0 +1,50 @@
+package com.extract.ExtraactAllData.util;
+
+import java.util.function.Consumer;
+
+/**
+ * Token-at-a-time form of {@link TextFormatter#format(String)}. Tokens are the space separated words of the
+ * normalised input; each finished paragraph is handed to the sink with its closing "।".
+ * Paragraph ends are tracked incrementally, so the cost per token does not grow with the paragraph.
+ */
+public final class ParagraphFormatter {
+
+    private final Consumer<String> sink;
+    private final ParagraphEndTracker paragraph = new ParagraphEndTracker();
+    private boolean paragraphEnded = true;
+
+    public ParagraphFormatter(Consumer<String> sink) {
+        this.sink = sink;
+    }
+
+    public void accept(String token) {
+        String word = token.trim();
+        if (word.isEmpty()) return;
+
+        // If current token is a paragraph starter and previous paragraph ended
+        if (paragraphEnded && TextFormatter.isStartPrefix(word)) {
+            flush();
+            paragraphEnded = false;
+        }
+
+        if (paragraph.length() > 0) paragraph.append(' ');
+        paragraph.append(word);
+
+        // Once ended, a paragraph stays ended until the next starter, so there is nothing more to check
+        if (!paragraphEnded && paragraph.endsParagraph()) {
+            paragraphEnded = true;
+        }
+    }
+
+    // Hands over the last paragraph, call once after the final token
+    public void finish() {
+        flush();
+    }
+
+    private void flush() {
+        if (paragraph.length() > 0) {
+            sink.accept(TextFormatter.finalizeParagraph(paragraph.text()));
+            paragraph.reset();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.extract.ExtraactAllData.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.function.Consumer;
+
+/**
+ * Incremental form of {@link TextParsingUtil#splitIntoParagraphsByTrigger(String)}.
+ * Lines are fed one at a time and every finished paragraph is handed to the sink as soon as
+ * the next trigger line or blank line closes it, so only the current paragraph is held in memory.
+ */
+public final class ParagraphSplitter {
+
+    private final Consumer<String> sink;
+    private StringBuilder currentParagraph = new StringBuilder();
+
+    public ParagraphSplitter(Consumer<String> sink) {
+        this.sink = sink;
+    }
+
+    // Splits everything the reader delivers, lines end at '\n' only (same as LINE_SPLIT_PATTERN)
+    public static void split(Reader reader, Consumer<String> sink) throws IOException {
+        ParagraphSplitter splitter = new ParagraphSplitter(sink);
+        StringBuilder line = new StringBuilder();
+        char[] buffer = new char[8192];
+        int read;
+        while ((read = reader.read(buffer)) != -1) {
+            int lineStart = 0;
+            for (int i = 0; i < read; i++) {
+                if (buffer[i] == '\n') {
+                    line.append(buffer, lineStart, i - lineStart);
+                    splitter.line(line.toString());
+                    line.setLength(0);
+                    lineStart = i + 1;
+                }
+            }
+            line.append(buffer, lineStart, read - lineStart);
+        }
+        if (line.length() > 0) splitter.line(line.toString());
+        splitter.finish();
+    }
+
+    public void line(String line) {
+        String trimmedLine = line.trim();
+        if (trimmedLine.isEmpty()) {
+            // A blank line always closes the paragraph collected so far
+            flush();
+            return;
+        }
+
+        // A new record usually starts with "बा०", a date, or "प्रा." (Prarthi)
+        boolean isNewRecordTrigger = PatternRegistry.RECORD_TRIGGER_PATTERN.matcher(trimmedLine).find() ||
+                DateScanner.containsNumericDate(trimmedLine) ||
+                PatternRegistry.PRA_NAME_PATTERN.matcher(trimmedLine).find();
+
+        if (isNewRecordTrigger) {
+            flush();
+        }
+
+        currentParagraph.append(trimmedLine).append(" "); // Append line and a space for later cleaning
+    }
+
+    // Hands over the last paragraph, call once after the final line
+    public void finish() {
+        flush();
+    }
+
+    private void flush() {
+        if (currentParagraph.length() > 0) {
+            sink.accept(currentParagraph.toString().trim());
+            currentParagraph = new StringBuilder();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.extract.ExtraactAllData.util;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Every regular expression used by {@link TextParsingUtil} and {@link TextFormatter}, compiled once
+ * when the class is loaded. Compiled {@link Pattern}s are immutable and safe to share between threads;
+ * callers only create a new {@link java.util.regex.Matcher} per use.
+ */
+public final class PatternRegistry {
+
+    private static final Map<String, Pattern> PATTERNS = new LinkedHashMap<>();
+    private static long compileNanos;
+
+    // Dates are read by DateScanner, without patterns
+
+    // Location Patterns (more specific to capture the value after the keyword)
+    public static final Pattern JILA_PATTERN = compile("JILA_PATTERN", "(?:जिला|जिल्ला|Jila)\\s*([^,\\s।]+)");
+    public static final Pattern TAHSIL_PATTERN = compile("TAHSIL_PATTERN", "(?:तहसील|तालुका|Tahsil)\\s*([^,\\s।]+)");
+    public static final Pattern STATION_PATTERN = compile("STATION_PATTERN", "(?:थाना|स्टेशन|पुलिस\\s*स्टेशन|Station)\\s*([^,\\s।]+)");
+    public static final Pattern POST_OFFICE_PATTERN = compile("POST_OFFICE_PATTERN", "(?:डाकघर|पोस्ट\\s*ऑफिस|Post\\s*Office)\\s*([^,\\s।]+)");
+    public static final Pattern CITY_VILLAGE_PATTERN = compile("CITY_VILLAGE_PATTERN", "(?:गांव|गाँव|ग्राम|शहर|नगर|कस्बा|महानगर|City|Village)\\s*([^,\\s।]+)");
+    public static final Pattern FROM_WHICH_PLACE_PATTERN = compile("FROM_WHICH_PLACE_PATTERN", "(?:कहाँ\\s*से\\s*आये|From\\s*Where|से\\s*आये)[:：\\s]*([\\p{IsDevanagari}\\w\\s]{2,})");
+
+    // Name and Relation Patterns
+    // General person name pattern (captures Hindi/Devanagari words)
+    public static final Pattern PERSON_NAME_RAW_PATTERN = compile("PERSON_NAME_RAW_PATTERN", "((?:स्व[०o]?|श्री(?:मती)?|कुँवर|चौधरी|बाबू|पंडित|कुमार|श्रीमती|सुपुत्र|कैप्टन|डॉ)?\\s*[\\p{IsDevanagari}]{2,}(?:\\s+[\\p{IsDevanagari}]{2,}){0,3}(?:\\s*सिंह|कुमार|देवी|प्रसाद|लाल|शर्मा|वर्मा|गुप्ता|यादव|ठाकुर|राय|चौधरी|मिश्र|त्रिपाठी|अग्रवाल|कश्यप|पाठक|तिवारी|शुक्ल)?(?:\\s*चौ)?)");
+
+    // Primary/Prarthi (Applicant/Main Person) pattern - looking for 'प्रा.', 'प्रार्थी', etc.
+    public static final Pattern PRA_NAME_PATTERN = compile("PRA_NAME_PATTERN", "(?:प्रा[०0।]?|प्रार्थी|संबोधित|मुख्य\\s*व्यक्ति)\\s*([\\p{IsDevanagari}\\s]+(?:\\s*चौ)?)");
+
+    // Family relation patterns, trying to capture the name directly after the relation keyword
+    public static final Pattern FATHER_RELATION_PATTERN = compile("FATHER_RELATION_PATTERN", "(?:पिता(?:\\s*जी)?|पिताश्री|पापा|श्रीमान|श्रद्धेय|सुपुत्र|पुत्र)\\s+((?:स्व[०o]?|श्री)?\\s*[\\p{IsDevanagari}\\s]+(?:\\s*चौ)?)");
+    public static final Pattern MOTHER_RELATION_PATTERN = compile("MOTHER_RELATION_PATTERN", "(?:माता|माँ)\\s+((?:श्रीमती|स्व[०o]?|श्री)?\\s*[\\p{IsDevanagari}\\s]+(?:\\s*देवी)?)");
+    public static final Pattern BROTHER_RELATION_PATTERN = compile("BROTHER_RELATION_PATTERN", "(?:भाई|भ्राता)\\s+((?:स्व[०o]?|श्री)?\\s*[\\p{IsDevanagari}\\s]+(?:\\s*चौ)?)");
+    public static final Pattern SON_RELATION_PATTERN = compile("SON_RELATION_PATTERN", "(?:लड़का|पुत्र|बेटा)\\s+((?:स्व[०o]?|श्री)?\\s*[\\p{IsDevanagari}\\s]+(?:\\s*चौ)?)");
+    public static final Pattern GRANDFATHER_RELATION_PATTERN = compile("GRANDFATHER_RELATION_PATTERN", "(?:दादा|परदादा|बाबा|अज्या|पिता\\s*के\\s*पिता)\\s+((?:स्व[०o]?|श्री)?\\s*[\\p{IsDevanagari}\\s]+(?:\\s*चौ)?)");
+
+
+    // Caste, subcaste and ritual names are looked up in VocabularyDictionary
+
+    // Whose Ritual
+    // This pattern for whose ritual needs to be very robust, capturing names potentially prefixed with 'स्व०'
+    public static final Pattern WHOSE_RITUAL_PERSON_PATTERN = compile("WHOSE_RITUAL_PERSON_PATTERN", "(?:अस्ती\\s*लाय[ेें]?|अस्थि\\s*विसर्जन|पिंड\\s*दान|श्राद्ध|दाह\\s*संस्कार|अंत्येष्टि|हवन|पूजन|यज्ञ|कर्म)\\s*का\\s*((?:स्व[०o]?|श्री(?:मती)?|बाबू)?\\s*[\\p{IsDevanagari}\\s]+(?:\\s*चौ)?)");
+    // Fallback/Secondary pattern for ritual person if the above is too strict
+    public static final Pattern WHOSE_RITUAL_PERSON_FALLBACK_PATTERN = compile("WHOSE_RITUAL_PERSON_FALLBACK_PATTERN", "(?:स्व[०o]?|श्री(?:मती)?|बाबू)?\\s*[\\p{IsDevanagari}]{2,}(?:\\s+[\\p{IsDevanagari}]{2,}){0,3}(?:\\s*सिंह|चौ)?");
+
+
+    // Contact Numbers
+    public static final Pattern CONTACT_NO_PATTERN = compile("CONTACT_NO_PATTERN", "(?:मोबाइल|फोन|Contact|मो\\.|मोब)[:：\\s]*([6-9]\\d{9})");
+
+    // Header fields (image, panda, bahi, folio)
+    public static final Pattern IMAGE_NO_PATTERN = compile("IMAGE_NO_PATTERN", "(?:Image\\s*No\\.?|चित्र\\s*संख्या)[:：\\s]*(\\d+)");
+    public static final Pattern PANDA_NAME_PATTERN = compile("PANDA_NAME_PATTERN", "(?:पंडा\\s*का\\s*नाम|Panda\\s*Name|पंडा)[:：\\s]*([\\p{IsDevanagari}\\w\\s.]{2,})");
+    public static final Pattern BAHI_NAME_PATTERN = compile("BAHI_NAME_PATTERN", "(?:बही\\s*का\\s*नाम|Bahi\\s*Name)[:：\\s]*([\\p{IsDevanagari}\\w\\s.]{2,})");
+    public static final Pattern BAHI_NAME_LEADING_PATTERN = compile("BAHI_NAME_LEADING_PATTERN", "^(ब्राह्मण\\s*वाही|भूमिहार\\s*वाली\\s*खनक)");
+    public static final Pattern FOLIO_NO_PATTERN = compile("FOLIO_NO_PATTERN", "(?:फोलियो\\s*संख्या|Folio\\s*No)[:ः\\s]*(\\d+)");
+
+    // Label-only variants removed by extractUnknownTerms (no bare "पंडा", "：" instead of "ः" after Folio No)
+    public static final Pattern PANDA_NAME_LABEL_PATTERN = compile("PANDA_NAME_LABEL_PATTERN", "(?:पंडा\\s*का\\s*नाम|Panda\\s*Name)[:：\\s]*([\\p{IsDevanagari}\\w\\s.]{2,})");
+    public static final Pattern FOLIO_NO_LABEL_PATTERN = compile("FOLIO_NO_LABEL_PATTERN", "(?:फोलियो\\s*संख्या|Folio\\s*No)[:：\\s]*(\\d+)");
+
+    // Ritual person directly after the ritual keyword (without "का")
+    public static final Pattern WHOSE_RITUAL_PERSON_DIRECT_PATTERN = compile("WHOSE_RITUAL_PERSON_DIRECT_PATTERN", "(?:श्राद्ध|दाह\\s*संस्कार|अस्ती\\s*लाय[ेें]?)\\s*((?:स्व[०o]?|श्री(?:मती)?|बाबू)?\\s*[\\p{IsDevanagari}\\s]+(?:\\s*चौ)?)");
+
+    // Gender hints
+    public static final Pattern MALE_TITLE_PATTERN = compile("MALE_TITLE_PATTERN", "श्री|कुमार|सिंह|ठाकुर|बाबू");
+    public static final Pattern FEMALE_TITLE_PATTERN = compile("FEMALE_TITLE_PATTERN", "श्रीमती|देवी|कुमारी|बहिन|पत्नी|माँ");
+
+    // Name and text cleanup
+    public static final Pattern NAME_HONORIFIC_PATTERN = compile("NAME_HONORIFIC_PATTERN", "स्व[०o]?\\s*|श्री(?:मती)?\\s*|बाबू\\s*|पंडित\\s*|कुमार\\s*|कुँवर\\s*");
+    public static final Pattern WHITESPACE_RUN_PATTERN = compile("WHITESPACE_RUN_PATTERN", "\\s+");
+    public static final Pattern TRAILING_PUNCTUATION_PATTERN = compile("TRAILING_PUNCTUATION_PATTERN", "[\\.,;।]$");
+
+    // Record splitting
+    public static final Pattern LINE_SPLIT_PATTERN = compile("LINE_SPLIT_PATTERN", "(?<=\\n)");
+    public static final Pattern RECORD_TRIGGER_PATTERN = compile("RECORD_TRIGGER_PATTERN", "^(?:बा०|प्रा[०0।]?|ता\\.|दि\\.|दिनांक)", Pattern.CASE_INSENSITIVE);
+
+    // TextFormatter: input normalisation and paragraph end detection
+    public static final Pattern LINE_BREAKS_PATTERN = compile("LINE_BREAKS_PATTERN", "[\\r\\n]+");
+    public static final Pattern REPEATED_SPACES_PATTERN = compile("REPEATED_SPACES_PATTERN", " +");
+    public static final Pattern PARAGRAPH_END_PATTERN = compile("PARAGRAPH_END_PATTERN", ".*("
+            + "ता[\\.०-९ ]*[०-९]{1,2}[./\\-][०-९]{1,2}[./\\-][०-९]{2,4}"  // ता. ४.१.०८
+            + "|[०-९]{1,2}/[०-९]{1,2}/[०-९]{2,4}"                         // १०/6/02
+            + "|[०-९]{1,2}-[०-९]{1,2}-[०-९]{2,4}"                         // 11-10-2012
+            + "|[०-९]{10}"                                                // mobile numbers
+            + "|[०-९]{4,5}[-–][०-९]{4,5}"                                 // ID/Mobile-like
+            + "ता[\\.०-९0-9 ]*[०-९0-9]{1,2}[./\\-][०-९0-9]{1,2}[./\\-][०-९0-9]{2,4}"
+            + "|अस्ती लाये"
+            + "|अस्तीलाये"
+            + "|पूर्णपिता"
+            + "|आई बु\\."
+            + "|वासी[^\\s]*"
+            + "|के आये"
+            + ")$");
+
+    // Pieces of PARAGRAPH_END_PATTERN checked on the trailing window of a growing paragraph (ParagraphEndTracker)
+    // Alternatives no longer than ten chars, matched as a suffix of the last ten chars
+    public static final Pattern PARAGRAPH_END_SHORT_PATTERN = compile("PARAGRAPH_END_SHORT_PATTERN", ".*(?:"
+            + "[०-९]{1,2}/[०-९]{1,2}/[०-९]{2,4}"
+            + "|[०-९]{1,2}-[०-९]{1,2}-[०-९]{2,4}"
+            + "|[०-९]{10}"
+            + "|अस्ती लाये"
+            + "|अस्तीलाये"
+            + "|पूर्णपिता"
+            + "|आई बु\\."
+            + "|के आये"
+            + ")");
+    // Date that closes the "ता ..." alternative, and its variant with ASCII digits after an ID
+    public static final Pattern PARAGRAPH_END_DATE_PATTERN = compile("PARAGRAPH_END_DATE_PATTERN", "[०-९]{1,2}[./\\-][०-९]{1,2}[./\\-][०-९]{2,4}");
+    public static final Pattern PARAGRAPH_END_MIXED_DATE_PATTERN = compile("PARAGRAPH_END_MIXED_DATE_PATTERN", "[०-९0-9]{1,2}[./\\-][०-९0-9]{1,2}[./\\-][०-९0-9]{2,4}");
+    // ID that directly precedes "ता" in the ID-then-date alternative, matched as a suffix of the eleven chars before it
+    public static final Pattern PARAGRAPH_END_ID_PATTERN = compile("PARAGRAPH_END_ID_PATTERN", ".*[०-९]{4,5}[-–][०-९]{4,5}");
+
+    private static final Map<String, Pattern> REGISTRY = Collections.unmodifiableMap(PATTERNS);
+
+    private PatternRegistry() {
+    }
+
+    public static Map<String, Pattern> all() {
+        return REGISTRY;
+    }
+
+    public static int size() {
+        return REGISTRY.size();
+    }
+
+    public static long compileNanos() {
+        return compileNanos;
+    }
+
+    private static Pattern compile(String name, String regex) {
+        return compile(name, regex, 0);
+    }
+
+    private static Pattern compile(String name, String regex, int flags) {
+        long start = System.nanoTime();
+        Pattern pattern = Pattern.compile(regex, flags);
+        compileNanos += System.nanoTime() - start;
+        if (PATTERNS.putIfAbsent(name, pattern) != null) {
+            throw new IllegalStateException("Duplicate pattern name: " + name);
+        }
+        return pattern;
+    }
+}
@@ -0,0 +1,34 @@
+package com.extract.ExtraactAllData.util;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads the {@link PatternRegistry} at startup and reports how many patterns it holds and how long
+ * compiling them took, so a slow or exploding pattern set shows up in the startup log.
+ */
+@Component
+public class PatternRegistrySelfCheck {
+
+    private static final Logger log = LoggerFactory.getLogger(PatternRegistrySelfCheck.class);
+
+    @Value("${extraction.patterns.compile-warn-ms:250}")
+    private long compileWarnMillis;
+
+    @PostConstruct
+    public void check() {
+        int count = PatternRegistry.size();
+        long compileMillis = TimeUnit.NANOSECONDS.toMillis(PatternRegistry.compileNanos());
+
+        if (compileMillis > compileWarnMillis) {
+            log.warn("Pattern registry compiled {} patterns in {} ms (above the {} ms budget)", count, compileMillis, compileWarnMillis);
+        } else {
+            log.info("Pattern registry compiled {} patterns in {} ms", count, compileMillis);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.extract.ExtraactAllData.util;
+
+/**
+ * Per-thread time budget for extracting one record. While a budget is open, {@link #guard} wraps the record in
+ * a CharSequence that checks the deadline every few thousand reads, so a pattern that backtracks
+ * catastrophically on a malformed record is stopped with an {@link ExceededException} instead of holding
+ * the thread. Interrupting the thread stops it the same way. Without an open budget, guard returns the text as is.
+ */
+public final class RecordBudget implements AutoCloseable {
+
+    private static final int CHECK_EVERY = 4096; // reads between clock checks, a power of two
+    private static final ThreadLocal<RecordBudget> CURRENT = new ThreadLocal<>();
+
+    private final long deadline;
+    private final long budgetMillis;
+    private final RecordBudget previous;
+    private int reads;
+
+    private RecordBudget(long budgetMillis, RecordBudget previous) {
+        this.budgetMillis = budgetMillis;
+        this.deadline = System.nanoTime() + budgetMillis * 1_000_000L;
+        this.previous = previous;
+    }
+
+    // Opens a budget for the current thread until close(); budgetMillis <= 0 opens none
+    public static RecordBudget open(long budgetMillis) {
+        if (budgetMillis <= 0) return null;
+        RecordBudget budget = new RecordBudget(budgetMillis, CURRENT.get());
+        CURRENT.set(budget);
+        return budget;
+    }
+
+    public static CharSequence guard(CharSequence text) {
+        RecordBudget budget = CURRENT.get();
+        return budget == null ? text : new Guarded(text, budget);
+    }
+
+    @Override
+    public void close() {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    private void check() {
+        if ((++reads & (CHECK_EVERY - 1)) != 0) return;
+        if (Thread.currentThread().isInterrupted()) {
+            throw new ExceededException("Extraction interrupted");
+        }
+        if (System.nanoTime() - deadline > 0) {
+            throw new ExceededException("Extraction exceeded the " + budgetMillis + " ms record budget");
+        }
+    }
+
+    public static class ExceededException extends RuntimeException {
+        public ExceededException(String message) {
+            super(message);
+        }
+    }
+
+    // Matcher reads the input through charAt, and group() goes through subSequence(...).toString()
+    private static final class Guarded implements CharSequence {
+        private final CharSequence text;
+        private final RecordBudget budget;
+
+        Guarded(CharSequence text, RecordBudget budget) {
+            this.text = text;
+            this.budget = budget;
+        }
+
+        @Override
+        public char charAt(int index) {
+            budget.check();
+            return text.charAt(index);
+        }
+
+        @Override
+        public int length() {
+            return text.length();
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return text.subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return text.toString();
+        }
+    }
+}
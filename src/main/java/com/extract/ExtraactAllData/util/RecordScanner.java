@@ -0,0 +1,83 @@
+package com.extract.ExtraactAllData.util;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Walks a record once and reports which keyword anchors it contains.
+ * Every field pattern in {@link TextParsingUtil} needs at least one of its anchor keywords
+ * to be present, so a field whose anchor is missing can be skipped without running its regex.
+ */
+public final class RecordScanner {
+
+    public enum Anchor {
+        IMAGE_NO("Image", "चित्र"),
+        PANDA("पंडा", "Panda"),
+        BAHI("बही", "Bahi", "ब्राह्मण", "भूमिहार"),
+        FOLIO("फोलियो", "Folio"),
+        JILA("जिला", "जिल्ला", "Jila"),
+        TAHSIL("तहसील", "तालुका", "Tahsil"),
+        STATION("थाना", "स्टेशन", "Station"),
+        POST_OFFICE("डाकघर", "पोस्ट", "Post"),
+        CITY_VILLAGE("गांव", "गाँव", "ग्राम", "शहर", "नगर", "कस्बा", "City", "Village"),
+        FROM_PLACE("आये", "From"),
+        WHOSE_RITUAL("अस्ती", "अस्थि", "पिंड", "श्राद्ध", "दाह", "अंत्येष्टि", "हवन", "पूजन", "यज्ञ", "कर्म"),
+        CONTACT("मोबाइल", "फोन", "Contact", "मो"),
+        PRARTHI("प्रा", "संबोधित", "मुख्य"),
+        DIGIT; // ASCII or Devanagari digit anywhere in the record, needed by both date extractors
+
+        private final String[] keywords;
+
+        Anchor(String... keywords) {
+            this.keywords = keywords;
+        }
+    }
+
+    private static final Node ROOT = buildTrie();
+
+    private RecordScanner() {
+    }
+
+    public static EnumSet<Anchor> scan(String text) {
+        long mask = 0L;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if ((c >= '0' && c <= '9') || (c >= '०' && c <= '९')) {
+                mask |= 1L << Anchor.DIGIT.ordinal();
+            }
+            Node node = ROOT.children.get(c);
+            for (int j = i + 1; node != null; j++) {
+                mask |= node.mask;
+                if (j >= length) break;
+                node = node.children.get(text.charAt(j));
+            }
+        }
+
+        EnumSet<Anchor> anchors = EnumSet.noneOf(Anchor.class);
+        for (Anchor anchor : Anchor.values()) {
+            if ((mask & (1L << anchor.ordinal())) != 0) anchors.add(anchor);
+        }
+        return anchors;
+    }
+
+    private static Node buildTrie() {
+        Node root = new Node();
+        for (Anchor anchor : Anchor.values()) {
+            for (String keyword : anchor.keywords) {
+                Node node = root;
+                for (int i = 0; i < keyword.length(); i++) {
+                    node = node.children.computeIfAbsent(keyword.charAt(i), c -> new Node());
+                }
+                node.mask |= 1L << anchor.ordinal();
+            }
+        }
+        return root;
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+        private long mask;
+    }
+}
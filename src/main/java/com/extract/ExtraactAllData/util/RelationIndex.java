@@ -0,0 +1,165 @@
+package com.extract.ExtraactAllData.util;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Relation keywords of one record, indexed by the first character of the text that follows them.
+ * The record is scanned once when the index is built; {@link #relationOf(String)} then answers with
+ * the same precedence as the keyword chain of {@link TextParsingUtil#extractRelation(String, String)}
+ * without compiling a pattern per name. Not thread-safe; build one index per record.
+ */
+public final class RelationIndex {
+
+    // In precedence order. A space inside a keyword stands for \s*; requiresSpace means \s+ before the name, else \s*
+    private static final Rule[] RULES = {
+            new Rule("पिता", true, "पिता", "पिता जी", "पिताश्री", "पापा", "सुपुत्र", "पुत्र"),
+            new Rule("माता", true, "माता", "माँ"),
+            new Rule("भाई", true, "भाई", "भ्राता"),
+            new Rule("पुत्र", true, "लड़का", "पुत्र", "बेटा"),
+            new Rule("पुत्री", true, "पुत्री", "बेटी", "लड़की"),
+            new Rule("पति", true, "पति", "स्वामी"),
+            new Rule("पत्नी", true, "पत्नी", "धर्मपत्नी", "बहू"),
+            new Rule("दादा", true, "दादा", "परदादा", "बाबा"),
+            new Rule("चाचा", true, "चाचा", "काका"),
+            new Rule("पिता (के)", true, "के पिता", "के पीता", "के पिटा", "के पा"),
+            new Rule("भाई (के)", true, "के भाई"),
+            new Rule("पुत्र (के)", true, "के लड़का"),
+            new Rule("प्रार्थी", false, "प्रा", "प्रा०", "प्रा0", "प्रा।", "प्रार्थी", "संबोधित"),
+            new Rule("पत्नी/महिला", false, "श्रीमती")
+    };
+
+    private static final Map<Character, List<Keyword>> KEYWORDS_BY_FIRST_CHAR = indexKeywords();
+
+    private final String text;
+    private final List<Hit> hits = new ArrayList<>();
+    private final Map<Character, List<Hit>> hitsByNameStart = new HashMap<>();
+    private final Map<String, String> relationsByName = new HashMap<>();
+
+    private RelationIndex(String text) {
+        this.text = text;
+    }
+
+    public static RelationIndex build(String text) {
+        RelationIndex index = new RelationIndex(text);
+        for (int i = 0; i < text.length(); i++) {
+            List<Keyword> keywords = KEYWORDS_BY_FIRST_CHAR.get(text.charAt(i));
+            if (keywords == null) continue;
+            for (Keyword keyword : keywords) {
+                int keywordEnd = keyword.matchEnd(text, i);
+                if (keywordEnd >= 0) index.addHit(keyword.rule, keywordEnd);
+            }
+        }
+        return index;
+    }
+
+    public String relationOf(String name) {
+        if (StringUtils.isBlank(name)) return null;
+        return relationsByName.computeIfAbsent(name, this::resolve);
+    }
+
+    private void addHit(int rule, int keywordEnd) {
+        int nameStart = skipWhitespace(text, keywordEnd);
+        if (RULES[rule].requiresSpace && nameStart == keywordEnd) return;
+        Hit hit = new Hit(rule, keywordEnd + (RULES[rule].requiresSpace ? 1 : 0), nameStart);
+        hits.add(hit);
+        if (nameStart < text.length()) {
+            hitsByNameStart.computeIfAbsent(text.charAt(nameStart), c -> new ArrayList<>()).add(hit);
+        }
+    }
+
+    private String resolve(String name) {
+        // A name starting with whitespace can begin inside the whitespace run, so it has to check every hit
+        List<Hit> candidates = isRegexWhitespace(name.charAt(0))
+                ? hits
+                : hitsByNameStart.getOrDefault(name.charAt(0), List.of());
+
+        int best = RULES.length;
+        for (Hit hit : candidates) {
+            if (hit.rule < best && hit.isFollowedBy(text, name)) best = hit.rule;
+        }
+        if (best < RULES.length) return RULES[best].relation;
+
+        // Check if the name itself implies a relation (e.g., if 'पिता' or 'माँ' is part of the extracted 'name' if regex was too broad)
+        if (name.contains("पिता")) return "पिता";
+        if (name.contains("माता") || name.contains("माँ")) return "माता";
+
+        return "अन्य"; // Default if no specific relation is found
+    }
+
+    private static Map<Character, List<Keyword>> indexKeywords() {
+        Map<Character, List<Keyword>> keywords = new HashMap<>();
+        for (int rule = 0; rule < RULES.length; rule++) {
+            for (String keyword : RULES[rule].keywords) {
+                keywords.computeIfAbsent(keyword.charAt(0), c -> new ArrayList<>()).add(new Keyword(rule, keyword.split(" ")));
+            }
+        }
+        return keywords;
+    }
+
+    private static int skipWhitespace(String text, int position) {
+        while (position < text.length() && isRegexWhitespace(text.charAt(position))) position++;
+        return position;
+    }
+
+    // Regex \s without UNICODE_CHARACTER_CLASS
+    private static boolean isRegexWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static final class Rule {
+        private final String relation;
+        private final boolean requiresSpace;
+        private final String[] keywords;
+
+        private Rule(String relation, boolean requiresSpace, String... keywords) {
+            this.relation = relation;
+            this.requiresSpace = requiresSpace;
+            this.keywords = keywords;
+        }
+    }
+
+    private static final class Keyword {
+        private final int rule;
+        private final String[] parts;
+
+        private Keyword(int rule, String[] parts) {
+            this.rule = rule;
+            this.parts = parts;
+        }
+
+        // End of the keyword starting at position, or -1
+        private int matchEnd(String text, int position) {
+            int end = position;
+            for (int i = 0; i < parts.length; i++) {
+                if (i > 0) end = skipWhitespace(text, end);
+                if (!text.startsWith(parts[i], end)) return -1;
+                end += parts[i].length();
+            }
+            return end;
+        }
+    }
+
+    private static final class Hit {
+        private final int rule;
+        private final int firstNameStart; // earliest start the whitespace quantifier allows
+        private final int nameStart;      // start after the whole whitespace run
+
+        private Hit(int rule, int firstNameStart, int nameStart) {
+            this.rule = rule;
+            this.firstNameStart = firstNameStart;
+            this.nameStart = nameStart;
+        }
+
+        private boolean isFollowedBy(String text, String name) {
+            for (int start = nameStart; start >= firstNameStart; start--) {
+                if (text.startsWith(name, start)) return true;
+            }
+            return false;
+        }
+    }
+}
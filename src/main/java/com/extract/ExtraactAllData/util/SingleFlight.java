@@ -0,0 +1,72 @@
+package com.extract.ExtraactAllData.util;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Runs at most one computation per key at a time. A call that arrives while the same key is being computed
+ * waits for that computation and returns its result (or throws its exception) instead of starting another one.
+ * Nothing is kept once the computation finishes, later calls compute again. A caller that has waited
+ * longer than its limit stops waiting and computes the value itself.
+ */
+public final class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder waitTimeouts = new LongAdder();
+
+    public V execute(K key, Supplier<V> computation, long maxWaitMillis) {
+        CompletableFuture<V> own = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, own);
+        if (running == null) {
+            try {
+                V value = computation.get();
+                own.complete(value);
+                return value;
+            } catch (RuntimeException | Error e) {
+                own.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(key, own);
+            }
+        }
+
+        try {
+            V value = running.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+            coalesced.increment();
+            return value;
+        } catch (TimeoutException e) {
+            waitTimeouts.increment();
+            return computation.get(); // Not worth waiting any longer for the first caller
+        } catch (ExecutionException e) {
+            coalesced.increment();
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) throw runtimeException;
+            if (cause instanceof Error error) throw error;
+            throw new IllegalStateException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for the same computation");
+        }
+    }
+
+    // Calls answered with the result of another call's computation
+    public long coalesced() {
+        return coalesced.sum();
+    }
+
+    // Calls that stopped waiting for another call and computed the value themselves
+    public long waitTimeouts() {
+        return waitTimeouts.sum();
+    }
+
+    public int inFlight() {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,228 @@
+package com.extract.ExtraactAllData.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Common words that are never names, and filler words stripped from the leftover text of
+ * {@code extractUnknownTerms}. The built-in lists are {@code dictionaries/stopwords.txt}.
+ * <p>
+ * Fillers used to be removed with one {@code \b word \b} replaceAll per word, in list order.
+ * {@link #removeFillers} finds every filler in one automaton pass and cuts them all out at once. Splitting the text
+ * where {@code \b} holds gives alternating runs of word and non-word chars, and a filler always covers whole runs.
+ * Removing one therefore only matters to another filler when the two touch, or when the non-word runs on either
+ * side become a run that some filler is made of; in those cases the old word-by-word removal is used.
+ */
+public final class StopWords {
+
+    private static final String BUILT_IN = "/dictionaries/stopwords.txt";
+    private static volatile StopWords builtIn;
+
+    private final Set<String> commonWords;
+    private final List<Pattern> fillerPatterns;   // in removal order, duplicates kept
+    private final KeywordAutomaton fillers;
+    private final Set<String> fillerNonWordRuns;  // non-word runs that occur inside fillers
+    private final boolean singlePass;             // every filler starts with a word char
+    private final String definition;
+
+    private StopWords(Set<String> commonWords, List<String> fillerList, String definition) {
+        this.commonWords = commonWords;
+        this.definition = definition;
+
+        List<Pattern> patterns = new ArrayList<>();
+        KeywordAutomaton.Builder builder = KeywordAutomaton.builder();
+        Set<String> added = new HashSet<>();
+        Set<String> nonWordRuns = new HashSet<>();
+        boolean startsWithWordChars = true;
+        for (String filler : fillerList) {
+            patterns.add(Pattern.compile("\\b" + Pattern.quote(filler) + "\\b"));
+            if (!added.add(filler)) continue;
+            builder.add(filler);
+            startsWithWordChars &= isWordChar(filler, 0);
+            for (int i = 0; i < filler.length(); ) {
+                int end = runEnd(filler, i);
+                if (!isWordChar(filler, i)) nonWordRuns.add(filler.substring(i, end));
+                i = end;
+            }
+        }
+        this.fillerPatterns = Collections.unmodifiableList(patterns);
+        this.fillers = builder.build();
+        this.fillerNonWordRuns = nonWordRuns;
+        this.singlePass = startsWithWordChars;
+    }
+
+    public static StopWords builtIn() {
+        StopWords stopWords = builtIn;
+        if (stopWords == null) {
+            try (InputStream in = StopWords.class.getResourceAsStream(BUILT_IN)) {
+                if (in == null) throw new IllegalStateException("Missing " + BUILT_IN);
+                stopWords = load(in);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read " + BUILT_IN, e);
+            }
+            builtIn = stopWords;
+        }
+        return stopWords;
+    }
+
+    public static StopWords load(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return load(in);
+        }
+    }
+
+    public static StopWords load(InputStream in) throws IOException {
+        Set<String> common = new HashSet<>();
+        List<String> fillerList = new ArrayList<>();
+        StringBuilder definition = new StringBuilder();
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String section = null;
+        String line;
+        int lineNo = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+
+            if (line.equals("[common]") || line.equals("[filler]")) {
+                section = line;
+                continue;
+            }
+            if (line.startsWith("[")) throw new IllegalArgumentException("Unknown section " + line + " on line " + lineNo);
+            if (section == null) throw new IllegalArgumentException("Words before any section on line " + lineNo);
+
+            for (String word : PatternRegistry.WHITESPACE_RUN_PATTERN.split(line)) {
+                common.add(word.toLowerCase());
+                if (section.equals("[filler]")) fillerList.add(word);
+                definition.append(section).append(word).append('\n');
+            }
+        }
+        return new StopWords(Collections.unmodifiableSet(common), fillerList, definition.toString());
+    }
+
+    // The word with Devanagari digits removed is on one of the lists
+    public boolean isCommonWord(String word) {
+        String lower = word.toLowerCase();
+        StringBuilder cleaned = new StringBuilder(lower.length());
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            if (c < '०' || c > '९') cleaned.append(c);
+        }
+        return commonWords.contains(cleaned.toString().trim());
+    }
+
+    // Same as running text.replaceAll("\\b" + filler + "\\b", "") for every filler in list order
+    public String removeFillers(String text) {
+        if (!singlePass || hasSurrogates(text)) return removeFillersSequentially(text);
+
+        List<int[]> hits = new ArrayList<>();
+        fillers.scan(text, (keyword, start, end) -> {
+            if (isBoundary(text, start) && isBoundary(text, end)) hits.add(new int[]{start, end});
+        });
+        if (hits.isEmpty()) return text;
+        hits.sort((a, b) -> Integer.compare(a[0], b[0]));
+
+        StringBuilder result = new StringBuilder(text.length());
+        int[] cuts = new int[hits.size()]; // where each filler was, in result positions
+        int copiedUpTo = 0;
+        for (int i = 0; i < hits.size(); i++) {
+            int start = hits.get(i)[0];
+            if (i > 0 && start <= copiedUpTo) return removeFillersSequentially(text); // Overlaps or touches the previous filler
+            result.append(text, copiedUpTo, start);
+            cuts[i] = result.length();
+            copiedUpTo = hits.get(i)[1];
+        }
+        String removed = result.append(text, copiedUpTo, text.length()).toString();
+        return joinsIntoFillerRun(removed, cuts) ? removeFillersSequentially(text) : removed;
+    }
+
+    String removeFillersSequentially(String text) {
+        for (Pattern filler : fillerPatterns) {
+            text = filler.matcher(text).replaceAll("");
+        }
+        return text;
+    }
+
+    // Every word on both lists in order, changes whenever the lists do
+    public String definition() {
+        return definition;
+    }
+
+    // Whether the non-word runs next to the cuts, or any part of them reaching over a cut, is a run some filler is made of.
+    // Only then can a cut make a filler match that was not in the original text, in the final text or on the way.
+    private boolean joinsIntoFillerRun(String text, int[] cuts) {
+        int checkedUpTo = -1;
+        for (int cut : cuts) {
+            int index = cut > 0 && !isWordChar(text, cut - 1) ? cut - 1 : cut;
+            if (index >= text.length() || index < checkedUpTo || isWordChar(text, index)) continue;
+
+            int runStart = runStart(text, index);
+            int runEnd = runEnd(text, index);
+            List<Integer> pieceBounds = new ArrayList<>();
+            pieceBounds.add(runStart);
+            for (int other : cuts) {
+                if (other > runStart && other < runEnd) pieceBounds.add(other);
+            }
+            pieceBounds.add(runEnd);
+            for (int from = 0; from < pieceBounds.size() - 1; from++) {
+                for (int to = from + 1; to < pieceBounds.size(); to++) {
+                    if (fillerNonWordRuns.contains(text.substring(pieceBounds.get(from), pieceBounds.get(to)))) return true;
+                }
+            }
+            checkedUpTo = runEnd;
+        }
+        return false;
+    }
+
+    private static int runStart(String text, int index) {
+        boolean word = isWordChar(text, index);
+        while (index > 0 && isWordChar(text, index - 1) == word) index--;
+        return index;
+    }
+
+    private static int runEnd(String text, int index) {
+        boolean word = isWordChar(text, index);
+        while (index < text.length() && isWordChar(text, index) == word) index++;
+        return index;
+    }
+
+    // \b without UNICODE_CHARACTER_CLASS, as java.util.regex.Pattern evaluates it
+    private static boolean isBoundary(String text, int index) {
+        boolean left = index > 0 && isWordChar(text, index - 1);
+        boolean right = index < text.length() && isWordChar(text, index);
+        return left != right;
+    }
+
+    // A letter, digit or '_', or a non-spacing mark that follows one through other such marks
+    private static boolean isWordChar(String text, int index) {
+        char c = text.charAt(index);
+        if (c == '_' || Character.isLetterOrDigit(c)) return true;
+        if (Character.getType(c) != Character.NON_SPACING_MARK) return false;
+        for (int i = index - 1; i >= 0; i--) {
+            char base = text.charAt(i);
+            if (Character.isLetterOrDigit(base)) return true;
+            if (Character.getType(base) != Character.NON_SPACING_MARK) return false;
+        }
+        return false;
+    }
+
+    private static boolean hasSurrogates(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (Character.isSurrogate(text.charAt(i))) return true;
+        }
+        return false;
+    }
+}
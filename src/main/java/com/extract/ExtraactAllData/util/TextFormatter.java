@@ -53,62 +53,78 @@
 //}
 package com.extract.ExtraactAllData.util;
 
-import java.util.*;
-import java.util.regex.*;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 
 public class TextFormatter {
 
     public static String format(String input) {
         // Step 1: Normalize input - remove line breaks and extra spaces
-        String cleanedInput = input
-                .replaceAll("[\\r\\n]+", " ")      // remove line breaks
-                .replaceAll(" +", " ")             // collapse multiple spaces
-                .trim();
-
-        List<String> paragraphs = new ArrayList<>();
-        StringBuilder currentParagraph = new StringBuilder();
+        String[] tokens = tokenize(input);
 
-        // Step 2: Tokenize by space
-        String[] tokens = cleanedInput.split(" ");
-        boolean paragraphEnded = true;
+        // Step 2: Group tokens into paragraphs, paragraph ends are tracked as the tokens arrive
+        StringBuilder result = new StringBuilder();
+        ParagraphFormatter formatter = new ParagraphFormatter(para -> result.append(para).append("\n\n"));
+        for (String token : tokens) {
+            formatter.accept(token);
+        }
+        formatter.finish();
 
-        for (int i = 0; i < tokens.length; i++) {
-            String word = tokens[i].trim();
-            if (word.isEmpty()) continue;
+        // Step 3: Build final formatted output
+        return result.toString().trim();
+    }
 
-            // If current token is a paragraph starter and previous paragraph ended
-            if (paragraphEnded && isStartPrefix(word)) {
-                if (currentParagraph.length() > 0) {
-                    String para = finalizeParagraph(currentParagraph.toString());
-                    paragraphs.add(para);
-                    currentParagraph.setLength(0);
-                }
-                paragraphEnded = false;
+    // Streaming form of format: tokens are read from the reader and each paragraph is written as soon as it is closed
+    public static void format(Reader in, Writer out) throws IOException {
+        boolean[] first = {true};
+        ParagraphFormatter formatter = new ParagraphFormatter(para -> {
+            try {
+                if (!first[0]) out.write("\n\n");
+                out.write(para);
+                first[0] = false;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
-
-            currentParagraph.append(word).append(" ");
-
-            if (endsParagraph(currentParagraph.toString().trim())) {
-                paragraphEnded = true;
+        });
+
+        // Same tokens as format: line breaks and spaces separate words, every other char belongs to a word
+        StringBuilder token = new StringBuilder();
+        char[] buffer = new char[8192];
+        int read;
+        try {
+            while ((read = in.read(buffer)) != -1) {
+                for (int i = 0; i < read; i++) {
+                    char c = buffer[i];
+                    if (c == ' ' || c == '\r' || c == '\n') {
+                        if (token.length() > 0) {
+                            formatter.accept(token.toString());
+                            token.setLength(0);
+                        }
+                    } else {
+                        token.append(c);
+                    }
+                }
             }
+            if (token.length() > 0) formatter.accept(token.toString());
+            formatter.finish();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
         }
+        out.flush();
+    }
 
-        // Add any remaining content
-        if (currentParagraph.length() > 0) {
-            String lastPara = finalizeParagraph(currentParagraph.toString());
-            paragraphs.add(lastPara);
-        }
-
-        // Step 3: Build final formatted output
-        StringBuilder result = new StringBuilder();
-        for (String para : paragraphs) {
-            result.append(para).append("\n\n");
-        }
+    static String[] tokenize(String input) {
+        String withoutLineBreaks = PatternRegistry.LINE_BREAKS_PATTERN.matcher(input).replaceAll(" ");   // remove line breaks
+        String cleanedInput = PatternRegistry.REPEATED_SPACES_PATTERN.matcher(withoutLineBreaks).replaceAll(" ") // collapse multiple spaces
+                .trim();
 
-        return result.toString().trim();
+        // Tokenize by space
+        return cleanedInput.split(" ");
     }
 
-    private static String finalizeParagraph(String paragraph) {
+    static String finalizeParagraph(String paragraph) {
         paragraph = paragraph.trim();
         if (!paragraph.endsWith("।")) {
             paragraph += "।";
@@ -116,31 +132,10 @@ public class TextFormatter {
         return paragraph;
     }
 
-    /**
-     * Detect whether current text is the end of a paragraph.
-     */
-    private static boolean endsParagraph(String text) {
-        String pattern = ".*("
-                + "ता[\\.०-९ ]*[०-९]{1,2}[./\\-][०-९]{1,2}[./\\-][०-९]{2,4}"  // ता. ४.१.०८
-                + "|[०-९]{1,2}/[०-९]{1,2}/[०-९]{2,4}"                         // १०/6/02
-                + "|[०-९]{1,2}-[०-९]{1,2}-[०-९]{2,4}"                         // 11-10-2012
-                + "|[०-९]{10}"                                                // mobile numbers
-                + "|[०-९]{4,5}[-–][०-९]{4,5}"                                 // ID/Mobile-like
-                + "ता[\\.०-९0-9 ]*[०-९0-9]{1,2}[./\\-][०-९0-9]{1,2}[./\\-][०-९0-9]{2,4}"
-                + "|अस्ती लाये"
-                + "|अस्तीलाये"
-                + "|पूर्णपिता"
-                + "|आई बु\\."
-                + "|वासी[^\\s]*"
-                + "|के आये"
-                + ")$";
-        return text.matches(pattern);
-    }
-
     /**
      * Detect whether a token marks the start of a new paragraph.
      */
-    private static boolean isStartPrefix(String word) {
+    static boolean isStartPrefix(String word) {
         return word.startsWith("ब्रा") ||
                 word.startsWith("प्रा") ||
                 word.startsWith("बा०") ||
@@ -149,4 +144,3 @@ public class TextFormatter {
                 word.startsWith("परिकियरनाथ");
     }
 }
-
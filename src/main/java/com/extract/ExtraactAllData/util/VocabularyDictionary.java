@@ -0,0 +1,156 @@
+package com.extract.ExtraactAllData.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Caste, subcaste and ritual vocabularies compiled into one {@link KeywordAutomaton}.
+ * Lookups reproduce regex alternation semantics: the leftmost hit wins, then the entry listed first,
+ * then the longest variant of that entry. The built-in vocabulary is {@code dictionaries/vocabulary.txt};
+ * see that file for the format.
+ */
+public final class VocabularyDictionary {
+
+    public enum Category { CASTE, SUBCASTE, RITUAL }
+
+    private static final String BUILT_IN = "/dictionaries/vocabulary.txt";
+    private static volatile VocabularyDictionary builtIn;
+
+    private final KeywordAutomaton automaton;
+    private final Category[] categories; // per keyword id
+    private final int[] priorities;      // per keyword id, entry order within its category
+    private final String definition;     // normalized entries, one per line
+
+    private VocabularyDictionary(KeywordAutomaton automaton, Category[] categories, int[] priorities, String definition) {
+        this.automaton = automaton;
+        this.categories = categories;
+        this.priorities = priorities;
+        this.definition = definition;
+    }
+
+    public static VocabularyDictionary builtIn() {
+        VocabularyDictionary dictionary = builtIn;
+        if (dictionary == null) {
+            try (InputStream in = VocabularyDictionary.class.getResourceAsStream(BUILT_IN)) {
+                if (in == null) throw new IllegalStateException("Missing " + BUILT_IN);
+                dictionary = load(in);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read " + BUILT_IN, e);
+            }
+            builtIn = dictionary;
+        }
+        return dictionary;
+    }
+
+    public static VocabularyDictionary load(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return load(in);
+        }
+    }
+
+    public static VocabularyDictionary load(InputStream in) throws IOException {
+        KeywordAutomaton.Builder builder = KeywordAutomaton.builder();
+        List<Category> categories = new ArrayList<>();
+        List<Integer> priorities = new ArrayList<>();
+        Map<Category, Integer> entryCounts = new EnumMap<>(Category.class);
+        StringBuilder definition = new StringBuilder();
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        Category section = null;
+        String line;
+        int lineNo = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+
+            if (line.startsWith("[") && line.endsWith("]")) {
+                try {
+                    section = Category.valueOf(line.substring(1, line.length() - 1).trim().toUpperCase(Locale.ROOT));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Unknown section " + line + " on line " + lineNo);
+                }
+                continue;
+            }
+            if (section == null) throw new IllegalArgumentException("Entry before any section on line " + lineNo);
+
+            int priority = entryCounts.merge(section, 1, Integer::sum);
+            definition.append(section).append(':');
+            for (String variant : line.split("\\|")) {
+                if (variant.isBlank()) continue;
+                builder.add(variant.trim());
+                categories.add(section);
+                priorities.add(priority);
+                definition.append(variant.trim()).append('|');
+            }
+            definition.append('\n');
+        }
+
+        return new VocabularyDictionary(builder.build(), categories.toArray(new Category[0]),
+                priorities.stream().mapToInt(Integer::intValue).toArray(), definition.toString());
+    }
+
+    // Every entry in order, changes whenever the vocabulary does
+    public String definition() {
+        return definition;
+    }
+
+    // First hit of every category in one scan, categories without a hit are absent
+    public Map<Category, String> firstMatches(String text) {
+        int[][] best = new int[Category.values().length][]; // {start, end, priority}
+        automaton.scan(text, (keyword, start, end) -> {
+            int[] current = best[categories[keyword].ordinal()];
+            if (current == null || precedes(start, end, priorities[keyword], current[0], current[1], current[2])) {
+                best[categories[keyword].ordinal()] = new int[]{start, end, priorities[keyword]};
+            }
+        });
+
+        Map<Category, String> matches = new EnumMap<>(Category.class);
+        for (Category category : Category.values()) {
+            int[] hit = best[category.ordinal()];
+            if (hit != null) matches.put(category, text.substring(hit[0], hit[1]));
+        }
+        return matches;
+    }
+
+    public String firstMatch(String text, Category category) {
+        return firstMatches(text).get(category);
+    }
+
+    // Same as Matcher.replaceAll(replacement) with the category's entries as one alternation
+    public String replaceAll(String text, Category category, String replacement) {
+        List<int[]> hits = new ArrayList<>();
+        automaton.scan(text, (keyword, start, end) -> {
+            if (categories[keyword] == category) hits.add(new int[]{start, end, priorities[keyword]});
+        });
+        if (hits.isEmpty()) return text;
+
+        hits.sort(Comparator.<int[]>comparingInt(hit -> hit[0]).thenComparingInt(hit -> hit[2]).thenComparingInt(hit -> -hit[1]));
+        StringBuilder result = new StringBuilder(text.length());
+        int copiedUpTo = 0;
+        for (int[] hit : hits) {
+            if (hit[0] < copiedUpTo) continue; // Overlaps the previous replacement, or lost to an earlier entry
+            result.append(text, copiedUpTo, hit[0]).append(replacement);
+            copiedUpTo = hit[1];
+        }
+        return result.append(text, copiedUpTo, text.length()).toString();
+    }
+
+    private static boolean precedes(int start, int end, int priority, int otherStart, int otherEnd, int otherPriority) {
+        if (start != otherStart) return start < otherStart;
+        if (priority != otherPriority) return priority < otherPriority;
+        return end > otherEnd;
+    }
+}
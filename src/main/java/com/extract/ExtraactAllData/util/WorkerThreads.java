@@ -0,0 +1,33 @@
+package com.extract.ExtraactAllData.util;
+
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread factories for the background workers. With {@code spring.threads.virtual.enabled} on a Java 21 runtime
+ * the workers are virtual threads, like the request threads; otherwise they are named daemon platform threads.
+ */
+public final class WorkerThreads {
+
+    private WorkerThreads() {
+    }
+
+    public static boolean virtualThreadsAvailable() {
+        return Runtime.version().feature() >= 21;
+    }
+
+    // Threads are named prefix + 1, 2, ...; virtual is ignored before Java 21, as Spring Boot does
+    public static ThreadFactory factory(String prefix, boolean virtual) {
+        if (virtual && virtualThreadsAvailable()) {
+            return new VirtualThreadTaskExecutor(prefix).getVirtualThreadFactory();
+        }
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
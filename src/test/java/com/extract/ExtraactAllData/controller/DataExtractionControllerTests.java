@@ -0,0 +1,95 @@
+package com.extract.ExtraactAllData.controller;
+
+import com.extract.ExtraactAllData.excelGenrator.ExcelGenerator;
+import com.extract.ExtraactAllData.service.DataExtractionService;
+import com.extract.ExtraactAllData.support.SyntheticCorpus;
+import com.extract.ExtraactAllData.support.XlsxCells;
+import com.extract.ExtraactAllData.util.TextFormatter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class DataExtractionControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataExtractionService dataExtractionService;
+
+    @Test
+    void extractToExcelMatchesExtractThenGenerate() throws Exception {
+        String text = SyntheticCorpus.generate(200, 3);
+
+        MvcResult started = mockMvc.perform(post("/api/data-extraction/extract/excel")
+                        .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+                        .content(text.getBytes(StandardCharsets.UTF_8)))
+                .andReturn();
+        byte[] xlsx = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        byte[] expected = ExcelGenerator.convertToExcel(dataExtractionService.extractDataFromText(text));
+        assertThat(XlsxCells.firstSheet(xlsx)).isEqualTo(XlsxCells.firstSheet(expected));
+    }
+
+    @Test
+    void formatStreamMatchesFormat() throws Exception {
+        String text = SyntheticCorpus.generate(300, 4);
+
+        MvcResult started = mockMvc.perform(post("/api/data-extraction/format/stream")
+                        .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+                        .content(text.getBytes(StandardCharsets.UTF_8)))
+                .andReturn();
+        byte[] formatted = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(new String(formatted, StandardCharsets.UTF_8)).isEqualTo(TextFormatter.format(text));
+    }
+
+    @Test
+    void generateSplitsIntoAZipOfWorkbooksByDistrict() throws Exception {
+        String rows = "[{\"dataPosition\":\"1\",\"district\":\"गया\"},{\"dataPosition\":\"2\",\"district\":\"पटना\"},{\"dataPosition\":\"3\"}]";
+
+        MvcResult started = mockMvc.perform(post("/api/data-extraction/generate").param("partitionBy", "district").param("mode", "zip")
+                        .contentType(MediaType.APPLICATION_JSON).content(rows.getBytes(StandardCharsets.UTF_8)))
+                .andReturn();
+        byte[] zip = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/zip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        List<String> entries = new ArrayList<>();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            for (ZipEntry entry; (entry = in.getNextEntry()) != null; ) {
+                entries.add(entry.getName());
+                assertThat(XlsxCells.firstSheet(in.readAllBytes())).hasSize(2);
+            }
+        }
+        assertThat(entries).containsExactly("extracted_data_गया.xlsx", "extracted_data_पटना.xlsx", "extracted_data_blank.xlsx");
+
+        mockMvc.perform(post("/api/data-extraction/generate").param("partitionBy", "colour")
+                        .contentType(MediaType.APPLICATION_JSON).content(rows.getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().isBadRequest());
+    }
+}
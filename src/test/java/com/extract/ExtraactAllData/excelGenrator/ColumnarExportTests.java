@@ -0,0 +1,117 @@
+package com.extract.ExtraactAllData.excelGenrator;
+
+import com.extract.ExtraactAllData.model.ExtractedData;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ColumnarExportTests {
+
+    private static final String[] DISTRICTS = {"गया", "पटना", "नालंदा, बिहार", "\"भोजपुर\"", ""};
+    private static final String[] RELATIONS = {"पुत्र", "पत्नी", "पौत्र", "भाई"};
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void readsBackWhatWasWrittenByRowGroup() throws IOException {
+        List<ExtractedData> rows = rows(2_500, new Random(11L));
+        Path file = write(rows, 1_000);
+
+        try (ColumnarExportReader reader = new ColumnarExportReader(file)) {
+            assertThat(reader.rowCount()).isEqualTo(rows.size());
+            assertThat(reader.rowGroupCount()).isEqualTo(3);
+            assertThat(reader.rowGroupRows(2)).isEqualTo(500);
+            assertThat(reader.readAll()).isEqualTo(rows);
+
+            // Each row group and each column can be read on its own
+            assertThat(reader.readRowGroup(1)).isEqualTo(rows.subList(1_000, 2_000));
+            List<String> districts = new ArrayList<>();
+            rows.subList(2_000, 2_500).forEach(row -> districts.add(row.getDistrict()));
+            assertThat(reader.readColumn(2, "district")).isEqualTo(districts);
+            assertThatThrownBy(() -> reader.readColumn(0, "colour")).isInstanceOf(IllegalArgumentException.class);
+        }
+
+        // Repeated values cost a dictionary code each, far less than the same rows as text
+        long plainBytes = 0;
+        for (ExtractedData row : rows) plainBytes += row.toString().getBytes(StandardCharsets.UTF_8).length;
+        assertThat(Files.size(file)).isLessThan(plainBytes / 4);
+    }
+
+    @Test
+    void keepsNullsAndEmptyFilesApart() throws IOException {
+        ExtractedData empty = new ExtractedData();
+        ExtractedData blanks = new ExtractedData();
+        blanks.setDistrict("");
+        blanks.setGivenName("");
+        assertThat(readAll(write(List.of(empty, blanks, empty), 2))).containsExactly(empty, blanks, empty);
+
+        Path noRows = write(List.of(), 10);
+        try (ColumnarExportReader reader = new ColumnarExportReader(noRows)) {
+            assertThat(reader.rowCount()).isZero();
+            assertThat(reader.rowGroupCount()).isZero();
+            assertThat(reader.readAll()).isEmpty();
+        }
+
+        Path notColumnar = dir.resolve("rows.jsonl");
+        Files.writeString(notColumnar, "{\"district\":\"गया\"}\n");
+        assertThatThrownBy(() -> new ColumnarExportReader(notColumnar)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void everyFieldOfTheRowsIsAColumn() {
+        List<String> fields = Arrays.stream(ExtractedData.class.getDeclaredFields())
+                .filter(field -> !Modifier.isStatic(field.getModifiers())).map(Field::getName).toList();
+        assertThat(Arrays.stream(ColumnarFormat.Column.ALL).map(column -> column.fieldName)).containsExactlyInAnyOrderElementsOf(fields);
+    }
+
+    private Path write(List<ExtractedData> rows, int rowGroupSize) throws IOException {
+        Path file = Files.createTempFile(dir, "rows-", ColumnarExportWriter.FILE_EXTENSION);
+        try (OutputStream out = Files.newOutputStream(file);
+             ColumnarExportWriter writer = new ColumnarExportWriter(out, rowGroupSize)) {
+            writer.writeAll(rows);
+            assertThat(writer.rowCount()).isEqualTo(rows.size());
+            writer.finish();
+        }
+        return file;
+    }
+
+    private static List<ExtractedData> readAll(Path file) throws IOException {
+        try (ColumnarExportReader reader = new ColumnarExportReader(file)) {
+            return reader.readAll();
+        }
+    }
+
+    // Few districts, relations and genders, a distinct name and position per row, some fields missing
+    private static List<ExtractedData> rows(int count, Random random) {
+        List<ExtractedData> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ExtractedData row = new ExtractedData();
+            row.setImageNo("IMG_" + (i / 40));
+            row.setBahiName("बही " + (i / 500));
+            row.setDataPosition(String.valueOf(i + 1));
+            row.setDistrict(random.nextInt(10) == 0 ? null : DISTRICTS[random.nextInt(DISTRICTS.length)]);
+            row.setCaste(random.nextBoolean() ? "ब्राह्मण" : "यादव");
+            row.setGivenName("राम " + random.nextInt(1_000_000));
+            row.setRelation(RELATIONS[random.nextInt(RELATIONS.length)]);
+            row.setGender(random.nextBoolean() ? "M" : "F");
+            row.setFlagsAndException(random.nextInt(20) == 0 ? "अस्पष्ट \"शब्द\"\nदूसरी पंक्ति" : null);
+            rows.add(row);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,116 @@
+package com.extract.ExtraactAllData.excelGenrator;
+
+import com.extract.ExtraactAllData.model.ExtractedData;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DelimitedExportWriterTests {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void quotesFieldsAsInRfc4180() throws IOException {
+        ExtractedData row = new ExtractedData();
+        row.setImageNo("IMG_1");
+        row.setDistrict("गया, बिहार");
+        row.setGivenName("राम \"रमेश\" कुमार");
+        row.setFlagsAndException("अस्पष्ट\r\nशब्द");
+        row.setAdditionalInforma("");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (DelimitedExportWriter writer = new DelimitedExportWriter(out, DelimitedExportWriter.Format.CSV, false)) {
+            writer.writeAll(List.of(row, new ExtractedData()));
+            writer.finish();
+        }
+        String csv = out.toString(StandardCharsets.UTF_8);
+
+        assertThat(csv).startsWith("Image No,Panda Name,Bahi Name,").contains(",Flags/Exceptions,Additional Info\r\n");
+        assertThat(csv).contains("IMG_1,,,,,\"गया, बिहार\",").contains(",\"राम \"\"रमेश\"\" कुमार\",").contains(",\"अस्पष्ट\r\nशब्द\",\r\n");
+        List<List<String>> records = parse(csv, ',');
+        assertThat(records).hasSize(3);
+        assertThat(records.get(0)).containsExactly(Arrays.stream(ExcelColumn.values()).map(ExcelColumn::header).toArray(String[]::new));
+        for (ExcelColumn column : ExcelColumn.values()) {
+            String value = column.valueOf(row);
+            assertThat(records.get(1).get(column.ordinal())).isEqualTo(value == null ? "" : value);
+        }
+        assertThat(records.get(2)).hasSize(ExcelColumn.values().length).allMatch(String::isEmpty);
+    }
+
+    @Test
+    void writesGzippedTsvToAFileChannel() throws IOException {
+        ExtractedData row = new ExtractedData();
+        row.setDistrict("गया, बिहार");
+        row.setGivenName("राम\tकुमार");
+        Path file = dir.resolve("rows.tsv.gz");
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+             DelimitedExportWriter writer = new DelimitedExportWriter(channel, DelimitedExportWriter.Format.TSV, true)) {
+            for (int i = 0; i < 1_000; i++) writer.write(row);
+            writer.finish();
+            assertThat(writer.rowCount()).isEqualTo(1_000);
+        }
+
+        String tsv;
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            tsv = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        List<List<String>> records = parse(tsv, '\t');
+        assertThat(records).hasSize(1_001);
+        assertThat(records.get(1).get(ExcelColumn.DISTRICT.ordinal())).isEqualTo("गया, बिहार"); // Commas need no quotes in TSV
+        assertThat(records.get(1).get(ExcelColumn.GIVEN_NAME.ordinal())).isEqualTo("राम\tकुमार");
+        assertThat(tsv).contains("\t\"राम\tकुमार\"\t");
+    }
+
+    // A reference RFC 4180 reader
+    private static List<List<String>> parse(String text, char delimiter) {
+        List<List<String>> records = new ArrayList<>();
+        List<String> record = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == delimiter) {
+                record.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' && i + 1 < text.length() && text.charAt(i + 1) == '\n') {
+                record.add(field.toString());
+                field.setLength(0);
+                records.add(record);
+                record = new ArrayList<>();
+                i++;
+            } else {
+                field.append(c);
+            }
+        }
+        assertThat(field).isEmpty();
+        assertThat(record).isEmpty();
+        return records;
+    }
+}
@@ -0,0 +1,126 @@
+package com.extract.ExtraactAllData.excelGenrator;
+
+import com.extract.ExtraactAllData.model.ExtractedData;
+import com.extract.ExtraactAllData.support.XlsxCells;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExcelGeneratorTests {
+
+    @Test
+    void streamingWorkbookHasSameCellsAsInMemoryWorkbook() throws Exception {
+        List<ExtractedData> rows = rows(2_500);
+
+        ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+        ExcelGenerator.writeExcel(rows, streamed);
+
+        assertThat(XlsxCells.firstSheet(streamed.toByteArray())).isEqualTo(XlsxCells.firstSheet(ExcelGenerator.convertToExcel(rows)));
+    }
+
+    @Test
+    void fullSheetsContinueOnANewSheet() throws Exception {
+        List<ExtractedData> rows = rows(2_500);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (StreamingExcelWriter writer = new StreamingExcelWriter(out, 100, 1_000, "Extracted Data")) {
+            rows.forEach(writer::write);
+            writer.finish();
+            assertThat(writer.sheetCount()).isEqualTo(3);
+        }
+
+        Map<String, List<List<String>>> sheets = XlsxCells.bySheet(out.toByteArray());
+        assertThat(sheets.keySet()).containsExactly("Extracted Data", "Extracted Data (2)", "Extracted Data (3)");
+        assertThat(sheets.values()).allSatisfy(sheet -> assertThat(sheet.get(0)).isEqualTo(header()));
+        assertThat(dataRows(sheets.values())).isEqualTo(XlsxCells.firstSheet(ExcelGenerator.convertToExcel(rows)).subList(1, rows.size() + 1));
+    }
+
+    @Test
+    void partitionsByColumnIntoSheetsOrZipEntries() throws Exception {
+        List<ExtractedData> rows = rows(2_500);
+        for (int i = 0; i < rows.size(); i++) rows.get(i).setDistrict(i % 3 == 0 ? null : i % 3 == 1 ? "गया" : "बलिया");
+        List<List<String>> allRows = XlsxCells.firstSheet(ExcelGenerator.convertToExcel(rows)).subList(1, rows.size() + 1);
+
+        ByteArrayOutputStream workbook = new ByteArrayOutputStream();
+        new PartitionedExcelExport(ExcelColumn.DISTRICT, 500, PartitionedExcelExport.Mode.SHEETS, 0, false).write(rows, workbook);
+        Map<String, List<List<String>>> sheets = XlsxCells.bySheet(workbook.toByteArray());
+        assertThat(sheets.keySet()).containsExactly("blank", "blank (2)", "गया", "गया (2)", "बलिया", "बलिया (2)");
+        assertThat(sheets.get("गया (2)")).hasSize(1 + 833 - 500);
+        assertThat(sheets.get("बलिया").subList(1, 501)).allSatisfy(row -> assertThat(row.get(ExcelColumn.DISTRICT.ordinal())).isEqualTo("बलिया"));
+        assertThat(dataRows(sheets.values())).containsExactlyInAnyOrderElementsOf(allRows);
+
+        ByteArrayOutputStream zip = new ByteArrayOutputStream();
+        new PartitionedExcelExport(PartitionedExcelExport.parseKey("district"), 500, PartitionedExcelExport.parseMode("zip"), 2, false).write(rows, zip);
+        Map<String, List<List<String>>> entries = new LinkedHashMap<>();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip.toByteArray()))) {
+            for (ZipEntry entry; (entry = in.getNextEntry()) != null; ) {
+                entries.put(entry.getName(), dataRows(XlsxCells.bySheet(in.readAllBytes()).values()));
+            }
+        }
+        assertThat(entries.keySet()).containsExactly("extracted_data_blank.xlsx", "extracted_data_गया.xlsx", "extracted_data_बलिया.xlsx");
+        assertThat(entries.values().stream().flatMap(List::stream).toList()).isEqualTo(
+                entries.keySet().stream().flatMap(name -> allRows.stream().filter(row -> name.contains(
+                        row.get(ExcelColumn.DISTRICT.ordinal()).isEmpty() ? "blank" : row.get(ExcelColumn.DISTRICT.ordinal())))).toList());
+    }
+
+    @Test
+    void streamingWorkbookAllocatesFarLessThanInMemoryWorkbook() throws Exception {
+        List<ExtractedData> rows = rows(2_000);
+        // Warm up both writers so class loading and JIT do not count
+        ExcelGenerator.convertToExcel(rows(100));
+        ExcelGenerator.writeExcel(rows(100), OutputStream.nullOutputStream());
+
+        long allocated = allocatedBytes();
+        ExcelGenerator.convertToExcel(rows);
+        long inMemoryAllocated = allocatedBytes() - allocated;
+
+        allocated = allocatedBytes();
+        ExcelGenerator.writeExcel(rows, OutputStream.nullOutputStream());
+        long streamingAllocated = allocatedBytes() - allocated;
+
+        assertThat(streamingAllocated).isLessThan(inMemoryAllocated / 10);
+    }
+
+    private static List<ExtractedData> rows(int count) {
+        List<ExtractedData> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ExtractedData data = new ExtractedData();
+            data.setDataPosition(String.valueOf(i + 1));
+            data.setIndividualID(String.valueOf(i % 5 + 1));
+            data.setGivenName("रामनाथ" + (i % 97));
+            data.setSurname(i % 3 == 0 ? null : "सिंह");
+            data.setRelation(i % 2 == 0 ? "पिता" : "अन्य");
+            data.setCaste("भूमिहार");
+            data.setDistrict(i % 4 == 0 ? "बलिया" : null);
+            data.setContactNo1(i % 7 == 0 ? "98765" + (10000 + i % 89999) : null);
+            data.setFlagsAndException(i % 11 == 0 ? "अज्ञात शब्द" : null);
+            rows.add(data);
+        }
+        return rows;
+    }
+
+    private static List<List<String>> dataRows(Collection<List<List<String>>> sheets) {
+        return sheets.stream().flatMap(sheet -> sheet.subList(1, sheet.size()).stream()).toList();
+    }
+
+    private static List<String> header() {
+        return Arrays.stream(ExcelColumn.values()).map(ExcelColumn::header).toList();
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
+}
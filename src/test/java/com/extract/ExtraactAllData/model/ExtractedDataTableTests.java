@@ -0,0 +1,106 @@
+package com.extract.ExtraactAllData.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExtractedDataTableTests {
+
+    @Test
+    void rowsViewLikeOneObjectPerRow() {
+        ExtractedDataTable table = new ExtractedDataTable(5);
+        table.addParagraph(paragraph("वाराणसी", "यादव", List.of(
+                new Individual("राम", "यादव", "प्रार्थी"),
+                new Individual("श्याम", null, "पिता"))));
+        table.addParagraph(paragraph("गया", null, List.of()));
+
+        assertThat(table).hasSize(3);
+        assertThat(table.paragraphCount()).isEqualTo(2);
+
+        ExtractedData first = table.get(0);
+        assertThat(first.getDataPosition()).isEqualTo("5");
+        assertThat(first.getIndividualID()).isEqualTo("1");
+        assertThat(first.getGivenName()).isEqualTo("राम");
+        assertThat(first.getRelation()).isEqualTo("प्रार्थी");
+        assertThat(first.getDistrict()).isEqualTo("वाराणसी");
+        assertThat(first.getCaste()).isEqualTo("यादव");
+        assertThat(first.getGender()).isEqualTo("पुरुष");
+        assertThat(first.getFlagsAndException()).isEqualTo("flag वाराणसी");
+
+        ExtractedData second = table.get(1);
+        assertThat(second.getDataPosition()).isEqualTo("6");
+        assertThat(second.getIndividualID()).isEqualTo("2");
+        assertThat(second.getSurname()).isNull();
+        assertThat(second.getDistrict()).isEqualTo("वाराणसी");
+
+        // A paragraph without individuals gives one row with only the paragraph-level fields
+        ExtractedData empty = table.get(2);
+        assertThat(empty.getDataPosition()).isEqualTo("7");
+        assertThat(empty.getDistrict()).isEqualTo("गया");
+        assertThat(empty.getIndividualID()).isNull();
+        assertThat(empty.getGivenName()).isNull();
+        assertThat(empty.getGender()).isNull();
+        assertThat(empty.getCaste()).isNull();
+    }
+
+    @Test
+    void equalValuesAreStoredOnce() {
+        ExtractedDataTable table = new ExtractedDataTable();
+        for (int i = 0; i < 1000; i++) {
+            table.addParagraph(paragraph(new String("वाराणसी"), new String("यादव"),
+                    List.of(new Individual("राम" + i, null, new String("पिता")))));
+        }
+
+        // district, caste, gender and relation: four distinct strings for 1000 rows
+        assertThat(table.dictionarySize()).isEqualTo(4);
+        assertThat(table.get(0).getDistrict()).isSameAs(table.get(999).getDistrict());
+        assertThat(table.get(3).getRelation()).isSameAs(table.get(500).getRelation());
+    }
+
+    @Test
+    void onlyAParagraphWithoutNamesGetsAnEmptyRow() {
+        ParagraphResult withoutNames = paragraph("गया", null, List.of());
+        withoutNames.getFields().setNames(List.of());
+        // Names found, but all of them were ritual persons already listed: no rows, as in the sequential code before
+        ParagraphResult onlyRitualPersons = paragraph("पटना", null, List.of());
+        onlyRitualPersons.getFields().setNames(List.of("स्व० राम"));
+        onlyRitualPersons.getFields().setWhoseRitual1("स्व० राम");
+        assertThat(withoutNames.rowCount()).isEqualTo(1);
+        assertThat(onlyRitualPersons.rowCount()).isZero();
+
+        ExtractedDataTable table = new ExtractedDataTable();
+        table.addParagraph(withoutNames);
+        table.addParagraph(onlyRitualPersons);
+        table.addParagraph(paragraph("बलिया", null, List.of(new Individual("श्याम", null, "पिता"))));
+
+        assertThat(table).hasSize(2);
+        assertThat(table.paragraphCount()).isEqualTo(3);
+        assertThat(table.get(0).getDistrict()).isEqualTo("गया");
+        assertThat(table.get(1).getDistrict()).isEqualTo("बलिया");
+        assertThat(table.get(1).getDataPosition()).isEqualTo("2");
+    }
+
+    @Test
+    void viewsAreReadOnly() {
+        ExtractedDataTable table = new ExtractedDataTable();
+        table.addParagraph(paragraph("गया", null, List.of()));
+
+        table.get(0).setDistrict("पटना");
+        assertThat(table.get(0).getDistrict()).isEqualTo("गया");
+        assertThatThrownBy(() -> table.add(new ExtractedData())).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> table.get(1)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    private ParagraphResult paragraph(String district, String caste, List<Individual> individuals) {
+        RecordFields fields = new RecordFields();
+        fields.setDistrict(district);
+        fields.setCaste(caste);
+        fields.setGender("पुरुष");
+        fields.setFlagsAndException("flag " + district);
+        fields.setDateOfRitual("1 जनवरी 2000"); // not copied to rows
+        return new ParagraphResult(fields, individuals);
+    }
+}
@@ -0,0 +1,141 @@
+package com.extract.ExtraactAllData.service;
+
+import com.extract.ExtraactAllData.excelGenrator.ColumnarExportReader;
+import com.extract.ExtraactAllData.model.BulkIngestionRequest;
+import com.extract.ExtraactAllData.model.BulkIngestionStatus;
+import com.extract.ExtraactAllData.model.ExtractedData;
+import com.extract.ExtraactAllData.support.SyntheticCorpus;
+import com.extract.ExtraactAllData.util.TextParsingUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(classes = {TextParsingUtil.class, ExtractionMetrics.class, RecordExtractionEngine.class, DataExtractionService.class, ParagraphResultCache.class,
+        BulkIngestionService.class, JacksonAutoConfiguration.class},
+        properties = "extraction.cache.enabled=false")
+class BulkIngestionServiceTests {
+
+    @Autowired
+    private BulkIngestionService bulkIngestionService;
+
+    @Autowired
+    private DataExtractionService dataExtractionService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @TempDir
+    Path baseDir;
+
+    @TempDir
+    Path outside;
+
+    @Test
+    void writesTheSameRowsAsInMemoryExtraction() throws Exception {
+        ReflectionTestUtils.setField(bulkIngestionService, "baseDir", baseDir.toString());
+        String text = SyntheticCorpus.generate(2_000, 4L);
+        Files.writeString(baseDir.resolve("archive.txt"), text, StandardCharsets.UTF_8);
+        List<ExtractedData> expected = dataExtractionService.extractDataFromText(text);
+
+        BulkIngestionStatus jsonl = await(bulkIngestionService.submit(new BulkIngestionRequest("archive.txt", "out/rows.jsonl", null)));
+        BulkIngestionStatus xlsx = await(bulkIngestionService.submit(new BulkIngestionRequest("archive.txt", "out/rows.xlsx", "XLSX")));
+        BulkIngestionStatus columnar = await(bulkIngestionService.submit(new BulkIngestionRequest("archive.txt", "out/rows.xcol", "columnar")));
+        BulkIngestionStatus csv = await(bulkIngestionService.submit(new BulkIngestionRequest("archive.txt", "out/rows.csv.gz", "csv.gz")));
+
+        assertThat(jsonl.getState()).isEqualTo("COMPLETED");
+        assertThat(jsonl.getRows()).isEqualTo(expected.size());
+        assertThat(jsonl.getBytesRead()).isEqualTo(jsonl.getBytesTotal());
+        List<ExtractedData> rows = new ArrayList<>();
+        for (String line : Files.readAllLines(baseDir.resolve("out/rows.jsonl"), StandardCharsets.UTF_8)) {
+            rows.add(objectMapper.readValue(line, ExtractedData.class));
+        }
+        assertThat(rows).isEqualTo(expected);
+
+        assertThat(xlsx.getState()).isEqualTo("COMPLETED");
+        try (InputStream in = Files.newInputStream(baseDir.resolve("out/rows.xlsx")); XSSFWorkbook workbook = new XSSFWorkbook(in)) {
+            assertThat(workbook.getSheetAt(0).getLastRowNum()).isEqualTo(expected.size());
+        }
+
+        assertThat(columnar.getState()).isEqualTo("COMPLETED");
+        try (ColumnarExportReader reader = new ColumnarExportReader(baseDir.resolve("out/rows.xcol"))) {
+            assertThat(reader.readAll()).isEqualTo(expected);
+        }
+
+        assertThat(csv.getState()).isEqualTo("COMPLETED");
+        assertThat(csv.getRows()).isEqualTo(expected.size());
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(baseDir.resolve("out/rows.csv.gz")))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).startsWith("Image No,Panda Name,");
+        }
+        assertThat(baseDir.resolve("out/rows.jsonl.part")).doesNotExist();
+    }
+
+    @Test
+    void pathsMayNotLeaveTheBaseDirectory() throws IOException {
+        ReflectionTestUtils.setField(bulkIngestionService, "baseDir", baseDir.toString());
+        Files.writeString(baseDir.resolve("archive.txt"), "प्रा० राम", StandardCharsets.UTF_8);
+
+        assertThatThrownBy(() -> bulkIngestionService.submit(new BulkIngestionRequest("../etc/passwd", "out.jsonl", "jsonl")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> bulkIngestionService.submit(new BulkIngestionRequest("archive.txt", "../out.jsonl", "jsonl")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> bulkIngestionService.submit(new BulkIngestionRequest("archive.txt", "out.parquet", "parquet")))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        // Links inside the base directory may neither lead the output out of it nor alias the input
+        Files.createSymbolicLink(baseDir.resolve("escape"), outside);
+        Files.createSymbolicLink(baseDir.resolve("alias.txt"), baseDir.resolve("archive.txt"));
+        assertThatThrownBy(() -> bulkIngestionService.submit(new BulkIngestionRequest("archive.txt", "escape/out.jsonl", "jsonl")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> bulkIngestionService.submit(new BulkIngestionRequest("archive.txt", "escape/new/out.jsonl", "jsonl")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> bulkIngestionService.submit(new BulkIngestionRequest("archive.txt", "alias.txt", "jsonl")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(outside).isEmptyDirectory();
+
+        ReflectionTestUtils.setField(bulkIngestionService, "baseDir", "");
+        assertThatThrownBy(() -> bulkIngestionService.submit(new BulkIngestionRequest("archive.txt", "out.jsonl", "jsonl")))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void finishedRunsAreDroppedAfterTheRetention() throws Exception {
+        ReflectionTestUtils.setField(bulkIngestionService, "baseDir", baseDir.toString());
+        Files.writeString(baseDir.resolve("archive.txt"), "प्रा० राम\nजिला गया\n", StandardCharsets.UTF_8);
+        BulkIngestionStatus first = await(bulkIngestionService.submit(new BulkIngestionRequest("archive.txt", "first.jsonl", null)));
+
+        ReflectionTestUtils.setField(bulkIngestionService, "retentionMinutes", 0L);
+        try {
+            Thread.sleep(5);
+            await(bulkIngestionService.submit(new BulkIngestionRequest("archive.txt", "second.jsonl", null)));
+            assertThat(bulkIngestionService.getStatus(first.getRunId())).isNull();
+        } finally {
+            ReflectionTestUtils.setField(bulkIngestionService, "retentionMinutes", 1440L);
+        }
+    }
+
+    private BulkIngestionStatus await(BulkIngestionStatus submitted) throws InterruptedException {
+        for (int i = 0; i < 3000; i++) {
+            BulkIngestionStatus status = bulkIngestionService.getStatus(submitted.getRunId());
+            if (status.getFinishedAt() != null) return status;
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Run " + submitted.getRunId() + " did not finish");
+    }
+}
@@ -0,0 +1,99 @@
+package com.extract.ExtraactAllData.service;
+
+import com.extract.ExtraactAllData.model.ExtractedDataTable;
+import com.extract.ExtraactAllData.service.DataExtractionService.ExtractionBusyException;
+import com.extract.ExtraactAllData.support.SyntheticCorpus;
+import com.extract.ExtraactAllData.util.TextParsingUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(classes = {TextParsingUtil.class, ExtractionMetrics.class, RecordExtractionEngine.class, DataExtractionService.class, ParagraphResultCache.class},
+        properties = {"extraction.cache.enabled=false", "extraction.concurrency.max-extractions=1", "extraction.concurrency.wait-ms=100"})
+class DataExtractionServiceConcurrencyTests {
+
+    @Autowired
+    private DataExtractionService dataExtractionService;
+
+    @Autowired
+    private ExtractionMetrics metrics;
+
+    @Test
+    void waitsForAFreeSlotAndGivesUpAfterTheWait() throws InterruptedException {
+        String text = SyntheticCorpus.generate(20, 5);
+        Semaphore slots = (Semaphore) ReflectionTestUtils.getField(dataExtractionService, "extractionSlots");
+        MeterRegistry registry = metrics.registry();
+
+        slots.acquire(); // Take the only slot, as a long running extraction would
+        assertThatThrownBy(() -> dataExtractionService.extractDataFromText(text)).isInstanceOf(ExtractionBusyException.class);
+        assertThat(registry.get("extraction.concurrency.rejected").counter().count()).isEqualTo(1);
+        assertThat(registry.get("extraction.concurrency.active").gauge().value()).isEqualTo(1);
+
+        // A request that arrives while the slot is taken gets it once it is released
+        Thread release = new Thread(() -> {
+            sleep(30);
+            slots.release();
+        });
+        release.start();
+        assertThat(dataExtractionService.extractDataFromText(text)).isNotEmpty();
+        release.join();
+        assertThat(slots.availablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    void backgroundExtractionWaitsPastTheRequestWaitInsteadOfFailing() throws Exception {
+        List<String> paragraphs = new TextParsingUtil().splitIntoParagraphsByTrigger(SyntheticCorpus.generate(5, 6));
+        Semaphore slots = (Semaphore) ReflectionTestUtils.getField(dataExtractionService, "extractionSlots");
+
+        slots.acquire();
+        AtomicReference<Object> outcome = new AtomicReference<>();
+        Thread job = new Thread(() -> {
+            try {
+                outcome.set(dataExtractionService.extractSequential(paragraphs, processed -> { }));
+            } catch (RuntimeException e) {
+                outcome.set(e);
+            }
+        });
+        job.start();
+        job.join(300); // Three times extraction.concurrency.wait-ms
+        assertThat(job.isAlive()).isTrue();
+        slots.release();
+        job.join();
+        assertThat(outcome.get()).isInstanceOf(ExtractedDataTable.class);
+
+        // A cancelled job is interrupted out of the wait
+        slots.acquire();
+        Thread cancelled = new Thread(() -> {
+            try {
+                outcome.set(dataExtractionService.extractSequential(paragraphs, processed -> { }));
+            } catch (RuntimeException e) {
+                outcome.set(e);
+            }
+        });
+        cancelled.start();
+        sleep(50);
+        cancelled.interrupt();
+        cancelled.join();
+        slots.release();
+        assertThat(outcome.get()).isInstanceOf(CancellationException.class);
+        assertThat(slots.availablePermits()).isEqualTo(1);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.extract.ExtraactAllData.service;
+
+import com.extract.ExtraactAllData.model.ExtractedData;
+import com.extract.ExtraactAllData.support.SyntheticCorpus;
+import com.extract.ExtraactAllData.util.TextParsingUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(classes = {TextParsingUtil.class, ExtractionMetrics.class, RecordExtractionEngine.class, DataExtractionService.class, ParagraphResultCache.class},
+        properties = "extraction.cache.enabled=false")
+class DataExtractionServiceParallelTests {
+
+    @Autowired
+    private TextParsingUtil textParsingUtil;
+
+    @Autowired
+    private DataExtractionService dataExtractionService;
+
+    @Test
+    void parallelModeProducesSameRowsInSameOrder() {
+        for (long seed = 1; seed <= 5; seed++) {
+            List<String> paragraphs = textParsingUtil.splitIntoParagraphsByTrigger(SyntheticCorpus.generate(400, seed));
+
+            List<ExtractedData> sequential = dataExtractionService.extractSequential(paragraphs);
+            List<ExtractedData> parallel = dataExtractionService.extractParallel(paragraphs);
+
+            assertThat(parallel).hasSameSizeAs(sequential).isEqualTo(sequential);
+        }
+    }
+}
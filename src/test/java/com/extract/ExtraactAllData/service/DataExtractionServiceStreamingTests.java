@@ -0,0 +1,73 @@
+package com.extract.ExtraactAllData.service;
+
+import com.extract.ExtraactAllData.model.ExtractedData;
+import com.extract.ExtraactAllData.support.SyntheticCorpus;
+import com.extract.ExtraactAllData.util.TextParsingUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(classes = {TextParsingUtil.class, ExtractionMetrics.class, RecordExtractionEngine.class, DataExtractionService.class, ParagraphResultCache.class},
+        properties = "extraction.cache.enabled=false")
+class DataExtractionServiceStreamingTests {
+
+    @Autowired
+    private DataExtractionService dataExtractionService;
+
+    @Test
+    void streamingMatchesWholeTextExtraction() throws IOException {
+        for (long seed = 1; seed <= 5; seed++) {
+            String text = SyntheticCorpus.generate(300, seed);
+            if (seed % 2 == 0) text = text.replace("\n", "\r\n");
+
+            List<ExtractedData> streamed = new ArrayList<>();
+            dataExtractionService.extractDataFromReader(new ShortReadReader(text), streamed::addAll);
+
+            assertThat(streamed).isEqualTo(dataExtractionService.extractDataFromText(text));
+        }
+    }
+
+    @Test
+    void paragraphsAreDeliveredBeforeInputEnds() throws IOException {
+        String text = SyntheticCorpus.generate(50, 7);
+        List<Integer> readPositions = new ArrayList<>();
+        ShortReadReader reader = new ShortReadReader(text);
+
+        dataExtractionService.extractDataFromReader(reader, rows -> readPositions.add(reader.position));
+
+        assertThat(readPositions).hasSizeGreaterThan(10);
+        assertThat(readPositions.get(0)).isLessThan(text.length() / 4);
+    }
+
+    // Returns at most a few chars per read so lines are split across buffer refills
+    private static class ShortReadReader extends Reader {
+        private final StringReader delegate;
+        private int position;
+        private int chunk;
+
+        ShortReadReader(String text) {
+            this.delegate = new StringReader(text);
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            chunk = chunk % 7 + 1;
+            int read = delegate.read(buffer, offset, Math.min(length, chunk));
+            if (read > 0) position += read;
+            return read;
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.extract.ExtraactAllData.service;
+
+import com.extract.ExtraactAllData.model.JobStatus;
+import com.extract.ExtraactAllData.service.ExtractionJobService.JobQueueFullException;
+import com.extract.ExtraactAllData.support.SyntheticCorpus;
+import com.extract.ExtraactAllData.util.TextParsingUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(classes = {TextParsingUtil.class, ExtractionMetrics.class, RecordExtractionEngine.class, DataExtractionService.class, ExtractionJobService.class,
+        ParagraphResultCache.class},
+        properties = {"extraction.jobs.workers=1", "extraction.jobs.queue-capacity=1"})
+class ExtractionJobServiceTests {
+
+    @Autowired
+    private ExtractionJobService extractionJobService;
+
+    @Autowired
+    private DataExtractionService dataExtractionService;
+
+    @Test
+    void queueLimitCancellationAndResult() throws InterruptedException {
+        String longText = SyntheticCorpus.generate(20_000, 1);
+        String shortText = SyntheticCorpus.generate(100, 2);
+
+        JobStatus running = extractionJobService.submit(longText);
+        JobStatus queued = extractionJobService.submit(shortText);
+        assertThatThrownBy(() -> extractionJobService.submit(shortText)).isInstanceOf(JobQueueFullException.class);
+
+        JobStatus progress = awaitProgress(running.getJobId());
+        assertThat(progress.getState()).isEqualTo("RUNNING");
+        assertThat(progress.getParagraphsProcessed()).isBetween(1, progress.getParagraphsTotal() - 1);
+
+        extractionJobService.cancel(running.getJobId());
+        JobStatus done = awaitFinished(queued.getJobId());
+
+        assertThat(extractionJobService.getStatus(running.getJobId()).getState()).isEqualTo("CANCELLED");
+        assertThat(extractionJobService.getResult(running.getJobId())).isNull();
+        assertThat(done.getState()).isEqualTo("COMPLETED");
+        assertThat(done.getParagraphsProcessed()).isEqualTo(done.getParagraphsTotal());
+        assertThat(extractionJobService.getResult(queued.getJobId())).isEqualTo(dataExtractionService.extractDataFromText(shortText));
+    }
+
+    private JobStatus awaitProgress(String jobId) throws InterruptedException {
+        for (int i = 0; i < 600; i++) {
+            JobStatus status = extractionJobService.getStatus(jobId);
+            if (status.getParagraphsProcessed() > 0) return status;
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Job " + jobId + " made no progress");
+    }
+
+    private JobStatus awaitFinished(String jobId) throws InterruptedException {
+        for (int i = 0; i < 1000; i++) {
+            JobStatus status = extractionJobService.getStatus(jobId);
+            if (status.getFinishedAt() != null) return status;
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Job " + jobId + " did not finish");
+    }
+}
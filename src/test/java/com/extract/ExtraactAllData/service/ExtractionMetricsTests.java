@@ -0,0 +1,99 @@
+package com.extract.ExtraactAllData.service;
+
+import com.extract.ExtraactAllData.model.ExtractedDataTable;
+import com.extract.ExtraactAllData.support.SyntheticCorpus;
+import com.extract.ExtraactAllData.util.TextParsingUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(classes = {SimpleMeterRegistry.class, TextParsingUtil.class, ExtractionMetrics.class, RecordExtractionEngine.class,
+        DataExtractionService.class, ParagraphResultCache.class},
+        properties = "extraction.cache.enabled=false")
+class ExtractionMetricsTests {
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private DataExtractionService dataExtractionService;
+
+    @Autowired
+    private TextParsingUtil textParsingUtil;
+
+    @Test
+    void countsParagraphsIndividualsAndEmptyFields() {
+        double paragraphsBefore = counter("extraction.paragraphs");
+        double individualsBefore = counter("extraction.individuals");
+        double nullDistrictsBefore = registry.get("extraction.fields.null").tag("field", "district").counter().count();
+
+        String text = SyntheticCorpus.generate(150, 21);
+        ExtractedDataTable rows = (ExtractedDataTable) dataExtractionService.extractDataFromText(text);
+
+        long individuals = rows.stream().filter(row -> row.getIndividualID() != null).count();
+        // The first row of every paragraph carries its district
+        long nullDistricts = rows.stream()
+                .filter(row -> row.getIndividualID() == null || row.getIndividualID().equals("1"))
+                .filter(row -> row.getDistrict() == null)
+                .count();
+
+        assertThat(counter("extraction.paragraphs") - paragraphsBefore).isEqualTo(rows.paragraphCount());
+        assertThat(counter("extraction.individuals") - individualsBefore).isEqualTo(individuals);
+        assertThat(registry.get("extraction.fields.null").tag("field", "district").counter().count() - nullDistrictsBefore)
+                .isEqualTo(nullDistricts);
+
+        Timer request = registry.get("extraction.request").tag("path", "text").timer();
+        assertThat(request.count()).isPositive();
+        assertThat(registry.get("extraction.input").tag("path", "text").counter().count())
+                .isGreaterThanOrEqualTo(text.getBytes(StandardCharsets.UTF_8).length);
+        assertThat(registry.get("extraction.request.records.per.second").tag("path", "text").summary().max()).isPositive();
+    }
+
+    @Test
+    void timesEveryExtractorCall() throws Exception {
+        long unknownTermsBefore = registry.get("extraction.extractor").tag("extractor", "unknown_terms").timer().count();
+
+        String text = SyntheticCorpus.generate(40, 22);
+        List<String> paragraphs = textParsingUtil.splitIntoParagraphsByTrigger(text);
+        long records = paragraphs.stream().filter(p -> !p.trim().isEmpty()).count();
+        dataExtractionService.extractDataFromReader(new StringReader(text), rows -> { });
+
+        // Called once for every record, whatever anchors it has
+        assertThat(registry.get("extraction.extractor").tag("extractor", "unknown_terms").timer().count() - unknownTermsBefore)
+                .isEqualTo(records);
+        assertThat(registry.get("extraction.extractor").tag("extractor", "anchors").timer().totalTime(TimeUnit.NANOSECONDS))
+                .isPositive();
+        assertThat(registry.get("extraction.request").tag("path", "stream").timer().count()).isPositive();
+    }
+
+    @Test
+    void countsDatesThatDoNotParse() {
+        double before = registry.get("extraction.date.parse.failures").tag("source", "date_of_ritual").functionCounter().count();
+
+        assertThat(textParsingUtil.extractDateOfRitual("तिथि ३१.०२.२०२० को")).isNull();
+
+        assertThat(registry.get("extraction.date.parse.failures").tag("source", "date_of_ritual").functionCounter().count())
+                .isEqualTo(before + 1);
+    }
+
+    @Test
+    void utf8LengthMatchesEncoding() {
+        for (String text : new String[]{"", "abc", "जिला गया", "\u00e9\uD83D\uDE00x"}) {
+            assertThat(ExtractionMetrics.utf8Length(text)).as(text).isEqualTo(text.getBytes(StandardCharsets.UTF_8).length);
+        }
+    }
+
+    private double counter(String name) {
+        return registry.get(name).counter().count();
+    }
+}
@@ -0,0 +1,139 @@
+package com.extract.ExtraactAllData.service;
+
+import com.extract.ExtraactAllData.model.ExtractedData;
+import com.extract.ExtraactAllData.model.LineEdit;
+import com.extract.ExtraactAllData.model.ParagraphResult;
+import com.extract.ExtraactAllData.model.RowChange;
+import com.extract.ExtraactAllData.model.SessionUpdate;
+import com.extract.ExtraactAllData.support.SyntheticCorpus;
+import com.extract.ExtraactAllData.util.TextParsingUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(classes = {TextParsingUtil.class, ExtractionMetrics.class, RecordExtractionEngine.class, DataExtractionService.class,
+        ParagraphResultCache.class, ExtractionSessionService.class}, properties = "extraction.cache.enabled=false")
+class ExtractionSessionServiceTests {
+
+    @Autowired
+    private ExtractionSessionService sessionService;
+
+    @Autowired
+    private DataExtractionService dataExtractionService;
+
+    @Test
+    void editedRowsMatchAFullExtractionOfTheEditedText() {
+        String text = SyntheticCorpus.generate(200, 3);
+        String[] replacements = SyntheticCorpus.generate(100, 4).split("\n");
+        SessionUpdate created = sessionService.create(text);
+        String sessionId = created.getSessionId();
+        List<ExtractedData> rows = new ArrayList<>(created.getChanges().get(0).getRows());
+        assertThat(rows).isEqualTo(dataExtractionService.extractDataFromText(text));
+
+        Random random = new Random(5L);
+        for (int i = 0; i < 300; i++) {
+            int lineCount = sessionService.text(sessionId).split("\n", -1).length;
+            int startLine = 1 + random.nextInt(lineCount + 1);
+            int removeLines = Math.min(random.nextInt(4), lineCount + 1 - startLine);
+            List<String> lines = new ArrayList<>();
+            for (int n = random.nextInt(4); n > 0; n--) {
+                lines.add(random.nextInt(5) == 0 ? "" : replacements[random.nextInt(replacements.length)]);
+            }
+
+            SessionUpdate update = sessionService.edit(sessionId, List.of(new LineEdit(startLine, removeLines, lines)));
+            RowChange change = update.getChanges().get(0);
+            rows = applyChange(rows, change);
+
+            List<ExtractedData> expected = dataExtractionService.extractDataFromText(sessionService.text(sessionId));
+            assertThat(rows).as("edit %d", i).isEqualTo(expected);
+            assertThat(sessionService.rows(sessionId)).isEqualTo(expected);
+            assertThat(update.getRowCount()).isEqualTo(expected.size());
+            // A small edit only touches the paragraphs around it
+            assertThat(change.getParagraphsExtracted()).isLessThanOrEqualTo(removeLines + lines.size() + 2);
+        }
+    }
+
+    @Test
+    void unchangedParagraphsAreNotExtractedAgain() {
+        String text = "बा० रामेश्वर पण्डा\nप्रा. राम कुमार पुत्र श्याम लाल\nजिला गया\n\nप्रा. मोहन लाल\nजिला पटना\n";
+        String sessionId = sessionService.create(text).getSessionId();
+
+        RowChange change = sessionService.edit(sessionId, List.of(new LineEdit(6, 1, List.of("जिला नालंदा")))).getChanges().get(0);
+        assertThat(change.getParagraphsExtracted()).isEqualTo(1);
+        assertThat(change.getRows()).allSatisfy(row -> assertThat(row.getDistrict()).isEqualTo("नालंदा"));
+
+        // Rewriting a line with the same text changes nothing
+        change = sessionService.edit(sessionId, List.of(new LineEdit(1, 1, List.of("बा० रामेश्वर पण्डा")))).getChanges().get(0);
+        assertThat(change.getParagraphsExtracted()).isZero();
+        assertThat(change.getRows()).isEmpty();
+        assertThat(change.getRowDelta()).isZero();
+    }
+
+    @Test
+    void rejectsEditsOutsideTheDocumentAndUnknownSessions() {
+        String sessionId = sessionService.create("प्रा. राम कुमार\nजिला गया\n").getSessionId();
+
+        assertThatThrownBy(() -> sessionService.edit(sessionId, List.of(new LineEdit(1, 1, List.of("x")), new LineEdit(3, 1, null))))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(sessionService.text(sessionId)).isEqualTo("प्रा. राम कुमार\nजिला गया"); // Nothing of the batch was applied
+
+        assertThat(sessionService.close(sessionId)).isTrue();
+        assertThat(sessionService.edit(sessionId, List.of())).isNull();
+        assertThat(sessionService.rows(sessionId)).isNull();
+    }
+
+    @Test
+    void aBatchThatFailsHalfwayIsUndone() {
+        String text = "बा० रामेश्वर पण्डा\nप्रा. राम कुमार पुत्र श्याम लाल\nजिला गया\n\nप्रा. मोहन लाल\nजिला पटना\n";
+        String sessionId = sessionService.create(text).getSessionId();
+        List<ExtractedData> rows = sessionService.rows(sessionId);
+
+        DataExtractionService failing = new DataExtractionService() {
+            @Override
+            public void admit() {
+            }
+
+            @Override
+            public ParagraphResult extractParagraph(String record) {
+                if (record.contains("गलत")) throw new IllegalStateException("Extraction failed");
+                return dataExtractionService.extractParagraph(record);
+            }
+        };
+        ReflectionTestUtils.setField(sessionService, "dataExtractionService", failing);
+        try {
+            assertThatThrownBy(() -> sessionService.edit(sessionId, List.of(
+                    new LineEdit(2, 1, List.of("प्रा. राम कुमार", "", "प्रा. सोहन लाल")),
+                    new LineEdit(7, 1, List.of("जिला गलत")))))
+                    .isInstanceOf(IllegalStateException.class);
+        } finally {
+            ReflectionTestUtils.setField(sessionService, "dataExtractionService", dataExtractionService);
+        }
+        assertThat(sessionService.text(sessionId)).isEqualTo(text.substring(0, text.length() - 1));
+        assertThat(sessionService.rows(sessionId)).isEqualTo(rows);
+
+        // Line numbers of the paragraphs are back as well, so later edits land where they should
+        SessionUpdate update = sessionService.edit(sessionId, List.of(new LineEdit(6, 1, List.of("जिला नालंदा"))));
+        assertThat(update.getChanges().get(0).getParagraphsExtracted()).isEqualTo(1);
+        assertThat(sessionService.rows(sessionId)).isEqualTo(dataExtractionService.extractDataFromText(sessionService.text(sessionId)));
+    }
+
+    // What a client does with a change: replace the removed rows and renumber the ones after them
+    private static List<ExtractedData> applyChange(List<ExtractedData> rows, RowChange change) {
+        int from = change.getFirstDataPosition() - 1;
+        List<ExtractedData> result = new ArrayList<>(rows.subList(0, from));
+        result.addAll(change.getRows());
+        for (ExtractedData row : rows.subList(from + change.getRemovedRows(), rows.size())) {
+            row.setDataPosition(String.valueOf(Integer.parseInt(row.getDataPosition()) + change.getRowDelta()));
+            result.add(row);
+        }
+        return result;
+    }
+}
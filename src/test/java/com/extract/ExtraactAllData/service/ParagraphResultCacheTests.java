@@ -0,0 +1,127 @@
+package com.extract.ExtraactAllData.service;
+
+import com.extract.ExtraactAllData.model.ExtractedData;
+import com.extract.ExtraactAllData.model.Individual;
+import com.extract.ExtraactAllData.model.ParagraphResult;
+import com.extract.ExtraactAllData.model.RecordFields;
+import com.extract.ExtraactAllData.support.SyntheticCorpus;
+import com.extract.ExtraactAllData.util.TextParsingUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(classes = {TextParsingUtil.class, ExtractionMetrics.class, RecordExtractionEngine.class, DataExtractionService.class, ParagraphResultCache.class})
+class ParagraphResultCacheTests {
+
+    @TempDir
+    static Path cacheDir;
+
+    @Autowired
+    private DataExtractionService dataExtractionService;
+
+    @Autowired
+    private ParagraphResultCache paragraphResultCache;
+
+    @Autowired
+    private TextParsingUtil textParsingUtil;
+
+    @Autowired
+    private ExtractionMetrics metrics;
+
+    @DynamicPropertySource
+    static void cacheProperties(DynamicPropertyRegistry registry) {
+        registry.add("extraction.cache.disk-path", () -> cacheDir.resolve("results.jsonl").toString());
+        registry.add("extraction.cache.maximum-size", () -> "100000");
+    }
+
+    @Test
+    void repeatedParagraphsAreServedFromCacheAndSurviveRestart() throws IOException {
+        String text = SyntheticCorpus.generate(300, 11);
+        List<ExtractedData> first = dataExtractionService.extractDataFromText(text);
+        long missesAfterFirst = paragraphResultCache.stats().missCount();
+
+        // Overlapping resubmission: the same paragraphs again, numbered as one document
+        List<ExtractedData> second = dataExtractionService.extractDataFromText(text);
+        assertThat(second).isEqualTo(first);
+        assertThat(paragraphResultCache.stats().missCount()).isEqualTo(missesAfterFirst);
+        assertThat(paragraphResultCache.stats().hitCount()).isGreaterThan(0);
+
+        // Reload from disk as after a restart
+        paragraphResultCache.flushDisk();
+        paragraphResultCache.invalidateMemory();
+        paragraphResultCache.loadFromDisk();
+        assertThat(paragraphResultCache.statsSummary().get("diskEntriesLoaded")).isEqualTo((int) missesAfterFirst);
+
+        assertThat(dataExtractionService.extractDataFromText(text)).isEqualTo(first);
+        assertThat(paragraphResultCache.stats().missCount()).isEqualTo(missesAfterFirst);
+    }
+
+    @Test
+    void callersGetTheirOwnCopyOfACachedResult() {
+        Function<String, ParagraphResult> extractor = paragraph -> {
+            RecordFields fields = new RecordFields();
+            fields.setDistrict("गया");
+            fields.setNames(new ArrayList<>(List.of("रामनाथ सिंह")));
+            return new ParagraphResult(fields, new ArrayList<>(List.of(new Individual("रामनाथ", "सिंह", "पिता"))));
+        };
+        String paragraph = "callersGetTheirOwnCopyOfACachedResult";
+
+        ParagraphResult first = paragraphResultCache.get(paragraph, extractor);
+        first.getFields().setDistrict("पटना");
+        first.getFields().getNames().clear();
+        first.getIndividuals().get(0).setRelation("अन्य");
+        first.getIndividuals().add(new Individual());
+
+        ParagraphResult second = paragraphResultCache.get(paragraph, extractor);
+        assertThat(second).isEqualTo(extractor.apply(paragraph)).isNotSameAs(paragraphResultCache.get(paragraph, extractor));
+    }
+
+    @Test
+    void reloadedFileKeepsOnlyTheNewestMaximumSizeEntries(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("results.jsonl");
+        ParagraphResultCache writer = newCache(file, 1_000);
+        for (int i = 0; i < 200; i++) {
+            String district = "जिला " + i;
+            writer.get("paragraph " + i, paragraph -> {
+                RecordFields fields = new RecordFields();
+                fields.setDistrict(district);
+                return new ParagraphResult(fields, new ArrayList<>());
+            });
+        }
+        writer.close();
+        assertThat(Files.readAllLines(file)).hasSize(200);
+
+        ParagraphResultCache reader = newCache(file, 50);
+        assertThat(reader.statsSummary().get("diskEntriesLoaded")).isEqualTo(50);
+        List<String> lines = Files.readAllLines(file);
+        assertThat(lines).hasSize(50);
+        assertThat(lines.get(0)).contains("जिला 150");
+        assertThat(lines.get(49)).contains("जिला 199");
+        reader.close();
+    }
+
+    private ParagraphResultCache newCache(Path file, long maximumSize) throws IOException {
+        ParagraphResultCache cache = new ParagraphResultCache();
+        ReflectionTestUtils.setField(cache, "textParsingUtil", textParsingUtil);
+        ReflectionTestUtils.setField(cache, "metrics", metrics);
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "maximumSize", maximumSize);
+        ReflectionTestUtils.setField(cache, "parserVersion", "1");
+        ReflectionTestUtils.setField(cache, "diskPath", file.toString());
+        cache.init();
+        return cache;
+    }
+}
@@ -0,0 +1,117 @@
+package com.extract.ExtraactAllData.service;
+
+import com.extract.ExtraactAllData.model.RecordFields;
+import com.extract.ExtraactAllData.support.SampleTexts;
+import com.extract.ExtraactAllData.support.SyntheticCorpus;
+import com.extract.ExtraactAllData.util.PatternRegistry;
+import com.extract.ExtraactAllData.util.TextParsingUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(classes = {TextParsingUtil.class, ExtractionMetrics.class, RecordExtractionEngine.class})
+class RecordExtractionEngineTests {
+
+    @Autowired
+    private TextParsingUtil textParsingUtil;
+
+    @Autowired
+    private RecordExtractionEngine recordExtractionEngine;
+
+    @Test
+    void engineMatchesIndividualExtractors() throws IOException {
+        List<String> paragraphs = textParsingUtil.splitIntoParagraphsByTrigger(SampleTexts.bahiRecords());
+        assertThat(paragraphs).hasSizeGreaterThan(5);
+
+        for (String record : paragraphs) {
+            RecordFields fields = recordExtractionEngine.extract(record);
+
+            assertThat(fields.getImageNo()).as(record).isEqualTo(textParsingUtil.extractImageNo(record));
+            assertThat(fields.getPandaName()).as(record).isEqualTo(textParsingUtil.extractPandaName(record));
+            assertThat(fields.getBahiName()).as(record).isEqualTo(textParsingUtil.extractBahiName(record));
+            assertThat(fields.getFolioNo()).as(record).isEqualTo(textParsingUtil.extractFolioNo(record));
+            assertThat(fields.getDistrict()).as(record).isEqualTo(textParsingUtil.extractJila(record));
+            assertThat(fields.getTehsil()).as(record).isEqualTo(textParsingUtil.extractTahsil(record));
+            assertThat(fields.getStation()).as(record).isEqualTo(textParsingUtil.extractStation(record));
+            assertThat(fields.getPostOffice()).as(record).isEqualTo(textParsingUtil.extractPostOffice(record));
+            assertThat(fields.getCityVillage()).as(record).isEqualTo(textParsingUtil.extractCityVillage(record));
+            assertThat(fields.getFromWhichPlace()).as(record).isEqualTo(textParsingUtil.extractFromWhichPlace(record));
+            assertThat(fields.getCaste()).as(record).isEqualTo(textParsingUtil.extractCaste(record));
+            assertThat(fields.getSubcaste()).as(record).isEqualTo(textParsingUtil.extractSubCaste(record));
+            assertThat(fields.getRitualName()).as(record).isEqualTo(textParsingUtil.extractanusthan_ka_naam(record));
+            assertThat(fields.getWhoseRitual1()).as(record).isEqualTo(textParsingUtil.extractKiskaAnusthan(record));
+            assertThat(fields.getWhoseRitual2()).as(record).isEqualTo(textParsingUtil.extractKiskaAnusthan2(record));
+            assertThat(fields.getContactNo1()).as(record).isEqualTo(textParsingUtil.extractContactNo1(record));
+            assertThat(fields.getContactNo2()).as(record).isEqualTo(textParsingUtil.extractContactNo2(record));
+            assertThat(fields.getFlagsAndException()).as(record).isEqualTo(textParsingUtil.extractUnknownTerms(record));
+            assertThat(fields.getDateOfRitual()).as(record).isEqualTo(textParsingUtil.extractDateOfRitual(record));
+            assertThat(fields.getGender()).as(record).isEqualTo(textParsingUtil.extractGender(record));
+            assertThat(fields.getPrarthiName()).as(record).isEqualTo(textParsingUtil.extractPraMainPersonName(record));
+            assertThat(fields.getNames()).as(record).isEqualTo(textParsingUtil.extractAllNames(record));
+
+            String rawDateStr = textParsingUtil.extractExtraNotesOrDate(record);
+            LocalDate extractedDate = (rawDateStr != null) ? textParsingUtil.parseDate(rawDateStr) : null;
+            assertThat(fields.getAdditionalInforma()).as(record).isEqualTo((extractedDate != null) ? rawDateStr : null);
+        }
+    }
+
+    // The passes extractUnknownTerms used to run after the ritual-person fallback
+    private static final List<Pattern> PASSES_AFTER_FALLBACK = List.of(
+            PatternRegistry.BAHI_NAME_LEADING_PATTERN,
+            PatternRegistry.PRA_NAME_PATTERN,
+            PatternRegistry.FATHER_RELATION_PATTERN,
+            PatternRegistry.MOTHER_RELATION_PATTERN,
+            Pattern.compile("(?:चाचा|काका)\\s+((?:स्व[०o]?|श्री)?\\s*[\\p{IsDevanagari}\\s]+(?:\\s*चौ)?)"),
+            PatternRegistry.GRANDFATHER_RELATION_PATTERN,
+            Pattern.compile("के\\s*(?:पिता|पीता|पिटा|पा)"),
+            Pattern.compile("के\\s*भाई"),
+            Pattern.compile("के\\s*लड़का"),
+            Pattern.compile("प्रा\\."),
+            Pattern.compile("बा०"));
+
+    private static final String[] FRAGMENTS = {
+            "प्रा", "प्रा.", "बा०", "के", "पिता", "भाई", "लड़का", "चाचा", "माँ", "पुत्र", "स्व", "श्री", "ब्राह्मण वाही",
+            "क", "े", "०", "।", "राम", " ", "  ", "\n", ".", ",", "-", "o", "a", "Image No", "Folio No", "12", "9876543210"
+    };
+
+    @Test
+    void passesDroppedAfterTheFallbackCanNeverMatch() throws IOException {
+        List<String> texts = new ArrayList<>(textParsingUtil.splitIntoParagraphsByTrigger(SampleTexts.bahiRecords()));
+        texts.addAll(textParsingUtil.splitIntoParagraphsByTrigger(SyntheticCorpus.generate(300, 9L)));
+        texts.addAll(SampleTexts.fromFragments(FRAGMENTS, 50_000, 10, 13L));
+
+        // The passes between the fallback and the dropped ones only put spaces where they remove text
+        for (String text : texts) {
+            String residue = PatternRegistry.WHOSE_RITUAL_PERSON_FALLBACK_PATTERN.matcher(text).replaceAll(" ").trim();
+            for (Pattern pattern : PASSES_AFTER_FALLBACK) {
+                assertThat(pattern.matcher(residue).find()).as("%s in %s", pattern, text).isFalse();
+            }
+        }
+    }
+
+    @Test
+    void recordOverBudgetIsFlaggedInsteadOfFinished() {
+        String record = SyntheticCorpus.generate(2000, 5L).replace('\n', ' ');
+        long before = recordExtractionEngine.recordsOverBudget();
+        ReflectionTestUtils.setField(recordExtractionEngine, "recordBudgetMs", 1L);
+        try {
+            RecordFields fields = recordExtractionEngine.extract(record);
+
+            assertThat(fields.isOverBudget()).isTrue();
+            assertThat(fields.getFlagsAndException()).contains("1 ms record budget");
+            assertThat(fields.getNames()).isNotNull();
+            assertThat(recordExtractionEngine.recordsOverBudget()).isEqualTo(before + 1);
+        } finally {
+            ReflectionTestUtils.setField(recordExtractionEngine, "recordBudgetMs", 2000L);
+        }
+    }
+}
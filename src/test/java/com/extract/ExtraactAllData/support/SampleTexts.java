@@ -0,0 +1,38 @@
+package com.extract.ExtraactAllData.support;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Inputs for the tests that compare a rewritten extractor with the regex it replaced: the real register
+ * sample, and random texts glued together from fragments chosen so that matches meet and overlap.
+ */
+public final class SampleTexts {
+
+    private SampleTexts() {
+    }
+
+    // src/test/resources/samples/bahi-records.txt
+    public static String bahiRecords() throws IOException {
+        try (InputStream in = SampleTexts.class.getResourceAsStream("/samples/bahi-records.txt")) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    // count texts of 1 to maxParts random fragments each; the same seed always gives the same texts
+    public static List<String> fromFragments(String[] fragments, int count, int maxParts, long seed) {
+        Random random = new Random(seed);
+        List<String> texts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            StringBuilder text = new StringBuilder();
+            int parts = 1 + random.nextInt(maxParts);
+            for (int p = 0; p < parts; p++) text.append(fragments[random.nextInt(fragments.length)]);
+            texts.add(text.toString());
+        }
+        return texts;
+    }
+}
@@ -0,0 +1,94 @@
+package com.extract.ExtraactAllData.support;
+
+import java.util.Random;
+
+/**
+ * Deterministic generator of bahi-register style Devanagari text for tests and benchmarks.
+ * The same seed and record count always produce the same text.
+ */
+public final class SyntheticCorpus {
+
+    private static final String[] GIVEN_NAMES = {"रमेश", "सुरेश", "महेन्द्र", "जगदीश", "रामनाथ", "शिवशंकर", "हरिप्रसाद", "विकास",
+            "अजय", "सोहन", "किशन", "मोहन", "बैजनाथ", "परमेश्वर", "रामकिशोर", "श्यामसुंदर", "भोला", "दिनेश"};
+    private static final String[] FEMALE_NAMES = {"कमला", "सावित्री", "गीता", "कलावती", "रामप्यारी", "सुन्दर", "सीमा"};
+    private static final String[] SURNAMES = {"सिंह", "यादव", "शर्मा", "वर्मा", "गुप्ता", "त्रिपाठी", "पाठक", "प्रसाद", "लाल", "राय"};
+    private static final String[] PLACES = {"गोरखपुर", "बलिया", "देवरिया", "रसड़ा", "बांसगांव", "सिकंदरपुर", "मऊ", "बक्सर"};
+    private static final String[] CASTES = {"कुर्मी", "ब्राह्मण", "यादव", "राजपूत", "भूमिहार", "बनिया", "जाट"};
+    private static final String[] SUB_CASTES = {"अहीर", "वैश्य", "चौहान", "राठौर", "मिश्र", "कुशवाहा"};
+    private static final String[] RITUALS = {"अस्ती लाये", "श्राद्ध", "पिंड दान", "दाह संस्कार", "हवन", "पूजन"};
+    private static final String[] STARTERS = {"बा०", "प्रा०", "प्रा.", "ता.", "दिनांक"};
+    private static final char[] DIGITS = {'०', '१', '२', '३', '४', '५', '६', '७', '८', '९'};
+
+    private SyntheticCorpus() {
+    }
+
+    public static String generate(int records, long seed) {
+        Random random = new Random(seed);
+        StringBuilder text = new StringBuilder(records * 220);
+        for (int i = 0; i < records; i++) {
+            appendRecord(text, random);
+            text.append(random.nextInt(4) == 0 ? "\n\n" : "\n");
+        }
+        return text.toString();
+    }
+
+    private static void appendRecord(StringBuilder text, Random random) {
+        String starter = pick(STARTERS, random);
+        text.append(starter).append(' ');
+        if (starter.equals("ता.") || starter.equals("दिनांक")) {
+            appendDate(text, random);
+            text.append(" बा० ");
+        }
+        appendName(text, random, GIVEN_NAMES);
+
+        if (random.nextBoolean()) text.append(" पिता स्व० ").append(pick(GIVEN_NAMES, random)).append(' ').append(pick(SURNAMES, random));
+        if (random.nextInt(3) == 0) text.append(" माता श्रीमती ").append(pick(FEMALE_NAMES, random)).append(" देवी");
+        if (random.nextInt(3) == 0) text.append(" के भाई ").append(pick(GIVEN_NAMES, random));
+        if (random.nextInt(4) == 0) text.append(" के लड़का ").append(pick(GIVEN_NAMES, random)).append(' ').append(pick(SURNAMES, random));
+        if (random.nextBoolean()) text.append(" जिला ").append(pick(PLACES, random)).append(" तहसील ").append(pick(PLACES, random));
+        if (random.nextInt(3) == 0) text.append(" ग्राम ").append(pick(PLACES, random));
+        if (random.nextBoolean()) text.append(' ').append(pick(CASTES, random));
+        if (random.nextInt(3) == 0) text.append(' ').append(pick(SUB_CASTES, random));
+
+        // Long records usually wrap onto a second line in the transcription
+        text.append(random.nextInt(3) == 0 ? "\n" : " ");
+        text.append(pick(RITUALS, random)).append(" का ");
+        text.append(random.nextBoolean() ? "स्व० " : "श्रीमती ");
+        appendName(text, random, random.nextBoolean() ? GIVEN_NAMES : FEMALE_NAMES);
+        if (random.nextInt(3) == 0) text.append(" मोबाइल ").append(6 + random.nextInt(4)).append(digits(random, 9));
+        if (random.nextBoolean()) {
+            text.append(" ता. ");
+            appendDate(text, random);
+        }
+    }
+
+    private static void appendName(StringBuilder text, Random random, String[] givenNames) {
+        text.append(pick(givenNames, random)).append(' ').append(pick(SURNAMES, random));
+    }
+
+    private static void appendDate(StringBuilder text, Random random) {
+        boolean devanagari = random.nextInt(4) != 0;
+        char separator = ".-/".charAt(random.nextInt(3));
+        text.append(number(1 + random.nextInt(28), devanagari)).append(separator)
+                .append(number(1 + random.nextInt(12), devanagari)).append(separator)
+                .append(random.nextBoolean() ? number(1950 + random.nextInt(70), devanagari) : number(random.nextInt(100), devanagari));
+    }
+
+    private static String number(int value, boolean devanagari) {
+        String ascii = value < 10 ? "0" + value : String.valueOf(value);
+        if (!devanagari) return ascii;
+        StringBuilder converted = new StringBuilder(ascii.length());
+        for (int i = 0; i < ascii.length(); i++) converted.append(DIGITS[ascii.charAt(i) - '0']);
+        return converted.toString();
+    }
+
+    private static String digits(Random random, int count) {
+        StringBuilder digits = new StringBuilder(count);
+        for (int i = 0; i < count; i++) digits.append((char) ('0' + random.nextInt(10)));
+        return digits.toString();
+    }
+
+    private static String pick(String[] values, Random random) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,56 @@
+package com.extract.ExtraactAllData.support;
+
+import com.extract.ExtraactAllData.excelGenrator.ExcelColumn;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads exported workbooks back as the formatted text of their cells, one list per row and one entry
+ * per {@link ExcelColumn}, so workbooks written in different ways can be compared with equals.
+ */
+public final class XlsxCells {
+
+    private XlsxCells() {
+    }
+
+    // Every cell of the first sheet, blank and missing cells both read as ""
+    public static List<List<String>> firstSheet(byte[] xlsx) throws IOException {
+        try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(xlsx))) {
+            return of(workbook.getSheetAt(0));
+        }
+    }
+
+    // Cells of every sheet by sheet name, header row included
+    public static Map<String, List<List<String>>> bySheet(byte[] xlsx) throws IOException {
+        Map<String, List<List<String>>> sheets = new LinkedHashMap<>();
+        try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(xlsx))) {
+            for (Sheet sheet : workbook) sheets.put(sheet.getSheetName(), of(sheet));
+        }
+        return sheets;
+    }
+
+    private static List<List<String>> of(Sheet sheet) {
+        DataFormatter formatter = new DataFormatter();
+        List<List<String>> cells = new ArrayList<>();
+        for (Row row : sheet) {
+            List<String> values = new ArrayList<>();
+            for (int i = 0; i < ExcelColumn.values().length; i++) {
+                Cell cell = row.getCell(i);
+                values.add(cell == null ? "" : formatter.formatCellValue(cell));
+            }
+            cells.add(values);
+        }
+        return cells;
+    }
+}
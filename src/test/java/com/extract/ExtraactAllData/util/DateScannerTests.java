@@ -0,0 +1,137 @@
+package com.extract.ExtraactAllData.util;
+
+import com.extract.ExtraactAllData.support.SampleTexts;
+import com.extract.ExtraactAllData.support.SyntheticCorpus;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DateScannerTests {
+
+    // The patterns TextParsingUtil used before, kept as the reference
+    private static final Pattern DATE_PATTERN = Pattern.compile("(\\d{1,2}[-./]\\d{1,2}[-./]\\d{2,4}|[०-९]{1,2}[-./][०-९]{1,2}[-./][०-९]{2,4})");
+    private static final Pattern RITUAL_DATE_PATTERN = Pattern.compile(
+            "(?:ता|त|ता०|त०|ता\\.|ता\\:|त\\.|त\\:)?\\s*" +
+                    "([०१२३४५६७८९\\d]{1,2})[./\\-\\s]" +
+                    "([०१२३४५६७८९\\d]{1,2})[./\\-\\s]" +
+                    "([०१२३४५६७८९\\d]{2,4})");
+
+    // Digits of both scripts, separators, prefixes and whatever else sits around dates
+    private static final String[] FRAGMENTS = {
+            "0", "1", "2", "3", "9", "12", "31", "2020", "०", "१", "२", "३", "९", "१२", "३१", "२०२०", "99",
+            "-", ".", "/", " ", "\t", "\n", "ता", "त", "ता०", "ता.", "त:", "दि.", ":", "राम", "a"
+    };
+
+    @Test
+    void findsTheSameDatesAsThePatterns() throws IOException {
+        List<String> texts = new ArrayList<>();
+        TextParsingUtil textParsingUtil = new TextParsingUtil();
+        texts.addAll(textParsingUtil.splitIntoParagraphsByTrigger(SampleTexts.bahiRecords()));
+        texts.addAll(textParsingUtil.splitIntoParagraphsByTrigger(SyntheticCorpus.generate(500, 21L)));
+
+        texts.addAll(SampleTexts.fromFragments(FRAGMENTS, 100_000, 12, 7L));
+
+        for (String text : texts) {
+            List<String> dates = regexDates(text);
+            String last = dates.isEmpty() ? null : dates.get(dates.size() - 1);
+            DateScanner.Dates scanned = DateScanner.scan(text);
+
+            assertThat(DateScanner.numericDates(text)).as(text).isEqualTo(dates);
+            assertThat(DateScanner.containsNumericDate(text)).as(text).isEqualTo(!dates.isEmpty());
+            assertThat(DateScanner.replaceNumericDates(text)).as(text).isEqualTo(DATE_PATTERN.matcher(text).replaceAll(" ").trim());
+            assertThat(scanned.getLastNumericDate()).as(text).isEqualTo(last);
+            assertThat(scanned.getAdditionalInforma()).as(text).isEqualTo(last != null && regexParseDate(last) != null ? last : null);
+            assertThat(scanned.getRitualDate()).as(text).isEqualTo(regexRitualDate(text));
+        }
+    }
+
+    @Test
+    void parsesTheSameAsLocalDateParse() {
+        Random random = new Random(3L);
+        String[] separators = {"-", ".", "/"};
+        for (int i = 0; i < 20_000; i++) {
+            String text = random.nextInt(40) + separators[random.nextInt(3)] + random.nextInt(15) + separators[random.nextInt(3)]
+                    + (random.nextBoolean() ? String.format("%02d", random.nextInt(100)) : String.format("%04d", random.nextInt(2100)));
+            LocalDate expected = regexParseDate(text);
+            if (expected == null) {
+                assertThatThrownBy(() -> DateScanner.parseNumericDate(text)).as(text).isInstanceOf(DateTimeException.class);
+            } else {
+                assertThat(DateScanner.parseNumericDate(text)).as(text).isEqualTo(expected);
+            }
+        }
+        assertThat(DateScanner.parseNumericDate("31-2-2020")).isEqualTo(LocalDate.of(2020, 2, 29));
+        assertThat(DateScanner.parseNumericDate("5-3-1990 को")).isEqualTo(LocalDate.of(1990, 3, 5));
+        assertThat(DateScanner.parseNumericDate("5-3-190")).isNull();
+        assertThat(DateScanner.parseNumericDate("५-३-१९९०")).isNull(); // Only ASCII digits are read, as before
+    }
+
+    @Test
+    void ritualDatesSkipImpossibleDays() {
+        DateScanner.Dates dates = DateScanner.scan("ता. ३१.०२.२०२० और ता. 5-3-90, 6/4/2001");
+        assertThat(dates.getRitualDate()).isEqualTo(LocalDate.of(1990, 3, 5).format(DateTimeFormatter.ofPattern("d MMMM yyyy", new Locale("hi", "IN"))));
+        assertThat(dates.getInvalidRitualDates()).isEqualTo(1);
+        assertThat(dates.getLastNumericDate()).isEqualTo("6/4/2001");
+    }
+
+    private static List<String> regexDates(String text) {
+        List<String> dates = new ArrayList<>();
+        Matcher matcher = DATE_PATTERN.matcher(text);
+        while (matcher.find()) dates.add(toAscii(matcher.group()));
+        return dates;
+    }
+
+    // Null both where the old parseDate returned null and where it caught an exception
+    private static LocalDate regexParseDate(String dateStr) {
+        try {
+            String clean = dateStr.replaceAll("[^0-9./-]", "").replace("/", "-").replace(".", "-");
+            if (clean.matches("\\d{1,2}-\\d{1,2}-\\d{4}")) {
+                return LocalDate.parse(clean, DateTimeFormatter.ofPattern("d-M-yyyy"));
+            } else if (clean.matches("\\d{1,2}-\\d{1,2}-\\d{2}")) {
+                int year = Integer.parseInt(clean.substring(clean.lastIndexOf("-") + 1));
+                year += (year <= LocalDate.now().getYear() % 100) ? 2000 : 1900;
+                return LocalDate.parse(clean.substring(0, clean.lastIndexOf("-") + 1) + year, DateTimeFormatter.ofPattern("d-M-yyyy"));
+            }
+        } catch (Exception e) {
+            return null;
+        }
+        return null;
+    }
+
+    private static String regexRitualDate(String text) {
+        Matcher matcher = RITUAL_DATE_PATTERN.matcher(text);
+        while (matcher.find()) {
+            String yearStr = toAscii(matcher.group(3));
+            try {
+                int day = Integer.parseInt(toAscii(matcher.group(1)));
+                int month = Integer.parseInt(toAscii(matcher.group(2)));
+                int year = Integer.parseInt(yearStr.length() == 2
+                        ? (Integer.parseInt(yearStr) < 50 ? "20" + yearStr : "19" + yearStr)
+                        : yearStr);
+                if (day >= 1 && day <= 31 && month >= 1 && month <= 12) {
+                    return LocalDate.of(year, month, day).format(DateTimeFormatter.ofPattern("d MMMM yyyy", new Locale("hi", "IN")));
+                }
+            } catch (Exception e) {
+                // Next match
+            }
+        }
+        return null;
+    }
+
+    private static String toAscii(String text) {
+        StringBuilder ascii = new StringBuilder(text.length());
+        for (char c : text.toCharArray()) ascii.append(c >= '०' && c <= '९' ? (char) ('0' + (c - '०')) : c);
+        return ascii.toString();
+    }
+}
@@ -0,0 +1,74 @@
+package com.extract.ExtraactAllData.util;
+
+import com.extract.ExtraactAllData.support.SyntheticCorpus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MappedTextReaderTests {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void decodesCharsSplitAcrossWindows() throws IOException {
+        String text = SyntheticCorpus.generate(200, 3L) + "🙏 अंत"; // 3-byte Devanagari and a 4-byte emoji
+        Path file = write(text.getBytes(StandardCharsets.UTF_8));
+
+        for (int window : new int[]{16, 17, 18, 19, 1000, MappedTextReader.DEFAULT_WINDOW_BYTES}) {
+            assertThat(readAll(file, window)).as("window %d", window).isEqualTo(text);
+        }
+    }
+
+    @Test
+    void skipsByteOrderMarkAndReplacesMalformedBytes() throws IOException {
+        byte[] body = "प्रा० राम".getBytes(StandardCharsets.UTF_8);
+        byte[] bytes = new byte[body.length + 4];
+        bytes[0] = (byte) 0xEF;
+        bytes[1] = (byte) 0xBB;
+        bytes[2] = (byte) 0xBF;
+        System.arraycopy(body, 0, bytes, 3, body.length);
+        bytes[bytes.length - 1] = (byte) 0xE0; // truncated sequence at the end of the file
+
+        assertThat(readAll(write(bytes), 16)).isEqualTo("प्रा० राम�");
+        assertThat(readAll(write(new byte[0]), 16)).isEmpty();
+    }
+
+    @Test
+    void paragraphsMatchTheInMemorySplit() throws IOException {
+        String text = SyntheticCorpus.generate(500, 9L);
+        Path file = write(text.getBytes(StandardCharsets.UTF_8));
+
+        List<String> paragraphs = new ArrayList<>();
+        try (Reader reader = new MappedTextReader(file, 4096)) {
+            ParagraphSplitter.split(reader, paragraphs::add);
+        }
+        assertThat(paragraphs).isEqualTo(new TextParsingUtil().splitIntoParagraphsByTrigger(text));
+    }
+
+    private String readAll(Path file, int window) throws IOException {
+        StringBuilder text = new StringBuilder();
+        char[] buffer = new char[777];
+        try (MappedTextReader reader = new MappedTextReader(file, window)) {
+            int count;
+            while ((count = reader.read(buffer, 0, buffer.length)) != -1) text.append(buffer, 0, count);
+            assertThat(reader.position()).isEqualTo(reader.size());
+        }
+        return text.toString();
+    }
+
+    private Path write(byte[] bytes) throws IOException {
+        Path file = Files.createTempFile(dir, "input", ".txt");
+        Files.write(file, bytes);
+        return file;
+    }
+}
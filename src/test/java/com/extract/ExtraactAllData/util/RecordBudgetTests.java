@@ -0,0 +1,40 @@
+package com.extract.ExtraactAllData.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RecordBudgetTests {
+
+    // Adjacent greedy loops over the same chars: polynomial backtracking on a run of 'a' without the closing 'b'
+    private static final Pattern CATASTROPHIC = Pattern.compile("a*a*a*a*a*a*b");
+
+    @Test
+    void backtrackingPatternIsStoppedAtTheDeadline() {
+        String text = "a".repeat(200) + "c";
+        long start = System.nanoTime();
+        try (RecordBudget ignored = RecordBudget.open(50)) {
+            assertThatThrownBy(() -> CATASTROPHIC.matcher(RecordBudget.guard(text)).find())
+                    .isInstanceOf(RecordBudget.ExceededException.class)
+                    .hasMessageContaining("50 ms");
+        }
+        assertThat((System.nanoTime() - start) / 1_000_000).isLessThan(2_000);
+    }
+
+    @Test
+    void guardIsTransparentWithoutAnOpenBudget() {
+        String text = "राम पुत्र श्याम";
+        assertThat(RecordBudget.guard(text)).isSameAs(text);
+        assertThat(RecordBudget.open(0)).isNull();
+
+        try (RecordBudget ignored = RecordBudget.open(1000)) {
+            CharSequence guarded = RecordBudget.guard(text);
+            assertThat(guarded).isNotSameAs(text);
+            assertThat(Pattern.compile("पुत्र\\s+(\\S+)").matcher(guarded).results().map(m -> m.group(1))).containsExactly("श्याम");
+        }
+        assertThat(RecordBudget.guard(text)).isSameAs(text);
+    }
+}
@@ -0,0 +1,64 @@
+package com.extract.ExtraactAllData.util;
+
+import com.extract.ExtraactAllData.support.SampleTexts;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RelationIndexTests {
+
+    private final TextParsingUtil textParsingUtil = new TextParsingUtil();
+
+    @Test
+    void indexMatchesPerNameRegexChain() throws IOException {
+        List<String> records = new ArrayList<>(textParsingUtil.splitIntoParagraphsByTrigger(SampleTexts.bahiRecords()));
+        records.add("पिता जी रामनाथ के  पीता\tसोहन प्रा०मोहन श्रीमती  कमला पिताश्री राम पुत्र  श्याम");
+
+        for (String record : records) {
+            RelationIndex index = RelationIndex.build(record);
+            for (String name : candidateNames(record)) {
+                assertThat(index.relationOf(name)).as("%s / %s", record, name).isEqualTo(regexRelation(record, name));
+            }
+        }
+    }
+
+    // Every name the extractors return, plus every substring starting at or just before a word
+    private List<String> candidateNames(String record) {
+        List<String> names = new ArrayList<>(textParsingUtil.extractAllNames(record));
+        names.addAll(textParsingUtil.extractRitualPersons(record));
+        for (int start = 0; start < record.length(); start++) {
+            if (start > 0 && !Character.isWhitespace(record.charAt(start - 1)) && !Character.isWhitespace(record.charAt(start))) continue;
+            for (int length = 1; length <= 12 && start + length <= record.length(); length++) {
+                names.add(record.substring(start, start + length));
+            }
+        }
+        return names;
+    }
+
+    // The keyword chain extractRelation used before the index, kept as the reference
+    private String regexRelation(String text, String name) {
+        if (name == null || name.isBlank()) return null;
+        if (Pattern.compile("(?:पिता(?:\\s*जी)?|पिताश्री|पापा|सुपुत्र|पुत्र)\\s+" + Pattern.quote(name)).matcher(text).find()) return "पिता";
+        if (Pattern.compile("(?:माता|माँ)\\s+" + Pattern.quote(name)).matcher(text).find()) return "माता";
+        if (Pattern.compile("(?:भाई|भ्राता)\\s+" + Pattern.quote(name)).matcher(text).find()) return "भाई";
+        if (Pattern.compile("(?:लड़का|पुत्र|बेटा)\\s+" + Pattern.quote(name)).matcher(text).find()) return "पुत्र";
+        if (Pattern.compile("(?:पुत्री|बेटी|लड़की)\\s+" + Pattern.quote(name)).matcher(text).find()) return "पुत्री";
+        if (Pattern.compile("(?:पति|स्वामी)\\s+" + Pattern.quote(name)).matcher(text).find()) return "पति";
+        if (Pattern.compile("(?:पत्नी|धर्मपत्नी|बहू)\\s+" + Pattern.quote(name)).matcher(text).find()) return "पत्नी";
+        if (Pattern.compile("(?:दादा|परदादा|बाबा)\\s+" + Pattern.quote(name)).matcher(text).find()) return "दादा";
+        if (Pattern.compile("(?:चाचा|काका)\\s+" + Pattern.quote(name)).matcher(text).find()) return "चाचा";
+        if (Pattern.compile("के\\s*(?:पिता|पीता|पिटा|पा)\\s+" + Pattern.quote(name)).matcher(text).find()) return "पिता (के)";
+        if (Pattern.compile("के\\s*भाई\\s+" + Pattern.quote(name)).matcher(text).find()) return "भाई (के)";
+        if (Pattern.compile("के\\s*लड़का\\s+" + Pattern.quote(name)).matcher(text).find()) return "पुत्र (के)";
+        if (Pattern.compile("(?:प्रा[०0।]?|प्रार्थी|संबोधित)\\s*" + Pattern.quote(name)).matcher(text).find()) return "प्रार्थी";
+        if (Pattern.compile("श्रीमती\\s*" + Pattern.quote(name)).matcher(text).find()) return "पत्नी/महिला";
+        if (name.contains("पिता")) return "पिता";
+        if (name.contains("माता") || name.contains("माँ")) return "माता";
+        return "अन्य";
+    }
+}
@@ -0,0 +1,114 @@
+package com.extract.ExtraactAllData.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTests {
+
+    @Test
+    void concurrentCallsForTheSameKeyShareOneComputation() throws Exception {
+        SingleFlight<String, Object> flight = new SingleFlight<>();
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService threads = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Object>> results = new ArrayList<>();
+            results.add(threads.submit(() -> flight.execute("page", () -> {
+                started.countDown();
+                await(release);
+                computations.incrementAndGet();
+                return new Object();
+            }, 10_000)));
+            started.await();
+
+            List<Thread> waiters = new CopyOnWriteArrayList<>();
+            for (int i = 0; i < 7; i++) {
+                results.add(threads.submit(() -> {
+                    waiters.add(Thread.currentThread());
+                    return flight.execute("page", () -> {
+                        computations.incrementAndGet();
+                        return new Object();
+                    }, 10_000);
+                }));
+            }
+            awaitWaiting(waiters, 7);
+            release.countDown();
+
+            Object first = results.get(0).get();
+            for (Future<Object> result : results) assertThat(result.get()).isSameAs(first);
+            assertThat(computations).hasValue(1);
+            assertThat(flight.coalesced()).isEqualTo(7);
+            assertThat(flight.inFlight()).isZero();
+        } finally {
+            threads.shutdownNow();
+        }
+
+        // Nothing is kept afterwards
+        assertThat(flight.execute("page", () -> "again", 1000)).isEqualTo("again");
+    }
+
+    @Test
+    void waitersGetTheFailureOrComputeThemselvesAfterTheWait() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService threads = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> slow = threads.submit(() -> flight.execute("page", () -> {
+                started.countDown();
+                await(release);
+                throw new IllegalStateException("broken page");
+            }, 1000));
+            started.await();
+
+            // Too long for a 50 ms wait: computed here instead
+            assertThat(flight.execute("page", () -> "own", 50)).isEqualTo("own");
+            assertThat(flight.waitTimeouts()).isEqualTo(1);
+
+            List<Thread> waiters = new CopyOnWriteArrayList<>();
+            Future<String> waiter = Executors.newSingleThreadExecutor().submit(() -> {
+                waiters.add(Thread.currentThread());
+                return flight.execute("page", () -> "unused", 10_000);
+            });
+            awaitWaiting(waiters, 1);
+            release.countDown();
+            assertThatThrownBy(slow::get).hasCauseInstanceOf(IllegalStateException.class);
+            assertThatThrownBy(waiter::get).hasCauseInstanceOf(IllegalStateException.class).hasMessageContaining("broken page");
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    // Until the threads are blocked, which for these tasks means waiting on the running computation
+    private static void awaitWaiting(List<Thread> threads, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            if (threads.size() == count && threads.stream().allMatch(t -> t.getState() == Thread.State.TIMED_WAITING)) return;
+            Thread.sleep(5);
+        }
+        throw new AssertionError("Threads did not start waiting");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
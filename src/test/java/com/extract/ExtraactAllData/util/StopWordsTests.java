@@ -0,0 +1,70 @@
+package com.extract.ExtraactAllData.util;
+
+import com.extract.ExtraactAllData.support.SampleTexts;
+import com.extract.ExtraactAllData.support.SyntheticCorpus;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StopWordsTests {
+
+    // The filler list and removal loop extractUnknownTerms used before, kept as the reference
+    private static final String[] FILLER_WORDS = {"के", "व", "अरुण", "वर", "बिन्दु", "अशोक", "दिनेश", "अस्ती", "लाये", "माँ", "श्रीमती", "दिया", "ता", "आभूमिहार", "वाली", "खनक", "दि", "०", "का", "में", "और", "या", "की", "से", "पर", "द्वारा", "तक", "लिए", "ने", "को", "भी", "ही", "है", "था", "थे", "थी", "हो", "हुआ", "हुए", "हुई", "जा", "कर", "करके", "करते", "वाला", "वाली", "वाले", "आदि"};
+
+    // Fillers, pieces of them and the chars around them, so that removals meet and overlap
+    private static final String[] FRAGMENTS = {
+            "के", "व", "वा", "ली", "ले", "ला", "का", "की", "कर", "ते", "दि", "या", "ता", "०", "१", "माँ", "ँ", "ा", "ी",
+            "े", "ि", "ं", "्", "में", "और", "आदि", "राम", "श्री", "मती", "हु", "ई", "ए", "_", "a", "।", " ", " ", "  ", "\t"
+    };
+
+    private final StopWords stopWords = StopWords.builtIn();
+
+    @Test
+    void singlePassRemovesTheSameAsOneReplaceAllPerFiller() throws IOException {
+        List<String> texts = new ArrayList<>();
+        TextParsingUtil textParsingUtil = new TextParsingUtil();
+        texts.addAll(textParsingUtil.splitIntoParagraphsByTrigger(SampleTexts.bahiRecords()));
+        texts.addAll(textParsingUtil.splitIntoParagraphsByTrigger(SyntheticCorpus.generate(500, 21L)));
+
+        texts.addAll(SampleTexts.fromFragments(FRAGMENTS, 50_000, 10, 11L));
+
+        for (String text : texts) {
+            assertThat(stopWords.removeFillers(text)).as(text).isEqualTo(regexRemoval(text));
+        }
+    }
+
+    @Test
+    void commonWordsIgnoreDevanagariDigits() {
+        assertThat(stopWords.isCommonWord("पिता")).isTrue();
+        assertThat(stopWords.isCommonWord("पिता१२")).isTrue();
+        assertThat(stopWords.isCommonWord(" के ")).isTrue();     // fillers count as common words
+        assertThat(stopWords.isCommonWord("रामनाथ")).isFalse();
+        assertThat(stopWords.isCommonWord("राम नाथ")).isFalse();
+    }
+
+    @Test
+    void customListsReplaceTheBuiltInOnes() throws IOException {
+        String file = "# custom\n[common]\nमंदिर\n[filler]\nएवं किंतु\n";
+        StopWords custom = StopWords.load(new ByteArrayInputStream(file.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(custom.isCommonWord("मंदिर")).isTrue();
+        assertThat(custom.isCommonWord("किंतु")).isTrue();
+        assertThat(custom.isCommonWord("पिता")).isFalse();
+        assertThat(custom.removeFillers("राम एवं श्याम किंतु के")).isEqualTo("राम  श्याम  के");
+        assertThat(custom.definition()).isNotEqualTo(stopWords.definition());
+    }
+
+    private String regexRemoval(String text) {
+        for (String filler : FILLER_WORDS) {
+            text = text.replaceAll("\\b" + Pattern.quote(filler) + "\\b", "");
+        }
+        return text;
+    }
+}
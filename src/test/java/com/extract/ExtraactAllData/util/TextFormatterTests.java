@@ -0,0 +1,128 @@
+package com.extract.ExtraactAllData.util;
+
+import com.extract.ExtraactAllData.support.SyntheticCorpus;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TextFormatterTests {
+
+    // Tokens around every paragraph-end alternative, including the near misses
+    private static final String[] TOKENS = {
+            "ता", "ता.", "ता.४.१.०८", "४.१.०८", "४-१-२००८", "१०/६/०२", "१०/6/02", "११-१०-२०१२", "१", "१२", "१२३४",
+            "१२३४५", "१२३४५६७८९०", "१२३४५-६७८९०ता", "१२३४-५६७८ता", "१२३४५–६७८९०ता.", "12", "4.1.08", "-", "/", ".", "–",
+            "अस्ती", "लाये", "अस्तीलाये", "पूर्णपिता", "आई", "बु.", "के", "आये", "वासी", "ग्रामवासी", "वासीपुर", "वा\tसी",
+            "x\tवासी", "वासी\tक", "राम", "सिंह", "पिता", "ब्रा.", "प्रा०", "बा०", "●", "ना.", "परिकियरनाथ", "।", "ता ",
+            "१२ ", "\u0085वासी", "\u000Bता"
+    };
+
+    @Test
+    void matchesRegexFormatterOnRandomTokenStreams() {
+        Random random = new Random(11);
+        for (int run = 0; run < 3000; run++) {
+            StringBuilder input = new StringBuilder();
+            int tokens = 1 + random.nextInt(40);
+            for (int i = 0; i < tokens; i++) {
+                input.append(TOKENS[random.nextInt(TOKENS.length)]);
+                input.append(random.nextInt(6) == 0 ? "\n" : random.nextInt(8) == 0 ? "  " : " ");
+            }
+            String text = input.toString();
+            assertThat(TextFormatter.format(text)).as(text).isEqualTo(formatByRegex(text));
+        }
+    }
+
+    @Test
+    void matchesRegexFormatterOnCorpora() throws IOException {
+        String sample;
+        try (InputStream in = getClass().getResourceAsStream("/samples/bahi-records.txt")) {
+            sample = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        assertThat(TextFormatter.format(sample)).isEqualTo(formatByRegex(sample));
+
+        String corpus = SyntheticCorpus.generate(500, 5);
+        assertThat(TextFormatter.format(corpus)).isEqualTo(formatByRegex(corpus));
+    }
+
+    @Test
+    void streamingFormatMatchesFormat() throws IOException {
+        Random random = new Random(12);
+        for (int run = 0; run < 500; run++) {
+            StringBuilder input = new StringBuilder();
+            int tokens = random.nextInt(60);
+            for (int i = 0; i < tokens; i++) {
+                input.append(random.nextInt(10) == 0 ? "\t" : "").append(TOKENS[random.nextInt(TOKENS.length)]);
+                input.append(random.nextInt(5) == 0 ? "\r\n" : random.nextInt(8) == 0 ? "   " : " ");
+            }
+            assertThat(formatStreaming(input.toString())).as(input.toString()).isEqualTo(TextFormatter.format(input.toString()));
+        }
+
+        String corpus = SyntheticCorpus.generate(2000, 6);
+        assertThat(formatStreaming(corpus)).isEqualTo(TextFormatter.format(corpus));
+    }
+
+    // Previous implementation that re-matches the whole paragraph after every token, the reference for format
+    private static String formatByRegex(String input) {
+        List<String> paragraphs = new ArrayList<>();
+        StringBuilder currentParagraph = new StringBuilder();
+        boolean paragraphEnded = true;
+
+        for (String token : TextFormatter.tokenize(input)) {
+            String word = token.trim();
+            if (word.isEmpty()) continue;
+
+            if (paragraphEnded && TextFormatter.isStartPrefix(word)) {
+                if (currentParagraph.length() > 0) {
+                    paragraphs.add(TextFormatter.finalizeParagraph(currentParagraph.toString()));
+                    currentParagraph.setLength(0);
+                }
+                paragraphEnded = false;
+            }
+
+            currentParagraph.append(word).append(" ");
+
+            if (PatternRegistry.PARAGRAPH_END_PATTERN.matcher(currentParagraph.toString().trim()).matches()) {
+                paragraphEnded = true;
+            }
+        }
+
+        if (currentParagraph.length() > 0) {
+            paragraphs.add(TextFormatter.finalizeParagraph(currentParagraph.toString()));
+        }
+
+        StringBuilder result = new StringBuilder();
+        for (String para : paragraphs) {
+            result.append(para).append("\n\n");
+        }
+        return result.toString().trim();
+    }
+
+    private static String formatStreaming(String input) throws IOException {
+        StringWriter out = new StringWriter();
+        TextFormatter.format(new StringReader(input), out);
+        return out.toString();
+    }
+
+    @Test
+    void longUnterminatedParagraphIsLinear() {
+        StringBuilder input = new StringBuilder("ब्रा.");
+        for (int i = 0; i < 200_000; i++) {
+            input.append(i % 7 == 0 ? " १२" : " राम");
+        }
+
+        long start = System.nanoTime();
+        String formatted = TextFormatter.format(input.toString());
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(formatted).endsWith("।").doesNotContain("\n");
+        assertThat(millis).isLessThan(5_000);
+    }
+}
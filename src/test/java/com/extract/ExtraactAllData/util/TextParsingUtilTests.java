@@ -0,0 +1,38 @@
+package com.extract.ExtraactAllData.util;
+
+import com.extract.ExtraactAllData.support.SampleTexts;
+import org.junit.jupiter.api.Test;
+
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TextParsingUtilTests {
+
+    // Prefixes, digits, whitespace and names, so that prefixed names meet and overlap
+    private static final String[] FRAGMENTS = {
+            "स्व", "०", "o", "स्व०", " ", "  ", "\t", "\n", "राम", "रा", "म", "श्री", "\\", ",", "a", "प्रा० "
+    };
+    private static final String[] NAMES = {"", " ", "राम", "रा", " राम", "स्व", "०", "o राम", "\\"};
+
+    private final TextParsingUtil textParsingUtil = new TextParsingUtil();
+
+    @Test
+    void honorificPrefixRemovalMatchesTheOldPattern() {
+        for (String text : SampleTexts.fromFragments(FRAGMENTS, 50_000, 10, 17L)) {
+            for (String name : NAMES) {
+                assertThat(textParsingUtil.removeWithHonorificPrefix(text, name)).as("%s / %s", text, name)
+                        .isEqualTo(text.replaceAll("स्व[०o]?\\s*" + Pattern.quote(name), ""));
+            }
+        }
+    }
+
+    @Test
+    void emptyNameRemovesEveryPrefixAsBefore() {
+        // A keyword, whitespace and then no Devanagari: extractAllNames finds an empty name
+        String record = "प्रा० \\स्व० ,";
+        assertThat(textParsingUtil.extractAllNames(record)).contains("");
+        assertThat(textParsingUtil.removeWithHonorificPrefix("स्व० राम स्वo, स्व", "")).isEqualTo("राम , ");
+        assertThat(textParsingUtil.extractUnknownTerms(record)).isEqualTo("\\");
+    }
+}
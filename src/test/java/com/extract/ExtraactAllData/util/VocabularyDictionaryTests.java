@@ -0,0 +1,87 @@
+package com.extract.ExtraactAllData.util;
+
+import com.extract.ExtraactAllData.support.SampleTexts;
+import com.extract.ExtraactAllData.support.SyntheticCorpus;
+import com.extract.ExtraactAllData.util.VocabularyDictionary.Category;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VocabularyDictionaryTests {
+
+    // The alternations the dictionary replaced, kept as the reference
+    private static final Pattern CASTE = Pattern.compile("(कुर्मी|ब्राह्मण|यादव|राजपूत|भूमिहार|चमार|दलित|ठाकुर|सुनार|कुम्हार|नाई|महतो|जाट|बनिया|मुस्लिम|सिख|ईसाई|जैन|बौद्ध)");
+    private static final Pattern SUB_CASTE = Pattern.compile("(पाठक|तिवारी|शुक्ल|सिंह|गुप्ता|राठौर|मिश्र|दिवेदी|त्रिवेदी|लोधी|अहीर|कोरी|प्रजापति|वैश्य|कुशवाहा|सिसोदिया|चौहान|शर्मा|वर्मा|अग्रवाल)");
+    private static final Pattern RITUAL = Pattern.compile("(अस्ती\\s*लाय[ेें]?|अस्तीलाये|पिंड\\s*(?:दान|दिया)|श्राद्ध|दाह\\s*(?:संस्कार|श्राद्ध)|हवन|होम|यज्ञ|पूजन|वेद\\s*पाठ|ब्राह्म(?:ण|मन)\\s*भोज|कर्मकाण्ड)");
+
+    private static final String[] FRAGMENTS = {
+            "अस्ती", "लाय", "लाये", "लायं", "पिंड", "दान", "दिया", "दाह", "संस्कार", "श्राद्ध", "वेद", "पाठ",
+            "ब्राह्म", "ण", "मन", "भोज", "हवन", "होम", "यज्ञ", "त्रिवेदी", "दिवेदी", "सिंह", "कुर्मी", "नाई", "जैन",
+            "शर्मा", "वर्मा", "राम", "का", " ", "  ", "\t", "\n", " "
+    };
+
+    private final VocabularyDictionary dictionary = VocabularyDictionary.builtIn();
+
+    @Test
+    void builtInVocabularyMatchesTheOldPatterns() throws IOException {
+        List<String> texts = new ArrayList<>();
+        texts.add(SampleTexts.bahiRecords());
+        texts.addAll(new TextParsingUtil().splitIntoParagraphsByTrigger(SampleTexts.bahiRecords()));
+        texts.addAll(new TextParsingUtil().splitIntoParagraphsByTrigger(SyntheticCorpus.generate(500, 13L)));
+
+        texts.addAll(SampleTexts.fromFragments(FRAGMENTS, 20_000, 8, 7L));
+
+        for (String text : texts) {
+            assertSameAsRegex(text, Category.CASTE, CASTE);
+            assertSameAsRegex(text, Category.SUBCASTE, SUB_CASTE);
+            assertSameAsRegex(text, Category.RITUAL, RITUAL);
+        }
+    }
+
+    @Test
+    void firstMatchesReportsEveryCategoryFromOneScan() {
+        Map<Category, String> matches = dictionary.firstMatches("राम यादव पुत्र श्याम सिंह ने अस्ती  लाये और हवन किया");
+
+        assertThat(matches).containsEntry(Category.CASTE, "यादव")
+                .containsEntry(Category.SUBCASTE, "सिंह")
+                .containsEntry(Category.RITUAL, "अस्ती  लाये");
+        assertThat(dictionary.firstMatches("राम पुत्र श्याम")).isEmpty();
+    }
+
+    @Test
+    void externalFileAddsWordsWithoutCodeChanges(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("vocabulary.txt");
+        Files.writeString(file, "# test vocabulary\n[caste]\nयादव\nगड़रिया\n\n[ritual]\nमुंडन | मुंडन संस्कार\n",
+                StandardCharsets.UTF_8);
+
+        TextParsingUtil textParsingUtil = new TextParsingUtil();
+        ReflectionTestUtils.setField(textParsingUtil, "dictionaryLocation", file.toString());
+        textParsingUtil.loadDictionary();
+
+        String record = "प्रा० रामू गड़रिया ने मुंडन  संस्कार कराया";
+        assertThat(textParsingUtil.extractCaste(record)).isEqualTo("गड़रिया");
+        assertThat(textParsingUtil.extractanusthan_ka_naam(record)).isEqualTo("मुंडन  संस्कार");
+        assertThat(textParsingUtil.extractSubCaste(record)).isNull();
+        assertThat(textParsingUtil.getVocabulary().definition()).isNotEqualTo(dictionary.definition());
+    }
+
+    private void assertSameAsRegex(String text, Category category, Pattern pattern) {
+        Matcher matcher = pattern.matcher(text);
+        String expected = matcher.find() ? matcher.group(1) : null;
+        assertThat(dictionary.firstMatch(text, category)).as("%s in %s", category, text).isEqualTo(expected);
+        assertThat(dictionary.replaceAll(text, category, " ")).as("%s in %s", category, text)
+                .isEqualTo(pattern.matcher(text).replaceAll(" "));
+    }
+}